@@ -0,0 +1,127 @@
+package com.impressiveinteractive.checkmark.benchmarks;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates, compiles and loads bean classes to benchmark against. A corpus bean has the requested number of fields,
+ * spread over an inheritance chain of the requested depth. Fields cycle through primitive, boxed, {@link String},
+ * enum, interface, open class and array types, and every level has accessors, mutators, equals and hashCode that
+ * follow the rules CheckMark verifies. Arrays are compared by identity, since CheckMark only generates empty arrays.
+ * <p/>
+ * The beans are compiled with the system Java compiler, so the benchmarks have to run on a JDK.
+ */
+final class BeanCorpus {
+    private static final String PACKAGE = "com.impressiveinteractive.checkmark.benchmarks.corpus";
+    private static final String[] TYPES = {
+            "int", "String", "long", "Runnable", "double", "short", "char", "java.util.Date", "byte", "char[]",
+            "java.util.concurrent.TimeUnit", "java.util.List", "boolean", "Integer"
+    };
+
+    private BeanCorpus() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    /**
+     * Generate the bean with the given shape.
+     *
+     * @param fields The total number of fields, at least 1.
+     * @param depth  The length of the inheritance chain, at least 1.
+     * @return The most specific class of the chain.
+     * @throws IOException            Thrown when the sources could not be written.
+     * @throws ClassNotFoundException Thrown when the compiled bean could not be loaded.
+     */
+    static Class<?> generate(int fields, int depth) throws IOException, ClassNotFoundException {
+        if (fields < 1 || depth < 1) {
+            throw new IllegalArgumentException("A corpus bean needs at least one field and one level.");
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("The bean corpus can only be generated when running on a JDK.");
+        }
+
+        Path directory = Files.createTempDirectory("checkmark-corpus");
+        String prefix = String.format("F%dD%d_Level", fields, depth);
+        List<String> sources = new ArrayList<>();
+        int field = 0;
+        for (int level = 0; level < depth; level++) {
+            int count = fields / depth + (level < fields % depth ? 1 : 0);
+            Path source = directory.resolve(prefix + level + ".java");
+            try (Writer writer = Files.newBufferedWriter(source, StandardCharsets.UTF_8)) {
+                writer.write(source(prefix, level, field, count));
+            }
+            sources.add(source.toString());
+            field += count;
+        }
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-nowarn");
+        arguments.add("-d");
+        arguments.add(directory.toString());
+        arguments.addAll(sources);
+        if (compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])) != 0) {
+            throw new IllegalStateException("Could not compile the bean corpus in " + directory);
+        }
+
+        // Loading and initializing the most specific class loads the whole chain, after which the loader can be closed
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                BeanCorpus.class.getClassLoader())) {
+            return Class.forName(PACKAGE + "." + prefix + (depth - 1), true, loader);
+        }
+    }
+
+    private static String source(String prefix, int level, int firstField, int count) {
+        String name = prefix + level;
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(PACKAGE).append(";\n\n");
+        source.append("public class ").append(name);
+        if (level > 0) {
+            source.append(" extends ").append(prefix).append(level - 1);
+        }
+        source.append(" {\n");
+
+        for (int i = firstField; i < firstField + count; i++) {
+            source.append("    private ").append(TYPES[i % TYPES.length]).append(" field").append(i).append(";\n");
+        }
+        for (int i = firstField; i < firstField + count; i++) {
+            String type = TYPES[i % TYPES.length];
+            source.append("    public ").append(type).append(" getField").append(i).append("() {\n")
+                    .append("        return field").append(i).append(";\n    }\n");
+            source.append("    public void setField").append(i).append("(").append(type).append(" value) {\n")
+                    .append("        this.field").append(i).append(" = value;\n    }\n");
+        }
+
+        source.append("    @Override\n    public boolean equals(Object obj) {\n");
+        if (level > 0) {
+            source.append("        if (!super.equals(obj)) {\n            return false;\n        }\n");
+        } else {
+            source.append("        if (this == obj) {\n            return true;\n        }\n")
+                    .append("        if (obj == null || getClass() != obj.getClass()) {\n")
+                    .append("            return false;\n        }\n");
+        }
+        source.append("        ").append(name).append(" other = (").append(name).append(") obj;\n");
+        source.append("        return true");
+        for (int i = firstField; i < firstField + count; i++) {
+            source.append("\n                && java.util.Objects.equals(field").append(i).append(", other.field")
+                    .append(i).append(")");
+        }
+        source.append(";\n    }\n");
+
+        source.append("    @Override\n    public int hashCode() {\n");
+        source.append("        int result = ").append(level > 0 ? "super.hashCode()" : "0").append(";\n");
+        for (int i = firstField; i < firstField + count; i++) {
+            source.append("        result = 31 * result + java.util.Objects.hashCode(field").append(i).append(");\n");
+        }
+        source.append("        return result;\n    }\n}\n");
+        return source.toString();
+    }
+}
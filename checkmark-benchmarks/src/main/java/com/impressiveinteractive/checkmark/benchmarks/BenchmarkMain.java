@@ -0,0 +1,40 @@
+package com.impressiveinteractive.checkmark.benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks in throughput mode with the {@link GCProfiler}, so every result also shows the allocation rate.
+ * Any regular JMH command line option can be given to override these defaults, for example a benchmark name pattern to
+ * run only part of the suites.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .forks(1)
+                // Needed on Java 9 and later for the generated sentinel classes, ignored by older versions
+                .jvmArgsAppend("-XX:+IgnoreUnrecognizedVMOptions", "--add-opens=java.base/java.lang=ALL-UNNAMED")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.impressiveinteractive.checkmark.benchmarks;
+
+import com.impressiveinteractive.checkmark.CheckMark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the {@link CheckMark} entry points over generated beans of different sizes and inheritance depths.
+ */
+@State(Scope.Benchmark)
+public class CheckMarkBenchmark {
+    @Param({"1", "10", "100", "500"})
+    public int fields;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    private Class<?> bean;
+
+    @Setup
+    public void setUp() throws Exception {
+        bean = BeanCorpus.generate(fields, depth);
+    }
+
+    @Benchmark
+    public void testAccessors() throws Exception {
+        CheckMark.testAccessors(bean);
+    }
+
+    @Benchmark
+    public void testMutators() throws Exception {
+        CheckMark.testMutators(bean);
+    }
+
+    @Benchmark
+    public void testEqualsAndHashCode() throws Exception {
+        CheckMark.testEqualsAndHashCode(bean);
+    }
+}
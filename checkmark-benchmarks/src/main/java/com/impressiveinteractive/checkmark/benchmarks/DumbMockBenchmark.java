@@ -0,0 +1,60 @@
+package com.impressiveinteractive.checkmark.benchmarks;
+
+import com.impressiveinteractive.checkmark.Reflection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.AbstractList;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Reflection#dumbMock(Class, long)} for each category of type it distinguishes.
+ */
+@State(Scope.Benchmark)
+public class DumbMockBenchmark {
+    @Param({"PRIMITIVE", "STRING", "ARRAY", "ENUM", "FINAL", "INTERFACE", "ABSTRACT", "OPEN"})
+    public Category category;
+
+    private Class<?> type;
+
+    @Setup
+    public void setUp() {
+        type = category.type;
+    }
+
+    @Benchmark
+    public Object dumbMock() throws Exception {
+        return Reflection.dumbMock(type, Reflection.DEFAULT_SEED);
+    }
+
+    public enum Category {
+        PRIMITIVE(int.class),
+        STRING(String.class),
+        ARRAY(int[].class),
+        ENUM(TimeUnit.class),
+        FINAL(FinalValue.class),
+        INTERFACE(Runnable.class),
+        ABSTRACT(AbstractList.class),
+        OPEN(Date.class);
+
+        private final Class<?> type;
+
+        Category(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    public static final class FinalValue {
+        private final String name;
+        private final long amount;
+
+        public FinalValue(String name, long amount) {
+            this.name = name;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.impressiveinteractive.checkmark.benchmarks;
+
+import com.impressiveinteractive.checkmark.Reflection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+
+/**
+ * Benchmarks {@link Reflection#createInstance(Class)} and {@link Reflection#getFields(Class)} over generated beans of
+ * different sizes and inheritance depths.
+ */
+@State(Scope.Benchmark)
+public class ReflectionBenchmark {
+    @Param({"1", "10", "100", "500"})
+    public int fields;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    private Class<?> bean;
+
+    @Setup
+    public void setUp() throws Exception {
+        bean = BeanCorpus.generate(fields, depth);
+    }
+
+    @Benchmark
+    public Object createInstance() throws Exception {
+        return Reflection.createInstance(bean);
+    }
+
+    @Benchmark
+    public Set<Field> getFields() {
+        return Reflection.getFields(bean);
+    }
+}
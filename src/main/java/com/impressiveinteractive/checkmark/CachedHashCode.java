@@ -0,0 +1,23 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the {@code int} field in which a class caches its {@link Object#hashCode()}, the way {@link String} does. The
+ * field is left out of the equals checks, and instead its cached value is checked against a fresh computation.
+ * <p/>
+ * Without the annotation the field is checked like any other, even when it is named like a cache. A non-static,
+ * non-final {@code int} field named {@code hash} or {@code hashCode}, or ending in {@code Hash} or {@code HashCode},
+ * like {@code cachedHash}, only gets a hint in the log and a warning from the {@link CheckMarkProcessor}.
+ *
+ * @see CheckMark#testHashCodeConcurrency(Class)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CachedHashCode {
+}
@@ -0,0 +1,49 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * The {@link AssertionError} thrown for a failed {@link CheckResult}. Its message is rendered from the result when it
+ * is first asked for.
+ * <p/>
+ * Failures thrown by a {@link CheckMarkRunner}, which may collect many of them, do not capture a stack trace. Enable
+ * {@link CheckMark#setDebug(boolean) debugging} to get one anyway. Failures thrown by a direct call to
+ * {@link CheckMark} always capture one, so they point at the test that made the call. The exception that made the
+ * check fail, if any, is the cause and keeps its own stack trace.
+ */
+public final class CheckFailure extends AssertionError {
+    private static final long serialVersionUID = 1L;
+
+    private final transient CheckResult result;
+
+    CheckFailure(CheckResult result) {
+        this.result = result;
+        if (result.getCause() != null) {
+            initCause(result.getCause());
+        }
+    }
+
+    /**
+     * @return The failed result.
+     */
+    public CheckResult getResult() {
+        return result;
+    }
+
+    @Override
+    public String getMessage() {
+        return result == null ? null : result.getMessage();
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return CheckMark.isStackless() ? this : super.fillInStackTrace();
+    }
+
+    /**
+     * Serialize as a plain {@link AssertionError}, since the result holds classes and instances.
+     */
+    private Object writeReplace() {
+        AssertionError replacement = new AssertionError(getMessage(), getCause());
+        replacement.setStackTrace(getStackTrace());
+        return replacement;
+    }
+}
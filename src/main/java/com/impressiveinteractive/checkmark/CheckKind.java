@@ -0,0 +1,108 @@
+package com.impressiveinteractive.checkmark;
+
+import java.beans.IntrospectionException;
+
+/**
+ * The kinds of checks {@link CheckMark} can run on a class.
+ */
+public enum CheckKind {
+    /**
+     * @see CheckMark#testAccessors(Class)
+     */
+    ACCESSORS {
+        @Override
+        void run(Class<?> cls) throws IntrospectionException, ReflectiveOperationException {
+            CheckMark.testAccessors(cls);
+        }
+    },
+
+    /**
+     * @see CheckMark#testMutators(Class)
+     */
+    MUTATORS {
+        @Override
+        void run(Class<?> cls) throws IntrospectionException, ReflectiveOperationException {
+            CheckMark.testMutators(cls);
+        }
+    },
+
+    /**
+     * @see CheckMark#testEqualsAndHashCode(Class)
+     */
+    EQUALS_AND_HASH_CODE {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testEqualsAndHashCode(cls);
+        }
+    },
+
+    /**
+     * Not run by default by a {@link CheckMarkRunner}, since it is stricter than the equals and hashCode contract.
+     *
+     * @see CheckMark#testHashCodeDistribution(Class)
+     */
+    HASH_CODE_DISTRIBUTION {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testHashCodeDistribution(cls);
+        }
+    },
+
+    /**
+     * Not run by default by a {@link CheckMarkRunner}, since it starts threads for every class.
+     *
+     * @see CheckMark#testHashCodeConcurrency(Class)
+     */
+    HASH_CODE_CONCURRENCY {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testHashCodeConcurrency(cls);
+        }
+    },
+
+    /**
+     * Not run by default by a {@link CheckMarkRunner}, since only {@link Comparable} classes can be checked.
+     *
+     * @see CheckMark#testCompareTo(Class)
+     */
+    COMPARE_TO {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testCompareTo(cls);
+        }
+    },
+
+    /**
+     * Not run by default by a {@link CheckMarkRunner}, since only serializable classes can be checked.
+     *
+     * @see CheckMark#testSerialization(Class)
+     */
+    SERIALIZATION {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testSerialization(cls);
+        }
+    },
+
+    /**
+     * Not run by default by a {@link CheckMarkRunner}, since it only fails against a budget. Run without one, it logs
+     * the footprint of every class.
+     *
+     * @see CheckMark#testFootprint(Class, long)
+     */
+    FOOTPRINT {
+        @Override
+        void run(Class<?> cls) throws ReflectiveOperationException {
+            CheckMark.testFootprint(cls, Long.MAX_VALUE);
+        }
+    };
+
+    /**
+     * Run this check on the given class.
+     *
+     * @param cls The {@link Class} to check.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
+     * @throws ReflectiveOperationException Thrown when the class could not be checked using reflection.
+     */
+    abstract void run(Class<?> cls) throws IntrospectionException, ReflectiveOperationException;
+}
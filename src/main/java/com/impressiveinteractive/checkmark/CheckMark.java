@@ -6,24 +6,40 @@ import org.slf4j.LoggerFactory;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.io.IOException;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * Test common pieces of code like accessors, mutators, equals and hashCode.
  */
 public final class CheckMark {
+    /**
+     * The system property that, when false, makes accessors and mutators always be called, even when their bytecode
+     * shows that they are correct.
+     */
+    public static final String BYTECODE_SHORTCUT_PROPERTY = "checkmark.bytecodeShortcut";
+
+    /**
+     * The system property that, when true, makes failed checks capture a stack trace.
+     */
+    public static final String DEBUG_PROPERTY = "checkmark.debug";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(CheckMark.class);
-    private static final int SEED_ONE = 1337;
-    private static final int SEED_TWO = 1338;
-
-    private static final String ACCESSOR_FAIL_MESSAGE = "Accessor to field %s.%s does not work.";
-    private static final String ACCESSOR_EXCEPTION_MESSAGE = "Accessor to field %s.%s threw an exception.";
-    private static final String MUTATOR_FAIL_MESSAGE = "Mutator to field %s.%s does not work.";
-    private static final String MUTATOR_EXCEPTION_MESSAGE = "Mutator to field %s.%s threw an exception.";
-    private static final String NO_GETTER_MESSAGE =
+    static final int SEED_ONE = 1337;
+    static final int SEED_TWO = 1338;
+
+    static final String ACCESSOR_FAIL_MESSAGE = "Accessor to field %s.%s does not work.";
+    static final String ACCESSOR_EXCEPTION_MESSAGE = "Accessor to field %s.%s threw an exception.";
+    static final String MUTATOR_FAIL_MESSAGE = "Mutator to field %s.%s does not work.";
+    static final String MUTATOR_EXCEPTION_MESSAGE = "Mutator to field %s.%s threw an exception.";
+    static final String NO_GETTER_MESSAGE =
             "Ignoring getter for property \"{}\" since its field can not be found. Is this a getter?";
     private static final String EQUAL_ON_NULL_MESSAGE = "Equals for %s returns true with a null input.";
     private static final String EQUAL_ON_NEW_OBJECT_MESSAGE = "Equals for %s returns true with a new Object() input.";
@@ -34,19 +50,164 @@ public final class CheckMark {
             "Equals returns false on two exact copies of %s.\n" +
                     "Instance A:\n%s\n" +
                     "Instance B:\n%s";
-    private static final String FIELD_NOT_USED_IN_EQUALS_MESSAGE = "Field %s is not used in equals.";
+    static final String FIELD_NOT_USED_IN_EQUALS_MESSAGE = "Field %s is not used in equals.";
+    private static final String NOT_COMPARABLE_MESSAGE = "%s does not implement Comparable.";
+    private static final String COMPARE_TO_SELF_MESSAGE = "CompareTo of %s returns %d when comparing an instance to "
+            + "itself.";
+    private static final String COMPARE_TO_COPY_MESSAGE = "CompareTo of %s returns %d and %d on two exact copies.";
+    static final String FIELD_NOT_USED_IN_COMPARE_TO_MESSAGE = "Field %s is not used in compareTo.";
+    private static final String COMPARE_TO_INCONSISTENT_MESSAGE = "CompareTo of %s is inconsistent with equals when "
+            + "field %s differs: compareTo returns %d, while equals returns %s.";
+    private static final String COMPARE_TO_NOT_ANTISYMMETRIC_MESSAGE = "CompareTo of %s is not antisymmetric when "
+            + "field %s differs: a.compareTo(b) returns %d and b.compareTo(a) returns %d.";
     private static final String EXACT_COPY_HASH_CODE_NOT_EQUAL_MESSAGE = "HashCode returns a different result on two exact copies of %s.\n" +
             "HashCode instance A:\n%s\n" +
             "HashCode instance B:\n%s";
 
+    private static final ClassScanner.Callback ACCESSORS_AND_MUTATORS = new ClassScanner.Callback() {
+        @Override
+        public void found(Class<?> cls, ClassFile classFile)
+                throws IntrospectionException, ReflectiveOperationException {
+            testAccessorsAndMutators(cls);
+        }
+    };
+
+    private static volatile InvocationEngine invocationEngine = InvocationEngine.fromSystemProperty();
+    private static volatile ResultCache resultCache = ResultCache.fromSystemProperty();
+    private static volatile boolean bytecodeShortcut =
+            !"false".equalsIgnoreCase(System.getProperty(BYTECODE_SHORTCUT_PROPERTY));
+    private static volatile boolean debug = Boolean.getBoolean(DEBUG_PROPERTY);
+    private static final ThreadLocal<Boolean> stackless = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
+
     private CheckMark() {
         throw new AssertionError("Private constructor called");
     }
 
+    /**
+     * Select the {@link InvocationEngine} used to call accessors and mutators and to access their backing fields. The
+     * default is taken from the {@value InvocationEngine#SYSTEM_PROPERTY} system property, or
+     * {@link InvocationEngine#METHOD_HANDLE} if it is not set.
+     *
+     * @param engine The engine to use from now on.
+     */
+    public static void setInvocationEngine(InvocationEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("The invocation engine can not be null.");
+        }
+        invocationEngine = engine;
+    }
+
+    /**
+     * @return The {@link InvocationEngine} currently in use.
+     */
+    public static InvocationEngine getInvocationEngine() {
+        return invocationEngine;
+    }
+
+    /**
+     * Select the {@link ResultCache} used to skip checks that passed on an unchanged class before. The default is the
+     * cache in the directory named by the {@value ResultCache#SYSTEM_PROPERTY} system property, if it is set.
+     *
+     * @param cache The cache to use from now on, or null to always run all checks.
+     */
+    public static void setResultCache(ResultCache cache) {
+        resultCache = cache;
+    }
+
+    /**
+     * @return The {@link ResultCache} currently in use, or null if caching is disabled.
+     */
+    public static ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Enable or disable the bytecode shortcut. When enabled, an accessor whose body does nothing but return its backing
+     * field, and a mutator whose body does nothing but store its parameter in its backing field, are verified by
+     * reading the class file instead of calling them. A class whose accessors or mutators are all verified this way is
+     * not even instantiated. The default is enabled, unless the {@value #BYTECODE_SHORTCUT_PROPERTY} system property is
+     * false.
+     *
+     * @param enabled True to verify trivial accessors and mutators from their bytecode.
+     */
+    public static void setBytecodeShortcut(boolean enabled) {
+        bytecodeShortcut = enabled;
+    }
+
+    /**
+     * @return True if trivial accessors and mutators are verified from their bytecode.
+     */
+    public static boolean isBytecodeShortcut() {
+        return bytecodeShortcut;
+    }
+
+    /**
+     * Enable or disable debugging. A {@link CheckFailure} thrown by a {@link CheckMarkRunner} has no stack trace of its
+     * own unless debugging is enabled, which keeps runs that expect many failures fast. Failures thrown by a direct
+     * call always have one. The default is taken from the {@value #DEBUG_PROPERTY} system property.
+     *
+     * @param enabled True to capture the stack trace of every failed check.
+     */
+    public static void setDebug(boolean enabled) {
+        debug = enabled;
+    }
+
+    /**
+     * @return True if failed checks capture a stack trace.
+     */
+    public static boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Mark the checks run by the current thread as part of a bulk run, whose failures skip their stack trace unless
+     * {@link #setDebug(boolean) debugging} is enabled.
+     *
+     * @param enabled True while the current thread runs checks in bulk.
+     */
+    static void setStackless(boolean enabled) {
+        stackless.set(enabled);
+    }
+
+    /**
+     * @return True if a failure created on the current thread should not capture a stack trace.
+     */
+    static boolean isStackless() {
+        return !debug && stackless.get();
+    }
+
+    /**
+     * Register a {@link CheckMarkListener} that is notified of all checks from now on, on any thread.
+     *
+     * @param listener The listener to register.
+     */
+    public static void addListener(CheckMarkListener listener) {
+        Listeners.add(listener);
+    }
+
+    /**
+     * Unregister a {@link CheckMarkListener}.
+     *
+     * @param listener The listener to unregister.
+     * @return True if the listener was registered.
+     */
+    public static boolean removeListener(CheckMarkListener listener) {
+        return Listeners.remove(listener);
+    }
+
     /**
      * Test all the accessors and mutators for the given class. An instance of the given class will be created and
      * accessor and mutator information will be scanned for using the {@link Introspector}. These methods will then be
      * called while reflection is used to make sure they <em>get</em> or <em>set</em> as expected.
+     * <p/>
+     * When the {@link #setBytecodeShortcut(boolean) bytecode shortcut} is enabled, trivial accessors and mutators are
+     * verified from the class file and not called. If that covers all of them, no instance is created at all, so a
+     * class without a usable constructor passes as long as its accessors and mutators are trivial.
      *
      * @param cls The {@link Class} to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
@@ -54,13 +215,20 @@ public final class CheckMark {
      */
     public static void testAccessorsAndMutators(Class<?> cls)
             throws IntrospectionException, ReflectiveOperationException {
-        testAccessorsAndMutators(Reflection.createInstance(cls));
+        if (passedBefore(cls, CheckKind.ACCESSORS) && passedBefore(cls, CheckKind.MUTATORS)) {
+            return;
+        }
+        Object instance = needsInstance(cls, CheckKind.ACCESSORS) || needsInstance(cls, CheckKind.MUTATORS)
+                ? Reflection.createInstance(cls) : null;
+        runAccessors(cls, instance, true);
+        runMutators(cls, instance, true);
     }
 
     /**
      * Test all the accessors and mutators for the given instance. Accessor and mutator information will be scanned for
      * using the {@link Introspector}. These methods will then be called while reflection is used to make sure they
-     * <em>get</em> or <em>set</em> as expected.
+     * <em>get</em> or <em>set</em> as expected. The result is not remembered by the {@link ResultCache}, since it
+     * depends on the instance as much as on its class.
      *
      * @param instance The instance to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
@@ -76,51 +244,127 @@ public final class CheckMark {
      * Test all the accessors for the given class. An instance of the given class will be created and accessor
      * information will be scanned for using the {@link Introspector}. These methods will then be called while
      * reflection is used to make sure they <em>get</em> as expected.
+     * <p/>
+     * With the {@link #setBytecodeShortcut(boolean) bytecode shortcut} enabled, no instance is created when all
+     * accessors are trivial.
      *
      * @param cls The {@link Class} to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
      * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
      */
     public static void testAccessors(Class<?> cls) throws IntrospectionException, ReflectiveOperationException {
-        testAccessors(Reflection.createInstance(cls));
+        if (passedBefore(cls, CheckKind.ACCESSORS)) {
+            return;
+        }
+        runAccessors(cls, needsInstance(cls, CheckKind.ACCESSORS) ? Reflection.createInstance(cls) : null, true);
     }
 
     /**
      * Test all the accessors for the given instance. Accessor information will be scanned for using the
      * {@link Introspector}. These methods will then be called while reflection is used to make sure they <em>get</em>
-     * as expected.
+     * as expected. The result is not remembered by the {@link ResultCache}, since it depends on the instance as much
+     * as on its class.
      *
      * @param instance The instance to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
      * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
      */
     public static void testAccessors(Object instance) throws IntrospectionException, ReflectiveOperationException {
-        Class<?> cls = instance.getClass();
-        PropertyDescriptor[] descriptors =
-                Introspector.getBeanInfo(cls, Object.class).getPropertyDescriptors();
-        for (PropertyDescriptor descriptor : descriptors) {
-            Method readMethod = descriptor.getReadMethod();
-            if (readMethod != null) {
-                Object mock = Reflection.dumbMock(descriptor.getPropertyType());
-                String name = descriptor.getName();
+        runAccessors(instance.getClass(), instance, false);
+    }
+
+    /**
+     * @param instance The instance to check, or null when {@link #needsInstance(Class, CheckKind)} is false.
+     * @param cached   True to use the {@link ResultCache}, which is only valid for an instance created here.
+     */
+    private static void runAccessors(Class<?> cls, Object instance, boolean cached)
+            throws IntrospectionException, ReflectiveOperationException {
+        if (cached && passedBefore(cls, CheckKind.ACCESSORS)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.ACCESSORS);
+        try {
+            checkAccessors(cls, instance);
+            if (cached) {
+                passed(cls, CheckKind.ACCESSORS);
+            }
+        } catch (IntrospectionException | ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.ACCESSORS, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.ACCESSORS, start);
+        }
+    }
+
+    private static void checkAccessors(Class<?> cls, Object instance)
+            throws IntrospectionException, ReflectiveOperationException {
+        CheckMarkVerifier verifier = Verifiers.forClass(cls);
+        if (verifier != null) {
+            verifier.testAccessors(instance);
+            return;
+        }
+
+        InvocationEngine engine = invocationEngine;
+        for (VerificationPlan.Property property : VerificationPlan.forClass(cls).getProperties()) {
+            if (property.getReadMethod() != null) {
+                require(checkAccessor(cls, instance, property, engine, Reflection.DEFAULT_SEED));
+            }
+        }
+    }
 
+    /**
+     * Check the accessor of a single property, which must have a read method. A
+     * {@link VerificationPlan.Property#isTrivialAccessor() trivial} accessor is not called when the bytecode shortcut is
+     * enabled.
+     *
+     * @param cls      The checked class.
+     * @param instance The instance to call the accessor on, which may be null for a trivial accessor.
+     * @param property The property.
+     * @param engine   The engine to invoke the accessor and access the field with.
+     * @param seed     The seed of the dumb mock passed to the accessor. Failures name it unless it is the
+     *                 {@link Reflection#DEFAULT_SEED default seed}.
+     * @return The result, which is already {@link #report(CheckResult) reported} when it failed.
+     * @throws ReflectiveOperationException Thrown when no dumb mock could be created for the property type.
+     */
+    static CheckResult checkAccessor(Class<?> cls, Object instance, VerificationPlan.Property property,
+                                     InvocationEngine engine, long seed) throws ReflectiveOperationException {
+        String name = property.getName();
+        if (bytecodeShortcut && property.isTrivialAccessor()) {
+            Listeners.propertyChecked(cls, CheckKind.ACCESSORS, name, Listeners.start());
+            return CheckResult.passed(cls, CheckKind.ACCESSORS, name, seed);
+        }
+        Object mock = Reflection.checkValue(property.getType(), CheckKind.ACCESSORS, seed);
+
+        if (property.getField() == null) {
+            LOGGER.warn(NO_GETTER_MESSAGE, name);
+            return CheckResult.passed(cls, CheckKind.ACCESSORS, name, seed);
+        }
+        PropertyInvoker invoker = property.getInvoker(engine);
+        long start = Listeners.start();
+        try {
+            boolean matches;
+            if (property.isFinalField()) {
+                matches = invoker.readMatches(instance, invoker.get(instance));
+            } else {
+                // Put the field back, so that the cached value does not show up in the checks of other properties
+                Object previous = invoker.get(instance);
+                invoker.set(instance, mock);
                 try {
-                    Field field = Reflection.getField(cls, name);
-                    field.setAccessible(true);
-                    if (Modifier.isFinal(field.getModifiers())) {
-                        mock = field.get(instance);
-                    } else {
-                        field.set(instance, mock);
-                    }
-                    if (!checkReadMethod(instance, readMethod, mock)) {
-                        throw new AssertionError(String.format(ACCESSOR_FAIL_MESSAGE, cls.getCanonicalName(), name));
-                    }
-                } catch (NoSuchFieldException e) {
-                    LOGGER.warn(NO_GETTER_MESSAGE, name);
-                } catch (Exception e) {
-                    throw new AssertionError(String.format(ACCESSOR_EXCEPTION_MESSAGE, cls.getCanonicalName(), name), e);
+                    matches = invoker.readMatches(instance, mock);
+                } finally {
+                    invoker.set(instance, previous);
                 }
             }
+            if (!matches) {
+                return report(CheckResult.failed(cls, CheckKind.ACCESSORS, name, seed, null, ACCESSOR_FAIL_MESSAGE,
+                        cls.getCanonicalName(), name));
+            }
+            return CheckResult.passed(cls, CheckKind.ACCESSORS, name, seed);
+        } catch (Exception e) {
+            return report(CheckResult.failed(cls, CheckKind.ACCESSORS, name, seed, e, ACCESSOR_EXCEPTION_MESSAGE,
+                    cls.getCanonicalName(), name));
+        } finally {
+            Listeners.propertyChecked(cls, CheckKind.ACCESSORS, name, start);
         }
     }
 
@@ -128,46 +372,211 @@ public final class CheckMark {
      * Test all the mutators for the given class. An instance of the given class will be created and mutator information
      * will be scanned for using the {@link Introspector}. These methods will then be called while reflection is used to
      * make sure they <em>set</em> as expected.
+     * <p/>
+     * With the {@link #setBytecodeShortcut(boolean) bytecode shortcut} enabled, no instance is created when all
+     * mutators are trivial.
      *
      * @param cls The {@link Class} to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
      * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
      */
     public static void testMutators(Class<?> cls) throws IntrospectionException, ReflectiveOperationException {
-        testMutators(Reflection.createInstance(cls));
+        if (passedBefore(cls, CheckKind.MUTATORS)) {
+            return;
+        }
+        runMutators(cls, needsInstance(cls, CheckKind.MUTATORS) ? Reflection.createInstance(cls) : null, true);
     }
 
     /**
      * Test all the mutators for the given instance. Mutator information will be scanned for using the
      * {@link Introspector}. These methods will then be called while reflection is used to make sure they <em>set</em>
-     * as expected.
+     * as expected. The result is not remembered by the {@link ResultCache}, since it depends on the instance as much
+     * as on its class.
      *
      * @param instance The instance to test.
      * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
      * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
      */
     public static void testMutators(Object instance) throws IntrospectionException, ReflectiveOperationException {
-        Class<?> cls = instance.getClass();
-        PropertyDescriptor[] descriptors =
-                Introspector.getBeanInfo(cls, Object.class).getPropertyDescriptors();
-        for (PropertyDescriptor descriptor : descriptors) {
-            Method writeMethod = descriptor.getWriteMethod();
-            if (writeMethod != null) {
-                Object mock = Reflection.dumbMock(descriptor.getPropertyType());
-                String name = descriptor.getName();
+        runMutators(instance.getClass(), instance, false);
+    }
 
-                try {
-                    writeMethod.invoke(instance, mock);
+    /**
+     * @param instance The instance to check, or null when {@link #needsInstance(Class, CheckKind)} is false.
+     * @param cached   True to use the {@link ResultCache}, which is only valid for an instance created here.
+     */
+    private static void runMutators(Class<?> cls, Object instance, boolean cached)
+            throws IntrospectionException, ReflectiveOperationException {
+        if (cached && passedBefore(cls, CheckKind.MUTATORS)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.MUTATORS);
+        try {
+            checkMutators(cls, instance);
+            if (cached) {
+                passed(cls, CheckKind.MUTATORS);
+            }
+        } catch (IntrospectionException | ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.MUTATORS, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.MUTATORS, start);
+        }
+    }
+
+    private static void checkMutators(Class<?> cls, Object instance)
+            throws IntrospectionException, ReflectiveOperationException {
+        CheckMarkVerifier verifier = Verifiers.forClass(cls);
+        if (verifier != null) {
+            verifier.testMutators(instance);
+            return;
+        }
+
+        InvocationEngine engine = invocationEngine;
+        for (VerificationPlan.Property property : VerificationPlan.forClass(cls).getProperties()) {
+            if (property.getWriteMethod() != null) {
+                require(checkMutator(cls, instance, property, engine, Reflection.DEFAULT_SEED));
+            }
+        }
+    }
+
+    /**
+     * Check the mutator of a single property, which must have a write method. A
+     * {@link VerificationPlan.Property#isTrivialMutator() trivial} mutator is not called when the bytecode shortcut is
+     * enabled.
+     *
+     * @param cls      The checked class.
+     * @param instance The instance to call the mutator on, which may be null for a trivial mutator.
+     * @param property The property.
+     * @param engine   The engine to invoke the mutator and access the field with.
+     * @param seed     The seed of the dumb mock passed to the mutator. Failures name it unless it is the
+     *                 {@link Reflection#DEFAULT_SEED default seed}.
+     * @return The result, which is already {@link #report(CheckResult) reported} when it failed.
+     * @throws ReflectiveOperationException Thrown when no dumb mock could be created for the property type.
+     */
+    static CheckResult checkMutator(Class<?> cls, Object instance, VerificationPlan.Property property,
+                                    InvocationEngine engine, long seed) throws ReflectiveOperationException {
+        String name = property.getName();
+        if (bytecodeShortcut && property.isTrivialMutator()) {
+            Listeners.propertyChecked(cls, CheckKind.MUTATORS, name, Listeners.start());
+            return CheckResult.passed(cls, CheckKind.MUTATORS, name, seed);
+        }
+        Object mock = Reflection.checkValue(property.getType(), CheckKind.MUTATORS, seed);
+
+        PropertyInvoker invoker = property.getInvoker(engine);
+        long start = Listeners.start();
+        try {
+            if (property.getField() != null && !property.isFinalField() && !property.isPrimitive()
+                    && invoker.fieldMatches(instance, mock)) {
+                // Left behind by an earlier check, which would let a mutator that does nothing pass
+                invoker.set(instance, null);
+            }
+            invoker.write(instance, mock);
+            if (!invoker.fieldMatches(instance, mock)) {
+                return report(CheckResult.failed(cls, CheckKind.MUTATORS, name, seed, null, MUTATOR_FAIL_MESSAGE,
+                        cls.getCanonicalName(), name));
+            }
+            return CheckResult.passed(cls, CheckKind.MUTATORS, name, seed);
+        } catch (Exception e) {
+            return report(CheckResult.failed(cls, CheckKind.MUTATORS, name, seed, e, MUTATOR_EXCEPTION_MESSAGE,
+                    cls.getCanonicalName(), name));
+        } finally {
+            Listeners.propertyChecked(cls, CheckKind.MUTATORS, name, start);
+        }
+    }
 
-                    Field field = Reflection.getField(cls, name);
-                    field.setAccessible(true);
-                    if (!checkField(field, instance, mock)) {
-                        throw new AssertionError(String.format(MUTATOR_FAIL_MESSAGE, cls.getCanonicalName(), name));
+    /**
+     * Check whether the accessor or mutator check of the given class calls any method, and so needs an instance. It
+     * does not when the bytecode shortcut is enabled and all of the methods it looks at are trivial.
+     *
+     * @param cls   The checked class.
+     * @param check Either {@link CheckKind#ACCESSORS} or {@link CheckKind#MUTATORS}.
+     * @return True if an instance has to be created for the check.
+     */
+    static boolean needsInstance(Class<?> cls, CheckKind check) {
+        if (!bytecodeShortcut || Verifiers.forClass(cls) != null) {
+            return true;
+        }
+        List<VerificationPlan.Property> properties;
+        try {
+            properties = VerificationPlan.forClass(cls).getProperties();
+        } catch (IntrospectionException e) {
+            // Reported by the check itself
+            return true;
+        }
+        for (VerificationPlan.Property property : properties) {
+            if (check == CheckKind.ACCESSORS ? property.getReadMethod() != null && !property.isTrivialAccessor()
+                    : property.getWriteMethod() != null && !property.isTrivialMutator()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test all the accessors and mutators of the given class with the dumb mocks of many seeds, starting at
+     * {@link Reflection#DEFAULT_SEED}.
+     *
+     * @param cls   The {@link Class} to test.
+     * @param seeds The number of seeds to check every property with.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
+     * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
+     * @see #fuzzAccessorsAndMutators(Class, long, int)
+     */
+    public static void fuzzAccessorsAndMutators(Class<?> cls, int seeds)
+            throws IntrospectionException, ReflectiveOperationException {
+        fuzzAccessorsAndMutators(cls, Reflection.DEFAULT_SEED, seeds);
+    }
+
+    /**
+     * Test all the accessors and mutators of the given class with the dumb mocks of the seeds {@code firstSeed} up to
+     * {@code firstSeed + seeds}, instead of the single value {@link #testAccessorsAndMutators(Class)} uses. The bean
+     * information, the bound invokers and a single instance are shared by all seeds, so every extra seed only costs
+     * the calls to the accessor or mutator. Properties backed by a final field do not take a value and are checked
+     * once.
+     * <p/>
+     * A failure names the failing seed, unless it is the default seed. Pass it as {@code firstSeed} with a single seed
+     * to replay the failure. The {@link ResultCache} and generated {@link CheckMarkVerifier}s are not used.
+     *
+     * @param cls       The {@link Class} to test.
+     * @param firstSeed The first seed to check every property with.
+     * @param seeds     The number of consecutive seeds to check every property with.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from the given class.
+     * @throws ReflectiveOperationException Thrown when one or more fields could not be tested using reflection.
+     */
+    public static void fuzzAccessorsAndMutators(Class<?> cls, long firstSeed, int seeds)
+            throws IntrospectionException, ReflectiveOperationException {
+        if (seeds < 1) {
+            throw new IllegalArgumentException("At least one seed has to be checked.");
+        }
+        Object instance = needsInstance(cls, CheckKind.ACCESSORS) || needsInstance(cls, CheckKind.MUTATORS)
+                ? Reflection.createInstance(cls) : null;
+        fuzz(cls, instance, CheckKind.ACCESSORS, firstSeed, seeds);
+        fuzz(cls, instance, CheckKind.MUTATORS, firstSeed, seeds);
+    }
+
+    private static void fuzz(Class<?> cls, Object instance, CheckKind check, long firstSeed, int seeds)
+            throws IntrospectionException, ReflectiveOperationException {
+        long start = Listeners.classStarted(cls, check);
+        try {
+            InvocationEngine engine = invocationEngine;
+            for (VerificationPlan.Property property : VerificationPlan.forClass(cls).getProperties()) {
+                if (check == CheckKind.ACCESSORS && property.getReadMethod() != null && property.getField() != null) {
+                    int count = property.isFinalField() ? 1 : seeds;
+                    for (int i = 0; i < count; i++) {
+                        require(checkAccessor(cls, instance, property, engine, firstSeed + i));
+                    }
+                } else if (check == CheckKind.MUTATORS && property.getWriteMethod() != null) {
+                    for (int i = 0; i < seeds; i++) {
+                        require(checkMutator(cls, instance, property, engine, firstSeed + i));
                     }
-                } catch (Exception e) {
-                    throw new AssertionError(String.format(MUTATOR_EXCEPTION_MESSAGE, cls.getCanonicalName(), name), e);
                 }
             }
+        } catch (IntrospectionException | ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, check, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, check, start);
         }
     }
 
@@ -187,65 +596,627 @@ public final class CheckMark {
      * <li>Check whether equals returns false when <string><em>any</em></string> field value on the copy is
      * different.</li>
      * </ul>
+     * A field the class {@link CachedHashCode caches its hashCode} in is not expected to be used in equals. Instead,
+     * the value it caches has to match the hashCode computed after clearing it.
      *
      * @param cls The {@link Class} to test the {@link Object#equals(Object)} and {@link Object#hashCode()} methods for.
      * @throws ReflectiveOperationException
      */
-    @SuppressWarnings("ObjectEqualsNull")
     public static void testEqualsAndHashCode(Class<?> cls) throws ReflectiveOperationException {
+        if (passedBefore(cls, CheckKind.EQUALS_AND_HASH_CODE)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.EQUALS_AND_HASH_CODE);
+        try {
+            checkEqualsAndHashCode(cls);
+            passed(cls, CheckKind.EQUALS_AND_HASH_CODE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.EQUALS_AND_HASH_CODE, start);
+        }
+    }
+
+    private static void checkEqualsAndHashCode(Class<?> cls) throws ReflectiveOperationException {
+        CheckMarkVerifier verifier = Verifiers.forClass(cls);
+        if (verifier != null) {
+            verifier.testEqualsAndHashCode();
+            return;
+        }
+
         Object instanceA = Reflection.createInstance(cls);
         Object instanceB = Reflection.createInstance(cls);
         setFieldsToSameValue(cls, instanceA, instanceB);
+        checkEqualsContract(cls, instanceA, instanceB);
 
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            testFieldUseInEquals(cls, field, instanceA, instanceB);
+        }
+    }
+
+    /**
+     * Test how well the {@link Object#hashCode()} of the given class spreads distinct instances, using
+     * {@link HashCodeThresholds#defaults() the default thresholds}. A hashCode that follows the contract can still
+     * ignore most fields or collide on common values, which turns {@link java.util.HashMap} lookups into scans.
+     *
+     * @param cls The {@link Class} to test the {@link Object#hashCode()} method for.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @see #testHashCodeDistribution(Class, HashCodeThresholds)
+     */
+    public static void testHashCodeDistribution(Class<?> cls) throws ReflectiveOperationException {
+        testHashCodeDistribution(cls, HashCodeThresholds.defaults());
+    }
+
+    /**
+     * Test how well the {@link Object#hashCode()} of the given class spreads distinct instances. Many instances are
+     * generated by setting all instance fields to {@link Reflection#dumbMock(Class, long) dumb mocks} of varying seeds,
+     * after which the following is checked:
+     * <ul>
+     * <li>Not too many distinct instances share a hashCode;</li>
+     * <li>A {@link java.util.HashMap} holding the instances uses about as many buckets as it would for random
+     * hashCodes, and has no overly large bucket;</li>
+     * <li>Changing any single field changes the hashCode for enough of the values of that field.</li>
+     * </ul>
+     * The thresholds are part of the key of the {@link ResultCache}, so a pass with one set of thresholds does not
+     * skip a run with another.
+     *
+     * @param cls        The {@link Class} to test the {@link Object#hashCode()} method for.
+     * @param thresholds The limits to hold the hashCode to.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     */
+    public static void testHashCodeDistribution(Class<?> cls, HashCodeThresholds thresholds)
+            throws ReflectiveOperationException {
+        String options = thresholds.toString();
+        if (passedBefore(cls, CheckKind.HASH_CODE_DISTRIBUTION, options)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.HASH_CODE_DISTRIBUTION);
+        try {
+            HashCodeDistribution.measure(cls, thresholds.getSamples()).check(thresholds);
+            passed(cls, CheckKind.HASH_CODE_DISTRIBUTION, options);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.HASH_CODE_DISTRIBUTION, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.HASH_CODE_DISTRIBUTION, start);
+        }
+    }
+
+    /**
+     * Measure the cost of {@link Object#equals(Object)} and {@link Object#hashCode()} of the given class and fail when
+     * it exceeds the given budget. This catches changes that make a key class much slower, like adding a deep
+     * collection compare to its equals. Instances are built like {@link #testEqualsAndHashCode(Class)} builds them;
+     * equals is timed on an equal pair and on pairs that differ in a single field, and hashCode on a single instance.
+     * <p/>
+     * Each call is warmed up and timed in batches, using the median batch, which is stable enough for CI. The
+     * correctness of equals and hashCode is not checked here.
+     *
+     * @param cls    The {@link Class} to measure.
+     * @param budget The absolute or baseline budget.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @throws IOException                  Thrown when the baseline file could not be read or written.
+     */
+    public static void testEqualsAndHashCodeCost(Class<?> cls, CostBudget budget)
+            throws ReflectiveOperationException, IOException {
+        long start = Listeners.classStarted(cls, CheckKind.EQUALS_AND_HASH_CODE);
+        try {
+            EqualsCost.measure(cls, budget).check(budget);
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.EQUALS_AND_HASH_CODE, start);
+        }
+    }
+
+    /**
+     * Test the {@link Comparable#compareTo(Object)} method of the given class. Instances are built like
+     * {@link #testEqualsAndHashCode(Class)} builds them, after which the following is checked:
+     * <ul>
+     * <li>Check whether compareTo returns 0 when comparing an instance to itself and to an exact copy;</li>
+     * <li>Check, for <em>every</em> instance field changed on the copy in turn, whether compareTo no longer returns 0,
+     * whether it returns 0 exactly when equals returns true and whether comparing the other way around gives the
+     * opposite sign.</li>
+     * </ul>
+     * These are the properties a {@link java.util.TreeMap} or a binary search over a sorted array relies on.
+     *
+     * @param cls The {@link Comparable} {@link Class} to test the compareTo method for.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @throws IllegalArgumentException     Thrown when the class does not implement {@link Comparable}.
+     * @see #testCompareTo(Class, CostBudget)
+     */
+    public static void testCompareTo(Class<?> cls) throws ReflectiveOperationException {
+        if (!Comparable.class.isAssignableFrom(cls)) {
+            throw new IllegalArgumentException(String.format(NOT_COMPARABLE_MESSAGE, cls.getName()));
+        } else if (passedBefore(cls, CheckKind.COMPARE_TO)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.COMPARE_TO);
+        try {
+            checkCompareTo(cls);
+            passed(cls, CheckKind.COMPARE_TO);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.COMPARE_TO, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.COMPARE_TO, start);
+        }
+    }
+
+    /**
+     * Test the {@link Comparable#compareTo(Object)} method of the given class like {@link #testCompareTo(Class)}
+     * does, and then measure its cost and fail when it exceeds the given budget. CompareTo is timed on pairs that
+     * differ in a single field and on an equal pair, in turn, like
+     * {@link #testEqualsAndHashCodeCost(Class, CostBudget)} times equals. The number of nanoseconds per call is logged,
+     * so that a slow compareTo stands out before it is used in a sort-heavy path.
+     *
+     * @param cls    The {@link Comparable} {@link Class} to test the compareTo method for.
+     * @param budget The absolute or baseline budget.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @throws IOException                  Thrown when the baseline file could not be read or written.
+     * @throws IllegalArgumentException     Thrown when the class does not implement {@link Comparable}.
+     */
+    public static void testCompareTo(Class<?> cls, CostBudget budget)
+            throws ReflectiveOperationException, IOException {
+        testCompareTo(cls);
+        EqualsCost cost = EqualsCost.measure(cls, budget, EnumSet.of(EqualsCost.Operation.COMPARE_TO));
+        LOGGER.info(String.format(Locale.ROOT, "CompareTo of %s takes %.1f ns per call.", cls.getName(),
+                cost.getNanos(EqualsCost.Operation.COMPARE_TO)));
+        cost.check(budget);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void checkCompareTo(Class<?> cls) throws ReflectiveOperationException {
+        Object instanceA = Reflection.createInstance(cls);
+        Object instanceB = Reflection.createInstance(cls);
+        setFieldsToSameValue(cls, instanceA, instanceB);
+        Comparable<Object> comparableA = (Comparable<Object>) instanceA;
+        Comparable<Object> comparableB = (Comparable<Object>) instanceB;
+
+        int self = comparableA.compareTo(instanceA);
+        if (self != 0) {
+            throw failure(CheckResult.failed(cls, CheckKind.COMPARE_TO, null, Reflection.DEFAULT_SEED, null,
+                    COMPARE_TO_SELF_MESSAGE, cls.getCanonicalName(), self));
+        }
+        int ab = comparableA.compareTo(instanceB);
+        int ba = comparableB.compareTo(instanceA);
+        if (ab != 0 || ba != 0) {
+            throw failure(CheckResult.failed(cls, CheckKind.COMPARE_TO, null, Reflection.DEFAULT_SEED, null,
+                    COMPARE_TO_COPY_MESSAGE, cls.getCanonicalName(), ab, ba));
+        }
+
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                testFieldUseInCompareTo(cls, field, comparableA, comparableB);
+            }
+        }
+    }
+
+    /**
+     * Test that an instance of the given class survives a round trip through Java serialization, and measure its
+     * encoded size and round-trip time. The measurements are logged and returned, but never fail.
+     *
+     * @param cls The {@link Class} to test the serialization of.
+     * @return The encoded size and round-trip time.
+     * @throws ReflectiveOperationException Thrown when the instance could not be created or its fields set.
+     * @see #testSerialization(Class, SerializationBudget)
+     */
+    public static SerializationCost testSerialization(Class<?> cls) throws ReflectiveOperationException {
+        return testSerialization(cls, SerializationBudget.defaults());
+    }
+
+    /**
+     * Test that an instance of the given class survives a round trip through the codec of the given budget, and fail
+     * when its encoded size or round-trip time exceeds the budget. The instance has all of its instance fields set to
+     * {@link Reflection#dumbMock(Class, long) dumb mocks}, after which the following is checked:
+     * <ul>
+     * <li>Check whether the instance can be encoded and decoded;</li>
+     * <li>Check whether equals is true both ways between the original and the decoded instance, and whether their
+     * hashCodes are the same;</li>
+     * <li>Check whether the encoded instance takes at most the budgeted number of bytes;</li>
+     * <li>Check whether a round trip takes at most the budgeted number of nanoseconds.</li>
+     * </ul>
+     * The measurements are logged, so that a payload that grows or slows down stands out before it reaches the wire.
+     *
+     * @param cls    The {@link Class} to test the serialization of.
+     * @param budget The codec and the size and time limits.
+     * @return The encoded size and round-trip time.
+     * @throws ReflectiveOperationException Thrown when the instance could not be created or its fields set.
+     */
+    public static SerializationCost testSerialization(Class<?> cls, SerializationBudget budget)
+            throws ReflectiveOperationException {
+        long start = Listeners.classStarted(cls, CheckKind.SERIALIZATION);
+        try {
+            SerializationCost cost = SerializationCost.measure(cls, budget);
+            LOGGER.info(cost.toString());
+            cost.check(budget);
+            return cost;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.SERIALIZATION, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.SERIALIZATION, start);
+        }
+    }
+
+    /**
+     * Test that calling {@link Object#hashCode()} from many threads at once on a fresh instance of the given class
+     * always gives the same result, using one thread per available processor (at least four) and 100 fresh instances.
+     * This is meant for classes that {@link CachedHashCode cache their hashCode}, where a cache that is filled in steps
+     * can be seen half filled by another thread.
+     *
+     * @param cls The {@link Class} to test the {@link Object#hashCode()} method for.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @see #testHashCodeConcurrency(Class, int, int)
+     */
+    public static void testHashCodeConcurrency(Class<?> cls) throws ReflectiveOperationException {
+        testHashCodeConcurrency(cls, HashCodeCache.defaultThreads(), HashCodeCache.DEFAULT_ROUNDS);
+    }
+
+    /**
+     * Test that calling {@link Object#hashCode()} from many threads at once on a fresh instance of the given class
+     * always gives the hashCode of an exact copy. Instances are built like {@link #testEqualsAndHashCode(Class)} builds
+     * them, and the threads are released together for every instance. Only runs with the default number of threads
+     * and rounds are remembered by the {@link ResultCache}.
+     *
+     * @param cls     The {@link Class} to test the {@link Object#hashCode()} method for.
+     * @param threads The number of threads calling hashCode at once.
+     * @param rounds  The number of fresh instances to call hashCode on.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     */
+    public static void testHashCodeConcurrency(Class<?> cls, int threads, int rounds)
+            throws ReflectiveOperationException {
+        boolean cacheable = threads == HashCodeCache.defaultThreads() && rounds == HashCodeCache.DEFAULT_ROUNDS;
+        if (cacheable && passedBefore(cls, CheckKind.HASH_CODE_CONCURRENCY)) {
+            return;
+        }
+        long start = Listeners.classStarted(cls, CheckKind.HASH_CODE_CONCURRENCY);
+        try {
+            HashCodeCache.checkConcurrent(cls, threads, rounds);
+            if (cacheable) {
+                passed(cls, CheckKind.HASH_CODE_CONCURRENCY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IllegalStateException interrupted =
+                    new IllegalStateException("Interrupted while testing the hashCode of " + cls.getName(), e);
+            Listeners.failed(cls, CheckKind.HASH_CODE_CONCURRENCY, null, interrupted);
+            throw interrupted;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.HASH_CODE_CONCURRENCY, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.HASH_CODE_CONCURRENCY, start);
+        }
+    }
+
+    /**
+     * Check the parts of the equals and hashCode contract that do not depend on single fields, including the
+     * {@link CachedHashCode hashCode cache} of the class if it has one.
+     *
+     * @param cls       The checked class.
+     * @param instanceA An instance of the checked class.
+     * @param instanceB An exact copy of instanceA.
+     */
+    @SuppressWarnings("ObjectEqualsNull")
+    static void checkEqualsContract(Class<?> cls, Object instanceA, Object instanceB) {
         if (instanceA.equals(null)) {
-            throw new AssertionError(String.format(EQUAL_ON_NULL_MESSAGE, cls.getCanonicalName()));
+            throw equalsFailure(cls, EQUAL_ON_NULL_MESSAGE, cls.getCanonicalName());
         } else if (instanceA.equals(new Object())) {
-            throw new AssertionError(String.format(EQUAL_ON_NEW_OBJECT_MESSAGE, cls.getCanonicalName()));
+            throw equalsFailure(cls, EQUAL_ON_NEW_OBJECT_MESSAGE, cls.getCanonicalName());
         } else if (!instanceA.equals(instanceA)) {
-            throw new AssertionError(String.format(SAME_INSTANCE_NOT_EQUAL_MESSAGE, cls.getCanonicalName(), instanceA));
+            throw equalsFailure(cls, SAME_INSTANCE_NOT_EQUAL_MESSAGE, cls.getCanonicalName(), instanceA);
         } else if (!instanceA.equals(instanceB) || !instanceB.equals(instanceA)) {
-            throw new AssertionError(String.format(EXACT_COPY_NOT_EQUAL_MESSAGE,
-                    cls.getCanonicalName(), instanceA, instanceB));
+            throw equalsFailure(cls, EXACT_COPY_NOT_EQUAL_MESSAGE, cls.getCanonicalName(), instanceA, instanceB);
         } else if (instanceA.hashCode() != instanceB.hashCode()) {
-            throw new AssertionError(String.format(EXACT_COPY_HASH_CODE_NOT_EQUAL_MESSAGE,
-                    cls.getCanonicalName(), instanceA.hashCode(), instanceB.hashCode()));
+            throw equalsFailure(cls, EXACT_COPY_HASH_CODE_NOT_EQUAL_MESSAGE,
+                    cls.getCanonicalName(), instanceA.hashCode(), instanceB.hashCode());
         }
 
-        for (Field field : Reflection.getFields(cls)) {
-            testFieldUseInEquals(field, instanceA, instanceB);
+        Field hashCodeCache = HashCodeCache.forClass(cls);
+        if (hashCodeCache != null) {
+            try {
+                HashCodeCache.check(cls, hashCodeCache, instanceA);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Could not access the hashCode cache " + hashCodeCache, e);
+            }
         }
     }
 
-    private static void testFieldUseInEquals(Field field, Object instanceA, Object instanceB) throws ReflectiveOperationException {
-        field.setAccessible(true);
+    /**
+     * Advise on the order in which {@link Object#equals(Object)} of the given class compares its fields. Instances are
+     * built like {@link #testEqualsAndHashCode(Class)} builds them, and equals is timed on pairs that differ in a
+     * single field. When a difference in a primitive or enumeration field is only noticed after costlier comparisons
+     * ran, the advice is logged as a warning, with the order that compares the cheapest fields first.
+     * <p/>
+     * This never fails on the order. Every call is warmed up and timed like {@link CostBudget} does by default, so
+     * this takes some time per field and is meant to be run by hand or in a separate suite.
+     *
+     * @param cls The {@link Class} to advise on.
+     * @return The advice, including the timings it is based on.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     */
+    public static EqualsOrderAdvice adviseEqualsFieldOrder(Class<?> cls) throws ReflectiveOperationException {
+        EqualsOrderAdvice advice =
+                EqualsOrderAdvice.measure(cls, CostBudget.DEFAULT_WARMUP_MILLIS, CostBudget.DEFAULT_BATCHES);
+        if (advice.isReorderingAdvised()) {
+            LOGGER.warn(advice.toString());
+        }
+        return advice;
+    }
+
+    /**
+     * Estimate the heap footprint of the instances of the given class under {@link ObjectLayout#COMPRESSED_OOPS}, the
+     * default layout of a 64 bit JVM with a heap smaller than 32 GB.
+     *
+     * @param cls The {@link Class} to analyze.
+     * @return The footprint, whose {@link Footprint#toString() string form} is a report of the field layout, padding
+     * and wrapper fields that could be primitives.
+     * @throws ReflectiveOperationException Thrown when no instance could be created.
+     * @see #analyzeFootprint(Class, ObjectLayout)
+     */
+    public static Footprint analyzeFootprint(Class<?> cls) throws ReflectiveOperationException {
+        return analyzeFootprint(cls, ObjectLayout.COMPRESSED_OOPS);
+    }
+
+    /**
+     * Estimate the heap footprint of the instances of the given class: the shallow size of an instance from the types
+     * of its fields, the bytes lost to padding, the wrapper fields that could be primitives and the retained size of
+     * the instance graph {@link Reflection#createInstance(Class)} builds. Nothing is measured on the running JVM, so
+     * the estimate can be made for any layout.
+     *
+     * @param cls    The {@link Class} to analyze.
+     * @param layout The object layout to estimate the sizes under.
+     * @return The footprint.
+     * @throws ReflectiveOperationException Thrown when no instance could be created.
+     */
+    public static Footprint analyzeFootprint(Class<?> cls, ObjectLayout layout) throws ReflectiveOperationException {
+        return Footprint.measure(cls, layout);
+    }
+
+    /**
+     * Test that a single instance of the given class, without the objects it refers to, takes at most the given
+     * number of bytes under {@link ObjectLayout#COMPRESSED_OOPS}. For classes of which millions of instances live on
+     * the heap, this keeps a new field from silently adding 8 bytes to each of them.
+     *
+     * @param cls      The {@link Class} to test.
+     * @param maxBytes The highest allowed shallow size of an instance.
+     * @throws ReflectiveOperationException Thrown when no instance could be created.
+     * @see #testFootprint(Class, ObjectLayout, long)
+     */
+    public static void testFootprint(Class<?> cls, long maxBytes) throws ReflectiveOperationException {
+        testFootprint(cls, ObjectLayout.COMPRESSED_OOPS, maxBytes);
+    }
+
+    /**
+     * Test that a single instance of the given class, without the objects it refers to, takes at most the given
+     * number of bytes under the given layout. The footprint is logged, and the failure message points out padding and
+     * wrapper fields that could be primitives.
+     *
+     * @param cls      The {@link Class} to test.
+     * @param layout   The object layout to estimate the size under.
+     * @param maxBytes The highest allowed shallow size of an instance.
+     * @throws ReflectiveOperationException Thrown when no instance could be created.
+     */
+    public static void testFootprint(Class<?> cls, ObjectLayout layout, long maxBytes)
+            throws ReflectiveOperationException {
+        long start = Listeners.classStarted(cls, CheckKind.FOOTPRINT);
+        try {
+            Footprint footprint = Footprint.measure(cls, layout);
+            LOGGER.info(footprint.toString());
+            footprint.check(maxBytes);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Listeners.failed(cls, CheckKind.FOOTPRINT, null, e);
+            throw e;
+        } finally {
+            Listeners.classFinished(cls, CheckKind.FOOTPRINT, start);
+        }
+    }
+
+    /**
+     * Test all the accessors and mutators of every class in the given package and its sub packages that is accepted
+     * by {@link ClassFilters#concreteBeans()}.
+     *
+     * @param packageName The name of the package to test.
+     * @return The number of tested classes.
+     * @throws IOException                  Thrown when the classes of the package could not be read.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from a class.
+     * @throws ReflectiveOperationException Thrown when a class could not be loaded or tested using reflection.
+     * @see #testPackage(String, ClassFilter)
+     */
+    public static int testPackage(String packageName)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        return testPackage(packageName, ClassFilters.concreteBeans());
+    }
+
+    /**
+     * Test all the accessors and mutators of every class in the given package and its sub packages that is accepted
+     * by the given {@link ClassFilter}. Classes are found by reading their class files from every directory and jar
+     * the context {@link ClassLoader} knows of. Only accepted classes are loaded, and each class is tested with
+     * {@link #testAccessorsAndMutators(Class)} as soon as it is found.
+     *
+     * @param packageName The name of the package to test.
+     * @param filter      The filter deciding which classes are tested.
+     * @return The number of tested classes.
+     * @throws IOException                  Thrown when the classes of the package could not be read.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from a class.
+     * @throws ReflectiveOperationException Thrown when a class could not be loaded or tested using reflection.
+     */
+    public static int testPackage(String packageName, ClassFilter filter)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        return new ClassScanner(contextClassLoader(), filter).scanPackage(packageName, ACCESSORS_AND_MUTATORS);
+    }
+
+    /**
+     * Test all the accessors and mutators of every class in the given jar that is accepted by
+     * {@link ClassFilters#concreteBeans()}.
+     *
+     * @param jar The jar to test.
+     * @return The number of tested classes.
+     * @throws IOException                  Thrown when the jar could not be read.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from a class.
+     * @throws ReflectiveOperationException Thrown when a class could not be loaded or tested using reflection.
+     * @see #testJar(Path, ClassFilter)
+     */
+    public static int testJar(Path jar) throws IOException, IntrospectionException, ReflectiveOperationException {
+        return testJar(jar, ClassFilters.concreteBeans());
+    }
+
+    /**
+     * Test all the accessors and mutators of every class in the given jar that is accepted by the given
+     * {@link ClassFilter}. The jar is read as a zip {@link java.nio.file.FileSystem} and accepted classes are loaded
+     * through a new {@link ClassLoader} on top of the context class loader. Each class is tested with
+     * {@link #testAccessorsAndMutators(Class)} as soon as it is found.
+     *
+     * @param jar    The jar to test.
+     * @param filter The filter deciding which classes are tested.
+     * @return The number of tested classes.
+     * @throws IOException                  Thrown when the jar could not be read.
+     * @throws IntrospectionException       Thrown when bean information could not be recovered from a class.
+     * @throws ReflectiveOperationException Thrown when a class could not be loaded or tested using reflection.
+     */
+    public static int testJar(Path jar, ClassFilter filter)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, contextClassLoader())) {
+            return new ClassScanner(loader, filter).scanJar(jar, ACCESSORS_AND_MUTATORS);
+        }
+    }
+
+    private static ClassLoader contextClassLoader() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : CheckMark.class.getClassLoader();
+    }
+
+    private static void testFieldUseInEquals(Class<?> cls, Field field, Object instanceA, Object instanceB)
+            throws ReflectiveOperationException {
+        Object oldValue = field.get(instanceB);
+        field.set(instanceB, Reflection.dumbMock(field.getType(), SEED_TWO));
+        long start = Listeners.start();
+        try {
+            if (instanceA.equals(instanceB) || instanceB.equals(instanceA)) {
+                throw failure(CheckResult.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, field.getName(),
+                        Reflection.DEFAULT_SEED, null, FIELD_NOT_USED_IN_EQUALS_MESSAGE, field.getName()));
+            }
+        } finally {
+            Listeners.propertyChecked(cls, CheckKind.EQUALS_AND_HASH_CODE, field.getName(), start);
+        }
+        field.set(instanceB, oldValue);
+    }
+
+    private static void testFieldUseInCompareTo(Class<?> cls, Field field, Comparable<Object> instanceA,
+                                                Comparable<Object> instanceB) throws ReflectiveOperationException {
         Object oldValue = field.get(instanceB);
         field.set(instanceB, Reflection.dumbMock(field.getType(), SEED_TWO));
-        if (instanceA.equals(instanceB) || instanceB.equals(instanceA)) {
-            throw new AssertionError(String.format(FIELD_NOT_USED_IN_EQUALS_MESSAGE, field.getName()));
+        long start = Listeners.start();
+        try {
+            int ab = instanceA.compareTo(instanceB);
+            int ba = instanceB.compareTo(instanceA);
+            boolean equal = instanceA.equals(instanceB);
+            if (ab == 0 && equal) {
+                throw failure(CheckResult.failed(cls, CheckKind.COMPARE_TO, field.getName(), Reflection.DEFAULT_SEED,
+                        null, FIELD_NOT_USED_IN_COMPARE_TO_MESSAGE, field.getName()));
+            } else if ((ab == 0) != equal) {
+                throw failure(CheckResult.failed(cls, CheckKind.COMPARE_TO, field.getName(), Reflection.DEFAULT_SEED,
+                        null, COMPARE_TO_INCONSISTENT_MESSAGE, cls.getCanonicalName(), field.getName(), ab, equal));
+            } else if (Integer.signum(ab) != -Integer.signum(ba)) {
+                throw failure(CheckResult.failed(cls, CheckKind.COMPARE_TO, field.getName(), Reflection.DEFAULT_SEED,
+                        null, COMPARE_TO_NOT_ANTISYMMETRIC_MESSAGE, cls.getCanonicalName(), field.getName(), ab,
+                        ba));
+            }
+        } finally {
+            Listeners.propertyChecked(cls, CheckKind.COMPARE_TO, field.getName(), start);
         }
         field.set(instanceB, oldValue);
     }
 
-    private static void setFieldsToSameValue(Class<?> cls, Object instanceA, Object instanceB) throws ReflectiveOperationException {
-        for (Field field : Reflection.getFields(cls)) {
-            field.setAccessible(true);
+    static void setFieldsToSameValue(Class<?> cls, Object instanceA, Object instanceB) throws ReflectiveOperationException {
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
             Object dumbMock = Reflection.dumbMock(field.getType(), SEED_ONE);
             field.set(instanceA, dumbMock);
             field.set(instanceB, dumbMock);
         }
     }
 
-    private static boolean checkField(Field field, Object instance, Object expectedValue) throws IllegalAccessException {
-        if (field.getType().isPrimitive()) {
-            return expectedValue.equals(field.get(instance));
+    /**
+     * Set the fields of all given instances to equal values, which unlike {@link #setFieldsToSameValue(Class, Object,
+     * Object)} are different instances where the type allows that. Use this to measure equals, which would otherwise
+     * skip comparing values that are the same instance.
+     *
+     * @param cls      The class of the instances.
+     * @param instance The instance to set to the {@link Reflection#dumbMock(Class, long) dumb mocks} themselves.
+     * @param copies   The instances to set to {@link Reflection#equalDumbMock(Class, long, Object) copies} of them.
+     * @throws ReflectiveOperationException Thrown when a field could not be set.
+     */
+    @SuppressWarnings("unchecked")
+    static void setFieldsToEqualValues(Class<?> cls, Object instance, Object... copies)
+            throws ReflectiveOperationException {
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            Class<Object> type = (Class<Object>) field.getType();
+            Object dumbMock = Reflection.dumbMock(type, SEED_ONE);
+            field.set(instance, dumbMock);
+            for (Object copy : copies) {
+                field.set(copy, Reflection.equalDumbMock(type, SEED_ONE, dumbMock));
+            }
+        }
+    }
+
+    static boolean passedBefore(Class<?> cls, CheckKind check) {
+        return passedBefore(cls, check, "");
+    }
+
+    static boolean passedBefore(Class<?> cls, CheckKind check, String options) {
+        ResultCache cache = resultCache;
+        return cache != null && cache.hasPassed(cls, check, options);
+    }
+
+    static void passed(Class<?> cls, CheckKind check) {
+        passed(cls, check, "");
+    }
+
+    static void passed(Class<?> cls, CheckKind check, String options) {
+        ResultCache cache = resultCache;
+        if (cache != null) {
+            cache.recordPassed(cls, check, options);
         }
-        return expectedValue == field.get(instance);
     }
 
-    private static boolean checkReadMethod(Object instance, Method readMethod, Object expectedValue) throws IllegalAccessException, InvocationTargetException {
-        if (readMethod.getReturnType().isPrimitive()) {
-            return expectedValue.equals(readMethod.invoke(instance));
+    private static CheckFailure equalsFailure(Class<?> cls, String format, Object... arguments) {
+        return failure(CheckResult.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, null, Reflection.DEFAULT_SEED, null,
+                format, arguments));
+    }
+
+    /**
+     * Throw the failure of the given result, if it failed. The failure is not reported again.
+     *
+     * @param result The result of a check, which has been {@link #report(CheckResult) reported}.
+     * @throws CheckFailure Thrown when the check failed.
+     */
+    static void require(CheckResult result) {
+        if (!result.isPassed()) {
+            throw result.toFailure();
         }
-        return expectedValue == readMethod.invoke(instance);
+    }
+
+    /**
+     * Report a failed result to the {@link CheckMarkListener listeners}. This has to happen before the property or
+     * class it is about is reported as checked.
+     *
+     * @param result The failed result.
+     * @return The result.
+     */
+    static CheckResult report(CheckResult result) {
+        Listeners.failed(result.getType(), result.getCheck(), result.getProperty(), result.toFailure());
+        return result;
+    }
+
+    /**
+     * Report a failed result to the {@link CheckMarkListener listeners}.
+     *
+     * @param result The failed result.
+     * @return The failure to throw.
+     */
+    static CheckFailure failure(CheckResult result) {
+        return report(result).toFailure();
     }
 }
@@ -0,0 +1,204 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.runner.Description;
+import org.junit.runner.Runner;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+
+import java.beans.IntrospectionException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+import static java.util.Arrays.asList;
+
+/**
+ * A JUnit runner that reports every check on every class as a test of its own, without a test method per class.
+ * Configure it with {@link CheckMarkSuite}:
+ * <p/>
+ * <pre>
+ * &#64;RunWith(CheckMarkJUnitRunner.class)
+ * &#64;CheckMarkSuite(packages = "com.example.model")
+ * public class ModelCheck {
+ * }
+ * </pre>
+ * Accessors and mutators are reported per property, as {@code ACCESSORS.name} and {@code MUTATORS.name} within the
+ * checked class, using the same bean discovery and checks as {@link CheckMark#testAccessors(Class)} and
+ * {@link CheckMark#testMutators(Class)}. Other checks, and classes with a generated {@link CheckMarkVerifier}, are
+ * reported as a single test per class and check.
+ * <p/>
+ * Classes are not enumerated up front. Each class is checked as soon as the scan of its package finds it, and its tests
+ * are announced to JUnit while they run, so even a suite of many thousands of classes starts right away. The
+ * {@link #getDescription() description} of the suite therefore has no children.
+ */
+public final class CheckMarkJUnitRunner extends Runner {
+    private static final CheckKind[] DEFAULT_CHECKS =
+            {CheckKind.ACCESSORS, CheckKind.MUTATORS, CheckKind.EQUALS_AND_HASH_CODE};
+
+    private final Class<?> testClass;
+    private final CheckMarkSuite suite;
+    private final Set<CheckKind> checks;
+    private final ClassFilter filter;
+
+    /**
+     * Called by JUnit for a test class annotated with {@code @RunWith(CheckMarkJUnitRunner.class)}.
+     *
+     * @param testClass The test class, which has to be annotated with {@link CheckMarkSuite}.
+     * @throws InitializationError Thrown when the test class is not annotated with {@link CheckMarkSuite}, or when one
+     *                             of its exclusions is not a valid regular expression.
+     */
+    public CheckMarkJUnitRunner(Class<?> testClass) throws InitializationError {
+        this.testClass = testClass;
+        this.suite = testClass.getAnnotation(CheckMarkSuite.class);
+        if (suite == null) {
+            throw new InitializationError(String.format("%s has no @%s annotation.", testClass.getName(),
+                    CheckMarkSuite.class.getSimpleName()));
+        }
+        CheckKind[] selected = suite.checks();
+        this.checks = EnumSet.copyOf(asList(selected.length == 0 ? DEFAULT_CHECKS : selected));
+        this.filter = filter(suite);
+    }
+
+    @Override
+    public Description getDescription() {
+        return Description.createSuiteDescription(testClass);
+    }
+
+    @Override
+    public void run(final RunNotifier notifier) {
+        ClassScanner scanner = new ClassScanner(contextClassLoader(), filter);
+        ClassScanner.Callback callback = new ClassScanner.Callback() {
+            @Override
+            public void found(Class<?> cls, ClassFile classFile) {
+                runClass(cls, notifier);
+            }
+        };
+        for (String packageName : suite.packages()) {
+            try {
+                scanner.scanPackage(packageName, callback);
+            } catch (Exception e) {
+                notifier.fireTestFailure(new Failure(getDescription(), e));
+            }
+        }
+    }
+
+    private void runClass(Class<?> cls, RunNotifier notifier) {
+        Object instance = null;
+        Throwable instanceFailure = null;
+        for (CheckKind check : checks) {
+            boolean perProperty = (check == CheckKind.ACCESSORS || check == CheckKind.MUTATORS)
+                    && Verifiers.forClass(cls) == null && !CheckMark.passedBefore(cls, check);
+            List<VerificationPlan.Property> properties = null;
+            if (perProperty) {
+                try {
+                    properties = properties(cls, check);
+                    if (instance == null && instanceFailure == null && CheckMark.needsInstance(cls, check)) {
+                        instance = Reflection.createInstance(cls);
+                    }
+                } catch (IntrospectionException | ReflectiveOperationException | RuntimeException e) {
+                    instanceFailure = e;
+                }
+            }
+
+            if (!perProperty) {
+                runCheck(cls, check, notifier);
+            } else if (instanceFailure != null) {
+                Description description = Description.createTestDescription(cls.getName(), check.name());
+                notifier.fireTestStarted(description);
+                notifier.fireTestFailure(new Failure(description, instanceFailure));
+                notifier.fireTestFinished(description);
+            } else {
+                runProperties(cls, instance, check, properties, notifier);
+            }
+        }
+    }
+
+    private static void runCheck(Class<?> cls, CheckKind check, RunNotifier notifier) {
+        Description description = Description.createTestDescription(cls.getName(), check.name());
+        notifier.fireTestStarted(description);
+        try {
+            check.run(cls);
+        } catch (Throwable t) {
+            notifier.fireTestFailure(new Failure(description, t));
+        } finally {
+            notifier.fireTestFinished(description);
+        }
+    }
+
+    /**
+     * Check the properties one by one, with the same events as a check of the whole class.
+     */
+    private static void runProperties(Class<?> cls, Object instance, CheckKind check,
+                                      List<VerificationPlan.Property> properties, RunNotifier notifier) {
+        InvocationEngine engine = CheckMark.getInvocationEngine();
+        boolean passed = true;
+        long start = Listeners.classStarted(cls, check);
+        try {
+            for (VerificationPlan.Property property : properties) {
+                Description description =
+                        Description.createTestDescription(cls.getName(), check.name() + '.' + property.getName());
+                notifier.fireTestStarted(description);
+                try {
+                    if (check == CheckKind.ACCESSORS) {
+                        CheckMark.require(
+                                CheckMark.checkAccessor(cls, instance, property, engine, Reflection.DEFAULT_SEED));
+                    } else {
+                        CheckMark.require(
+                                CheckMark.checkMutator(cls, instance, property, engine, Reflection.DEFAULT_SEED));
+                    }
+                } catch (Throwable t) {
+                    passed = false;
+                    if (!(t instanceof AssertionError)) {
+                        Listeners.failed(cls, check, property.getName(), t);
+                    }
+                    notifier.fireTestFailure(new Failure(description, t));
+                } finally {
+                    notifier.fireTestFinished(description);
+                }
+            }
+            if (passed) {
+                CheckMark.passed(cls, check);
+            }
+        } finally {
+            Listeners.classFinished(cls, check, start);
+        }
+    }
+
+    /**
+     * The properties the check looks at: those with an accessor and a field for {@link CheckKind#ACCESSORS}, those
+     * with a mutator for {@link CheckKind#MUTATORS}.
+     */
+    private static List<VerificationPlan.Property> properties(Class<?> cls, CheckKind check)
+            throws IntrospectionException {
+        List<VerificationPlan.Property> properties = new ArrayList<>();
+        for (VerificationPlan.Property property : VerificationPlan.forClass(cls).getProperties()) {
+            if (check == CheckKind.ACCESSORS ? property.getReadMethod() != null && property.getField() != null
+                    : property.getWriteMethod() != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private static ClassFilter filter(CheckMarkSuite suite) throws InitializationError {
+        List<ClassFilter> filters = new ArrayList<>();
+        filters.add(ClassFilters.concreteBeans());
+        for (String exclude : suite.exclude()) {
+            try {
+                filters.add(ClassFilters.exclude(exclude));
+            } catch (PatternSyntaxException e) {
+                throw new InitializationError(String.format("Exclusion %s is not a valid regular expression: %s",
+                        exclude, e.getDescription()));
+            }
+        }
+        return ClassFilters.and(filters.toArray(new ClassFilter[filters.size()]));
+    }
+
+    private static ClassLoader contextClassLoader() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return loader != null ? loader : CheckMarkJUnitRunner.class.getClassLoader();
+    }
+}
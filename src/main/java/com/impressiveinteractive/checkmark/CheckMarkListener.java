@@ -0,0 +1,74 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * Receives events while {@link CheckMark} checks classes. Listeners are registered with
+ * {@link CheckMark#addListener(CheckMarkListener)} and are called on the thread running the check, so they have to be
+ * thread-safe when used with the {@link CheckMarkRunner}. When no listener is registered no events are created and no
+ * time is measured.
+ * <p/>
+ * All durations are in nanoseconds. Extend {@link CheckMarkListenerAdapter} to only handle some of the events.
+ *
+ * @see MetricsListener
+ */
+public interface CheckMarkListener {
+    /**
+     * Called before a check on a class starts.
+     *
+     * @param cls   The checked class.
+     * @param check The check that starts.
+     */
+    void classStarted(Class<?> cls, CheckKind check);
+
+    /**
+     * Called after a check on a class ended, whether it failed or not.
+     *
+     * @param cls   The checked class.
+     * @param check The check that ended.
+     * @param nanos The duration of the whole check.
+     */
+    void classFinished(Class<?> cls, CheckKind check, long nanos);
+
+    /**
+     * Called after the bean information and fields of a class have been discovered. This happens once per class.
+     *
+     * @param cls   The introspected class.
+     * @param nanos The duration of the discovery.
+     */
+    void classIntrospected(Class<?> cls, long nanos);
+
+    /**
+     * Called after {@link Reflection#createInstance(Class)} created an instance.
+     *
+     * @param cls   The class of the instance.
+     * @param nanos The duration of the creation, including the creation of all constructor arguments.
+     */
+    void instanceCreated(Class<?> cls, long nanos);
+
+    /**
+     * Called after {@link Reflection#dumbMock(Class, long)} returned a value.
+     *
+     * @param type  The requested type.
+     * @param nanos The duration of the creation.
+     */
+    void mockCreated(Class<?> type, long nanos);
+
+    /**
+     * Called after a single property or field has been checked, whether it failed or not.
+     *
+     * @param cls      The checked class.
+     * @param check    The running check.
+     * @param property The name of the property, or of the field for {@link CheckKind#EQUALS_AND_HASH_CODE}.
+     * @param nanos    The duration of the invocations of the code under test and the verification of the outcome.
+     */
+    void propertyChecked(Class<?> cls, CheckKind check, String property, long nanos);
+
+    /**
+     * Called when a check fails, before the failure is thrown.
+     *
+     * @param cls      The checked class.
+     * @param check    The failing check.
+     * @param property The name of the failing property or field, or null if the failure is not about a single one.
+     * @param failure  The failure that will be thrown.
+     */
+    void failed(Class<?> cls, CheckKind check, String property, Throwable failure);
+}
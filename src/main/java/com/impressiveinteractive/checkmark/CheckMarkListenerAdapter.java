@@ -0,0 +1,41 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * A {@link CheckMarkListener} that ignores all events. Extend this class to only handle some of them.
+ */
+public abstract class CheckMarkListenerAdapter implements CheckMarkListener {
+    @Override
+    public void classStarted(Class<?> cls, CheckKind check) {
+        // Ignored
+    }
+
+    @Override
+    public void classFinished(Class<?> cls, CheckKind check, long nanos) {
+        // Ignored
+    }
+
+    @Override
+    public void classIntrospected(Class<?> cls, long nanos) {
+        // Ignored
+    }
+
+    @Override
+    public void instanceCreated(Class<?> cls, long nanos) {
+        // Ignored
+    }
+
+    @Override
+    public void mockCreated(Class<?> type, long nanos) {
+        // Ignored
+    }
+
+    @Override
+    public void propertyChecked(Class<?> cls, CheckKind check, String property, long nanos) {
+        // Ignored
+    }
+
+    @Override
+    public void failed(Class<?> cls, CheckKind check, String property, Throwable failure) {
+        // Ignored
+    }
+}
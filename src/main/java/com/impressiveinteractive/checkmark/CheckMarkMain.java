@@ -0,0 +1,262 @@
+package com.impressiveinteractive.checkmark;
+
+import java.beans.IntrospectionException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Checks all classes on a class path from the command line, in a single JVM. Every class is loaded once and checked by
+ * a {@link CheckMarkRunner}, so the whole run shares one warmed up JIT and all of the per-class caches, instead of
+ * paying for a test class and a cold JIT per checked class. Run it from the executable jar with the {@code cli}
+ * classifier:
+ * <p/>
+ * <pre>
+ * java -jar checkmark-cli.jar --classpath target/classes:lib/model.jar --package com.example.model
+ * </pre>
+ * The exit code is {@value #EXIT_SUCCESS} when every check passed, {@value #EXIT_FAILURES} when any check failed,
+ * {@value #EXIT_USAGE} for invalid arguments and {@value #EXIT_ERROR} when the class path could not be read.
+ */
+public final class CheckMarkMain {
+    static final int EXIT_SUCCESS = 0;
+    static final int EXIT_FAILURES = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_ERROR = 3;
+
+    private static final String USAGE = "Usage: java -jar checkmark-cli.jar --classpath <path> [options]\n"
+            + "\n"
+            + "  --classpath, -cp <path>  Directories and jars to check, separated by '" + File.pathSeparator + "'.\n"
+            + "  --package <name>         Only check classes in this package or its sub packages. Can be repeated.\n"
+            + "  --exclude <regex>        Skip classes with a matching binary name. Can be repeated.\n"
+            + "  --checks <kinds>         Comma separated checks to run, by default "
+            + "ACCESSORS,MUTATORS,EQUALS_AND_HASH_CODE.\n"
+            + "  --threads <count>        Number of threads, by default one per available processor.\n"
+            + "  --ndjson <file>          Write every outcome to an NDJSON report.\n"
+            + "  --junit-xml <file>       Write every outcome to a JUnit XML report.\n"
+            + "  --help                   Show this message.\n";
+
+    private static final String SUMMARY_MESSAGE = "Checked %d classes with %d checks: %d failed.";
+
+    private CheckMarkMain() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Run the checks as described by the command line arguments.
+     *
+     * @param args The command line arguments.
+     * @param out  The stream to write the summary to.
+     * @param err  The stream to write failures and errors to.
+     * @return The exit code.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Arguments arguments;
+        try {
+            arguments = Arguments.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return EXIT_USAGE;
+        }
+        if (arguments.help) {
+            out.print(USAGE);
+            return EXIT_SUCCESS;
+        }
+
+        List<StreamingReporter> reporters = new ArrayList<>();
+        try (URLClassLoader loader = new URLClassLoader(arguments.urls(), CheckMarkMain.class.getClassLoader())) {
+            final List<Class<?>> classes = new ArrayList<>();
+            ClassScanner scanner = new ClassScanner(loader, arguments.filter());
+            ClassScanner.Callback collect = new ClassScanner.Callback() {
+                @Override
+                public void found(Class<?> cls, ClassFile classFile) {
+                    classes.add(cls);
+                }
+            };
+            for (Path entry : arguments.classPath) {
+                if (Files.isDirectory(entry)) {
+                    scanner.scan(entry, collect);
+                } else {
+                    scanner.scanJar(entry, collect);
+                }
+            }
+
+            if (arguments.ndjson != null) {
+                reporters.add(StreamingReporter.open(arguments.ndjson, StreamingReporter.Format.NDJSON));
+            }
+            if (arguments.junitXml != null) {
+                reporters.add(StreamingReporter.open(arguments.junitXml, StreamingReporter.Format.JUNIT_XML));
+            }
+            for (StreamingReporter reporter : reporters) {
+                CheckMark.addListener(reporter);
+            }
+
+            CheckMarkReport report = new CheckMarkRunner(arguments.threads, arguments.checks).run(classes);
+            for (CheckMarkReport.Failure failure : report.getFailures()) {
+                err.println(failure);
+            }
+            out.println(String.format(SUMMARY_MESSAGE, report.getClassCount(), report.getCheckCount(),
+                    report.getFailures().size()));
+            return report.isSuccessful() ? EXIT_SUCCESS : EXIT_FAILURES;
+        } catch (IOException | IntrospectionException | ReflectiveOperationException e) {
+            err.println("Could not read the class path: " + e);
+            return EXIT_ERROR;
+        } finally {
+            for (StreamingReporter reporter : reporters) {
+                CheckMark.removeListener(reporter);
+                try {
+                    reporter.close();
+                } catch (IOException e) {
+                    err.println("Could not write the report: " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The parsed command line.
+     */
+    private static final class Arguments {
+        private final List<Path> classPath = new ArrayList<>();
+        private final List<String> packages = new ArrayList<>();
+        private final List<Pattern> excludes = new ArrayList<>();
+        private Pattern include;
+        private CheckKind[] checks = new CheckKind[0];
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private Path ndjson;
+        private Path junitXml;
+        private boolean help;
+
+        private static Arguments parse(String[] args) {
+            Arguments arguments = new Arguments();
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help") || option.equals("-h")) {
+                    arguments.help = true;
+                    return arguments;
+                } else if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(String.format("Unknown option or missing value: %s", option));
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--classpath":
+                    case "-cp":
+                        for (String entry : value.split(Pattern.quote(File.pathSeparator))) {
+                            if (entry.isEmpty()) {
+                                continue;
+                            }
+                            Path path = Paths.get(entry);
+                            if (!Files.exists(path)) {
+                                throw new IllegalArgumentException(
+                                        String.format("Class path entry %s does not exist.", entry));
+                            }
+                            arguments.classPath.add(path);
+                        }
+                        break;
+                    case "--package":
+                        arguments.packages.add(value);
+                        break;
+                    case "--exclude":
+                        arguments.excludes.add(pattern(value));
+                        break;
+                    case "--checks":
+                        arguments.checks = checks(value);
+                        break;
+                    case "--threads":
+                        arguments.threads = threads(value);
+                        break;
+                    case "--ndjson":
+                        arguments.ndjson = Paths.get(value);
+                        break;
+                    case "--junit-xml":
+                        arguments.junitXml = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format("Unknown option: %s", option));
+                }
+            }
+            if (arguments.classPath.isEmpty()) {
+                throw new IllegalArgumentException("No class path given.");
+            }
+            if (!arguments.packages.isEmpty()) {
+                StringBuilder regex = new StringBuilder("(?:");
+                for (int i = 0; i < arguments.packages.size(); i++) {
+                    if (i > 0) {
+                        regex.append('|');
+                    }
+                    regex.append(Pattern.quote(arguments.packages.get(i)));
+                }
+                arguments.include = pattern(regex.append(")\\..+").toString());
+            }
+            return arguments;
+        }
+
+        private static Pattern pattern(String regex) {
+            try {
+                return Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException(String.format("Not a valid regular expression: %s", regex), e);
+            }
+        }
+
+        private static CheckKind[] checks(String value) {
+            List<CheckKind> checks = new ArrayList<>();
+            for (String name : value.split(",")) {
+                try {
+                    checks.add(CheckKind.valueOf(name.trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(String.format("Unknown check: %s", name.trim()), e);
+                }
+            }
+            return checks.toArray(new CheckKind[checks.size()]);
+        }
+
+        private static int threads(String value) {
+            try {
+                int threads = Integer.parseInt(value);
+                if (threads >= 1) {
+                    return threads;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(String.format("Not a valid number of threads: %s", value));
+        }
+
+        private URL[] urls() throws IOException {
+            URL[] urls = new URL[classPath.size()];
+            for (int i = 0; i < urls.length; i++) {
+                urls[i] = classPath.get(i).toUri().toURL();
+            }
+            return urls;
+        }
+
+        /**
+         * Concrete beans, within one of the packages when any are given, that match none of the exclusions.
+         */
+        private ClassFilter filter() {
+            List<ClassFilter> filters = new ArrayList<>();
+            filters.add(ClassFilters.concreteBeans());
+            if (include != null) {
+                filters.add(ClassFilters.include(include));
+            }
+            for (Pattern exclude : excludes) {
+                filters.add(ClassFilters.exclude(exclude));
+            }
+            return ClassFilters.and(filters.toArray(new ClassFilter[filters.size()]));
+        }
+    }
+}
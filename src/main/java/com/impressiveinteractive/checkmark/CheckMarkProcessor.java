@@ -0,0 +1,501 @@
+package com.impressiveinteractive.checkmark;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link CheckMarkVerifier} for every class annotated with {@link CheckMarked}. The verifier calls the
+ * accessors, mutators and equals of the bean directly. Fields the verifier can see (not private and declared in the
+ * package of the bean) are read and written directly as well; only the remaining fields are looked up once through
+ * {@link GeneratedChecks#field(Class, int, String)}.
+ * <p/>
+ * The generated checks pass and fail on the same properties as the reflective checks of {@link CheckMark}, and a
+ * getter without a field is skipped with the same warning. They differ in two ways: the remaining fields are always
+ * accessed through {@link java.lang.reflect.Field#get(Object)} and {@link java.lang.reflect.Field#set(Object, Object)}
+ * whatever the {@link InvocationEngine} is, and trivial accessors and mutators are called even when the bytecode
+ * shortcut is enabled.
+ * <p/>
+ * Properties are discovered like the {@link Introspector} does: public, non-static getX, isX (for boolean) and setX
+ * methods of the class and its superclasses, excluding those of {@link Object}. The processor is registered as a
+ * service, so it runs whenever CheckMark is on the compile class path.
+ */
+@SupportedAnnotationTypes("com.impressiveinteractive.checkmark.CheckMarked")
+public final class CheckMarkProcessor extends AbstractProcessor {
+    private static final String INDENT = "    ";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CheckMarked.class)) {
+            if (!validate(element)) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write verifier for " + type.getQualifiedName() + ": " + e.getMessage(), type);
+            }
+        }
+        return true;
+    }
+
+    private boolean validate(Element element) {
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            return error(element, "@CheckMarked can only be used on concrete classes.");
+        }
+        for (Element current = element; current.getKind() != ElementKind.PACKAGE;
+             current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(element, "@CheckMarked classes must be visible to their package.");
+            }
+        }
+        return true;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String verifierName = Verifiers.verifierName(binaryName);
+        String simpleName = verifierName.substring(verifierName.lastIndexOf('.') + 1);
+
+        Bean bean = new Bean(type);
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import com.impressiveinteractive.checkmark.CheckMarkVerifier;\n");
+        out.append("import com.impressiveinteractive.checkmark.GeneratedChecks;\n");
+        out.append("import com.impressiveinteractive.checkmark.Reflection;\n\n");
+        out.append("import java.lang.reflect.Field;\n\n");
+        out.append("/**\n * Generated by {@link com.impressiveinteractive.checkmark.CheckMarkProcessor} for {@link ")
+                .append(bean.name).append("}.\n */\n");
+        out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        out.append("public final class ").append(simpleName).append(" implements CheckMarkVerifier {\n");
+        for (BeanField field : bean.fields.values()) {
+            if (field.reflective) {
+                out.append(INDENT).append("private static final Field ").append(field.constant)
+                        .append(" = GeneratedChecks.field(").append(bean.name).append(".class, ")
+                        .append(field.depth).append(", \"").append(field.name).append("\");\n");
+            }
+        }
+        out.append('\n');
+        generateAccessors(out, bean);
+        out.append('\n');
+        generateMutators(out, bean);
+        out.append('\n');
+        generateEquals(out, bean);
+        out.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(verifierName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private void generateAccessors(StringBuilder out, Bean bean) {
+        method(out, "testAccessors(Object object)");
+        line(out, 2, bean.name + " instance = (" + bean.name + ") object;");
+        line(out, 2, "Object mock;");
+        line(out, 2, "Object previous;");
+        for (BeanProperty property : bean.properties.values()) {
+            if (property.getter == null) {
+                continue;
+            } else if (property.field == null) {
+                line(out, 2, "GeneratedChecks.ignoredGetter(\"" + property.name + "\");");
+                continue;
+            }
+            if (!property.field.isFinal()) {
+                line(out, 2, "mock = GeneratedChecks.accessorValue(" + typeName(property.type) + ".class);");
+                line(out, 2, "previous = " + property.field.read("instance") + ";");
+            }
+            line(out, 2, "try {");
+            if (property.field.isFinal()) {
+                line(out, 3, "mock = " + property.field.read("instance") + ";");
+            } else {
+                line(out, 3, property.field.write("instance", "mock"));
+            }
+            line(out, 3, "if (!(" + same(property.type, "mock", "instance." + property.getter + "()") + ")) {");
+            line(out, 4, "throw GeneratedChecks.accessorFailed(" + bean.name + ".class, \"" + property.name + "\");");
+            line(out, 3, "}");
+            line(out, 2, "} catch (Exception e) {");
+            line(out, 3, "throw GeneratedChecks.accessorException(" + bean.name + ".class, \"" + property.name
+                    + "\", e);");
+            if (!property.field.isFinal()) {
+                line(out, 2, "} finally {");
+                line(out, 3, property.field.write("instance", "previous"));
+            }
+            line(out, 2, "}");
+        }
+        line(out, 1, "}");
+    }
+
+    private void generateMutators(StringBuilder out, Bean bean) {
+        method(out, "testMutators(Object object)");
+        line(out, 2, bean.name + " instance = (" + bean.name + ") object;");
+        line(out, 2, "Object mock;");
+        for (BeanProperty property : bean.properties.values()) {
+            if (property.setter == null) {
+                continue;
+            }
+            line(out, 2, "mock = GeneratedChecks.mutatorValue(" + typeName(property.type) + ".class);");
+            if (property.field != null && !property.field.isFinal() && !property.type.getKind().isPrimitive()) {
+                line(out, 2, "if (mock == " + property.field.read("instance") + ") {");
+                line(out, 3, property.field.write("instance", "null"));
+                line(out, 2, "}");
+            }
+            line(out, 2, "try {");
+            line(out, 3, "instance." + property.setter + "((" + castName(property.setterType) + ") mock);");
+            if (property.field == null) {
+                line(out, 3, "throw new NoSuchFieldException(\"Could not find field " + bean.name + "."
+                        + property.name + ".\");");
+            } else {
+                line(out, 3, "if (!(" + same(property.type, "mock", property.field.read("instance")) + ")) {");
+                line(out, 4, "throw GeneratedChecks.mutatorFailed(" + bean.name + ".class, \"" + property.name
+                        + "\");");
+                line(out, 3, "}");
+            }
+            line(out, 2, "} catch (Exception e) {");
+            line(out, 3, "throw GeneratedChecks.mutatorException(" + bean.name + ".class, \"" + property.name
+                    + "\", e);");
+            line(out, 2, "}");
+        }
+        line(out, 1, "}");
+    }
+
+    private void generateEquals(StringBuilder out, Bean bean) {
+        method(out, "testEqualsAndHashCode()");
+        line(out, 2, bean.name + " instanceA = Reflection.createInstance(" + bean.name + ".class);");
+        line(out, 2, bean.name + " instanceB = Reflection.createInstance(" + bean.name + ".class);");
+        line(out, 2, "Object value;");
+        for (BeanField field : bean.fields.values()) {
+            if (field == bean.hashCodeCache) {
+                continue;
+            } else if (field.isPrimitiveWrite()) {
+                line(out, 2, field.writePrimitive("instanceA", "GeneratedChecks.SEED_ONE"));
+                line(out, 2, field.writePrimitive("instanceB", "GeneratedChecks.SEED_ONE"));
+                continue;
+            }
+            line(out, 2, "value = Reflection.dumbMock(" + typeName(field.type) + ".class, GeneratedChecks.SEED_ONE);");
+            line(out, 2, field.write("instanceA", "value"));
+            line(out, 2, field.write("instanceB", "value"));
+        }
+        line(out, 2, "GeneratedChecks.checkEqualsContract(" + bean.name + ".class, instanceA, instanceB);");
+        for (BeanField field : bean.fields.values()) {
+            if (field == bean.hashCodeCache) {
+                continue;
+            }
+            line(out, 2, "value = " + field.read("instanceB") + ";");
+            if (field.isPrimitiveWrite()) {
+                line(out, 2, field.writePrimitive("instanceB", "GeneratedChecks.SEED_TWO"));
+            } else {
+                line(out, 2, field.write("instanceB",
+                        "Reflection.dumbMock(" + typeName(field.type) + ".class, GeneratedChecks.SEED_TWO)"));
+            }
+            line(out, 2, "if (instanceA.equals(instanceB) || instanceB.equals(instanceA)) {");
+            line(out, 3, "throw GeneratedChecks.fieldNotUsedInEquals(" + bean.name + ".class, \"" + field.name
+                    + "\");");
+            line(out, 2, "}");
+            line(out, 2, field.write("instanceB", "value"));
+        }
+        line(out, 1, "}");
+    }
+
+    private static void method(StringBuilder out, String signature) {
+        line(out, 1, "@Override");
+        line(out, 1, "public void " + signature + " throws ReflectiveOperationException {");
+    }
+
+    private static void line(StringBuilder out, int depth, String code) {
+        for (int i = 0; i < depth; i++) {
+            out.append(INDENT);
+        }
+        out.append(code).append('\n');
+    }
+
+    /**
+     * Primitives are compared by value, like {@link Object#equals(Object)} on their wrappers, and all other types by
+     * identity. This matches {@link PropertyInvoker#readMatches(Object, Object)}.
+     */
+    private static String same(TypeMirror type, String expected, String actual) {
+        return type.getKind().isPrimitive() ? expected + ".equals(" + actual + ")" : expected + " == " + actual;
+    }
+
+    private String typeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String castName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return typeName(type);
+    }
+
+    private static PackageElement packageOf(Element element) {
+        Element current = element;
+        while (current.getKind() != ElementKind.PACKAGE) {
+            current = current.getEnclosingElement();
+        }
+        return (PackageElement) current;
+    }
+
+    /**
+     * Everything the verifier needs to know about the annotated class.
+     */
+    private final class Bean {
+        private final String name;
+        private final PackageElement pkg;
+        private final Map<String, BeanField> fields = new LinkedHashMap<>();
+        private final Map<String, BeanProperty> properties = new LinkedHashMap<>();
+        private final BeanField hashCodeCache;
+
+        private Bean(TypeElement type) {
+            this.name = typeName(type.asType());
+            this.pkg = packageOf(type);
+
+            List<TypeElement> hierarchy = new ArrayList<>();
+            for (TypeElement current = type; current != null && !isObject(current); current = superclass(current)) {
+                hierarchy.add(current);
+            }
+            BeanField annotated = null;
+            for (int depth = 0; depth < hierarchy.size(); depth++) {
+                for (Element member : hierarchy.get(depth).getEnclosedElements()) {
+                    if (member.getKind() == ElementKind.FIELD) {
+                        String key = depth + ":" + member.getSimpleName();
+                        BeanField field = new BeanField((VariableElement) member, depth, fields.size(), pkg);
+                        fields.put(key, field);
+                        if (member.getAnnotation(CachedHashCode.class) != null) {
+                            annotated = annotated == null ? field : annotated;
+                        } else if (HashCodeCache.isConventional(field.name, field.type.getKind() == TypeKind.INT,
+                                field.staticField, field.finalField)) {
+                            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Field " + field.name
+                                    + " looks like a hashCode cache, but the verifier expects equals to use it. "
+                                    + "Annotate it with @CachedHashCode if equals ignores it.", member);
+                        }
+                    }
+                }
+            }
+            // The same field as HashCodeCache#forClass(Class), which the equals contract check looks at
+            this.hashCodeCache = annotated;
+
+            DeclaredType declared = (DeclaredType) type.asType();
+            for (Element member : processingEnv.getElementUtils().getAllMembers(type)) {
+                if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)
+                        || member.getModifiers().contains(Modifier.STATIC)
+                        || isObject((TypeElement) member.getEnclosingElement())) {
+                    continue;
+                }
+                ExecutableElement method = (ExecutableElement) member;
+                ExecutableType resolved = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declared, method);
+                String methodName = method.getSimpleName().toString();
+                if (resolved.getParameterTypes().isEmpty() && resolved.getReturnType().getKind() != TypeKind.VOID) {
+                    if (methodName.startsWith("get") && methodName.length() > 3) {
+                        property(methodName.substring(3)).setGetter(methodName, resolved.getReturnType(), false);
+                    } else if (methodName.startsWith("is") && methodName.length() > 2
+                            && resolved.getReturnType().getKind() == TypeKind.BOOLEAN) {
+                        property(methodName.substring(2)).setGetter(methodName, resolved.getReturnType(), true);
+                    }
+                } else if (resolved.getParameterTypes().size() == 1
+                        && resolved.getReturnType().getKind() == TypeKind.VOID
+                        && methodName.startsWith("set") && methodName.length() > 3) {
+                    property(methodName.substring(3)).setSetter(methodName, resolved.getParameterTypes().get(0));
+                }
+            }
+
+            for (BeanProperty property : new ArrayList<>(properties.values())) {
+                if (property.type == null) {
+                    properties.remove(property.name);
+                } else {
+                    property.field = findField(hierarchy, property.name);
+                }
+            }
+        }
+
+        private BeanProperty property(String suffix) {
+            String name = Introspector.decapitalize(suffix);
+            BeanProperty property = properties.get(name);
+            if (property == null) {
+                property = new BeanProperty(name);
+                properties.put(name, property);
+            }
+            return property;
+        }
+
+        private BeanField findField(List<TypeElement> hierarchy, String name) {
+            for (int depth = 0; depth < hierarchy.size(); depth++) {
+                BeanField field = fields.get(depth + ":" + name);
+                if (field != null) {
+                    return field;
+                }
+            }
+            return null;
+        }
+
+        private TypeElement superclass(TypeElement type) {
+            TypeMirror superclass = type.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            return (TypeElement) ((DeclaredType) superclass).asElement();
+        }
+
+        private boolean isObject(TypeElement type) {
+            return type.getQualifiedName().contentEquals(Object.class.getName());
+        }
+    }
+
+    /**
+     * A getter and setter pair, with the same rules for conflicting types as the {@link Introspector}: the getter
+     * decides the type and a setter of another type is ignored.
+     */
+    private final class BeanProperty {
+        private final String name;
+        private String getter;
+        private boolean booleanGetter;
+        private String setter;
+        private TypeMirror type;
+        private TypeMirror setterType;
+        private BeanField field;
+
+        private BeanProperty(String name) {
+            this.name = name;
+        }
+
+        private void setGetter(String getter, TypeMirror type, boolean booleanGetter) {
+            if (this.getter != null && this.booleanGetter && !booleanGetter) {
+                return;
+            }
+            this.getter = getter;
+            this.booleanGetter = booleanGetter;
+            this.type = type;
+            if (setterType != null && !sameErasure(type, setterType)) {
+                setter = null;
+                setterType = null;
+            }
+        }
+
+        private void setSetter(String setter, TypeMirror setterType) {
+            if (type != null && !sameErasure(type, setterType)) {
+                return;
+            }
+            this.setter = setter;
+            this.setterType = setterType;
+            if (type == null && getter == null) {
+                type = setterType;
+            }
+        }
+
+        private boolean sameErasure(TypeMirror a, TypeMirror b) {
+            return processingEnv.getTypeUtils().isSameType(
+                    processingEnv.getTypeUtils().erasure(a), processingEnv.getTypeUtils().erasure(b));
+        }
+    }
+
+    /**
+     * A field of the bean hierarchy, accessed directly when the verifier can see it and through a cached
+     * {@link java.lang.reflect.Field} otherwise.
+     */
+    private final class BeanField {
+        private final String name;
+        private final TypeMirror type;
+        private final String declaringName;
+        private final int depth;
+        private final String constant;
+        private final boolean finalField;
+        private final boolean staticField;
+        private final boolean reflective;
+
+        private BeanField(VariableElement field, int depth, int index, PackageElement pkg) {
+            this.name = field.getSimpleName().toString();
+            this.type = field.asType();
+            TypeElement declaring = (TypeElement) field.getEnclosingElement();
+            this.declaringName = typeName(declaring.asType());
+            this.depth = depth;
+            this.constant = "FIELD_" + index;
+            this.finalField = field.getModifiers().contains(Modifier.FINAL);
+            this.staticField = field.getModifiers().contains(Modifier.STATIC);
+            this.reflective = finalField || !visible(field, pkg);
+        }
+
+        private boolean visible(Element element, PackageElement pkg) {
+            for (Element current = element; current.getKind() != ElementKind.PACKAGE;
+                 current = current.getEnclosingElement()) {
+                if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+            }
+            return packageOf(element).equals(pkg);
+        }
+
+        private boolean isFinal() {
+            return finalField;
+        }
+
+        private String read(String instance) {
+            if (reflective) {
+                return constant + ".get(" + instance + ")";
+            }
+            return target(instance);
+        }
+
+        /**
+         * @return True if the field is a primitive written directly, so that it can be set without boxing.
+         */
+        private boolean isPrimitiveWrite() {
+            return !reflective && type.getKind().isPrimitive();
+        }
+
+        private String writePrimitive(String instance, String seed) {
+            String kind = type.getKind().name();
+            String method = "dumb" + kind.charAt(0) + kind.substring(1).toLowerCase();
+            return target(instance) + " = Reflection." + method + "(" + seed + ");";
+        }
+
+        private String target(String instance) {
+            return staticField ? declaringName + "." + name : "((" + declaringName + ") " + instance + ")." + name;
+        }
+
+        private String write(String instance, String value) {
+            if (reflective) {
+                return constant + ".set(" + instance + ", " + value + ");";
+            }
+            return target(instance) + " = (" + castName(type) + ") " + value + ";";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The aggregated outcome of a {@link CheckMarkRunner} run. Unlike the static methods in {@link CheckMark}, which stop
+ * at the first failure, a report holds every failure of every checked class.
+ */
+public final class CheckMarkReport {
+    private static final String FAILURES_MESSAGE = "%d of %d checks failed on %d classes:";
+
+    private final int classCount;
+    private final int checkCount;
+    private final List<Failure> failures;
+
+    CheckMarkReport(int classCount, int checkCount, Collection<Failure> failures) {
+        this.classCount = classCount;
+        this.checkCount = checkCount;
+        this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+    /**
+     * @return The number of checked classes.
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * @return The number of checks that were run, failed or not.
+     */
+    public int getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * @return Every failed check, in no particular order.
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return True if no check failed.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Throw a single {@link AssertionError} listing every failure if any check failed. The first failure is used as
+     * cause and all others are added as {@link Throwable#getSuppressed() suppressed} exceptions.
+     *
+     * @throws AssertionError Thrown when at least one check failed.
+     */
+    public void assertSuccessful() {
+        if (isSuccessful()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder(
+                String.format(FAILURES_MESSAGE, failures.size(), checkCount, classCount));
+        for (Failure failure : failures) {
+            message.append('\n').append(failure);
+        }
+        AssertionError error = new AssertionError(message.toString());
+        error.initCause(failures.get(0).getCause());
+        for (Failure failure : failures.subList(1, failures.size())) {
+            error.addSuppressed(failure.getCause());
+        }
+        throw error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d classes, %d checks, %d failures", classCount, checkCount, failures.size());
+    }
+
+    /**
+     * A single failed check.
+     */
+    public static final class Failure {
+        private final Class<?> type;
+        private final CheckKind check;
+        private final Throwable cause;
+
+        Failure(Class<?> type, CheckKind check, Throwable cause) {
+            this.type = type;
+            this.check = check;
+            this.cause = cause;
+        }
+
+        /**
+         * @return The class that failed the check.
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return The check that failed.
+         */
+        public CheckKind getCheck() {
+            return check;
+        }
+
+        /**
+         * @return The exception or error the check failed with.
+         */
+        public Throwable getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %s", type.getName(), check, cause);
+        }
+    }
+}
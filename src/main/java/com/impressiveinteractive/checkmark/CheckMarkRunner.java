@@ -0,0 +1,169 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Runs {@link CheckKind checks} on many classes in parallel. Every class is checked by its own task on a
+ * {@link ForkJoinPool}, and every selected check is run on every class even after earlier checks failed. All failures
+ * are gathered in a single {@link CheckMarkReport}.
+ * <p/>
+ * <pre>
+ * new CheckMarkRunner().run(classes).assertSuccessful();
+ * </pre>
+ */
+public final class CheckMarkRunner {
+    private static final CheckKind[] DEFAULT_CHECKS =
+            {CheckKind.ACCESSORS, CheckKind.MUTATORS, CheckKind.EQUALS_AND_HASH_CODE};
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Set<CheckKind> checks;
+
+    /**
+     * Create a runner that runs the accessor, mutator and equals checks on a pool with one thread per available
+     * processor.
+     */
+    public CheckMarkRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a runner that runs the given checks on a pool of the given size. The pool is created for each run and
+     * shut down afterwards.
+     *
+     * @param parallelism The number of threads to use.
+     * @param checks      The checks to run, or none to run the accessor, mutator and equals checks.
+     */
+    public CheckMarkRunner(int parallelism, CheckKind... checks) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1.");
+        }
+        this.pool = null;
+        this.parallelism = parallelism;
+        this.checks = toSet(checks);
+    }
+
+    /**
+     * Create a runner that runs the given checks on the given pool. The pool is not shut down by this runner.
+     *
+     * @param pool   The pool to run the checks on.
+     * @param checks The checks to run, or none to run the accessor, mutator and equals checks.
+     */
+    public CheckMarkRunner(ForkJoinPool pool, CheckKind... checks) {
+        if (pool == null) {
+            throw new IllegalArgumentException("The pool can not be null.");
+        }
+        this.pool = pool;
+        this.parallelism = pool.getParallelism();
+        this.checks = toSet(checks);
+    }
+
+    /**
+     * Run the selected checks on all given classes and wait for them to finish.
+     *
+     * @param classes The classes to check.
+     * @return The report containing every failure.
+     */
+    public CheckMarkReport run(Class<?>... classes) {
+        return run(asList(classes));
+    }
+
+    /**
+     * Run the selected checks on all given classes and wait for them to finish.
+     *
+     * @param classes The classes to check.
+     * @return The report containing every failure.
+     */
+    public CheckMarkReport run(Collection<? extends Class<?>> classes) {
+        List<Class<?>> list = new ArrayList<>(classes);
+        Queue<CheckMarkReport.Failure> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger checkCount = new AtomicInteger();
+        RangeTask task = new RangeTask(list, 0, list.size(), failures, checkCount);
+
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            ForkJoinPool ownPool = new ForkJoinPool(parallelism);
+            try {
+                ownPool.invoke(task);
+            } finally {
+                ownPool.shutdown();
+            }
+        }
+        return new CheckMarkReport(list.size(), checkCount.get(), failures);
+    }
+
+    /**
+     * Run the selected checks on a single class, recording every failure instead of stopping at the first. The
+     * {@link CheckFailure failures} do not capture a stack trace unless {@link CheckMark#setDebug(boolean) debugging}
+     * is enabled.
+     *
+     * @param cls      The class to check.
+     * @param failures The queue to add the failures to.
+     * @return The number of checks that were run.
+     */
+    int check(Class<?> cls, Queue<CheckMarkReport.Failure> failures) {
+        CheckMark.setStackless(true);
+        try {
+            for (CheckKind check : checks) {
+                try {
+                    check.run(cls);
+                } catch (Throwable t) {
+                    if (t instanceof VirtualMachineError && !(t instanceof StackOverflowError)) {
+                        throw (VirtualMachineError) t;
+                    }
+                    failures.add(new CheckMarkReport.Failure(cls, check, t));
+                }
+            }
+        } finally {
+            CheckMark.setStackless(false);
+        }
+        return checks.size();
+    }
+
+    private static Set<CheckKind> toSet(CheckKind[] checks) {
+        return EnumSet.copyOf(asList(checks.length == 0 ? DEFAULT_CHECKS : checks));
+    }
+
+    /**
+     * Splits the list of classes in halves until every task checks a single class.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final List<Class<?>> classes;
+        private final int from;
+        private final int to;
+        private final Queue<CheckMarkReport.Failure> failures;
+        private final AtomicInteger checkCount;
+
+        private RangeTask(List<Class<?>> classes, int from, int to, Queue<CheckMarkReport.Failure> failures,
+                          AtomicInteger checkCount) {
+            this.classes = classes;
+            this.from = from;
+            this.to = to;
+            this.failures = failures;
+            this.checkCount = checkCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                checkCount.addAndGet(check(classes.get(from), failures));
+            } else if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(classes, from, middle, failures, checkCount),
+                        new RangeTask(classes, middle, to, failures, checkCount));
+            }
+        }
+    }
+}
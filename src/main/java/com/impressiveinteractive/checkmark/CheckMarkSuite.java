@@ -0,0 +1,38 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Configures the classes and checks of a test class that is run with the {@link CheckMarkJUnitRunner}.
+ * <p/>
+ * <pre>
+ * &#64;RunWith(CheckMarkJUnitRunner.class)
+ * &#64;CheckMarkSuite(packages = "com.example.model", exclude = ".*Builder")
+ * public class ModelCheck {
+ * }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CheckMarkSuite {
+    /**
+     * @return The packages whose classes, including those in sub packages, are checked when they are accepted by
+     * {@link ClassFilters#concreteBeans()}.
+     */
+    String[] packages();
+
+    /**
+     * @return The checks to run, or none to run the accessor, mutator and equals checks.
+     */
+    CheckKind[] checks() default {};
+
+    /**
+     * @return Regular expressions matching the full binary names of classes that are not checked.
+     */
+    String[] exclude() default {};
+}
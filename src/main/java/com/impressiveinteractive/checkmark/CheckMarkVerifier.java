@@ -0,0 +1,30 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * Checks a single bean class without introspection. Implementations are generated by the {@link CheckMarkProcessor}
+ * for classes annotated with {@link CheckMarked} and call accessors, mutators and equals directly. They report
+ * failures with the same messages as {@link CheckMark}.
+ */
+public interface CheckMarkVerifier {
+    /**
+     * @param instance The instance to test the accessors of.
+     * @throws ReflectiveOperationException Thrown when a field that is not visible to the verifier could not be
+     *                                      accessed.
+     * @see CheckMark#testAccessors(Object)
+     */
+    void testAccessors(Object instance) throws ReflectiveOperationException;
+
+    /**
+     * @param instance The instance to test the mutators of.
+     * @throws ReflectiveOperationException Thrown when a field that is not visible to the verifier could not be
+     *                                      accessed.
+     * @see CheckMark#testMutators(Object)
+     */
+    void testMutators(Object instance) throws ReflectiveOperationException;
+
+    /**
+     * @throws ReflectiveOperationException Thrown when an instance could not be created or a field could not be set.
+     * @see CheckMark#testEqualsAndHashCode(Class)
+     */
+    void testEqualsAndHashCode() throws ReflectiveOperationException;
+}
@@ -0,0 +1,20 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a bean for which the {@link CheckMarkProcessor} generates a {@link CheckMarkVerifier} at compile time. When
+ * the generated verifier is on the class path, {@link CheckMark} uses it instead of the {@link java.beans.Introspector}
+ * and reflection for the accessor, mutator and equals checks of the bean.
+ * <p/>
+ * The annotation is kept at runtime so that {@link CheckMark} only looks for a verifier when one was generated.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CheckMarked {
+}
@@ -0,0 +1,140 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.Locale;
+
+/**
+ * The outcome of a single check on a class, or on a single property or field of it. The message of a failed check is
+ * only rendered when it is asked for, so a run that expects and counts many failures does not pay for formatting them,
+ * including the {@link Object#toString()} of any instances the message shows.
+ * <p/>
+ * The throwing methods of {@link CheckMark} turn a failed result into a {@link CheckFailure}.
+ */
+public final class CheckResult {
+    private static final String SEED_MESSAGE = "%s Failing seed: %d.";
+
+    private final Class<?> type;
+    private final CheckKind check;
+    private final String property;
+    private final long seed;
+    private final Throwable cause;
+    private final String format;
+    private final Object[] arguments;
+    private volatile String message;
+    private volatile CheckFailure failure;
+
+    private CheckResult(Class<?> type, CheckKind check, String property, long seed, Throwable cause, String format,
+                        Object[] arguments) {
+        this.type = type;
+        this.check = check;
+        this.property = property;
+        this.seed = seed;
+        this.cause = cause;
+        this.format = format;
+        this.arguments = arguments;
+    }
+
+    /**
+     * @param type     The checked class.
+     * @param check    The check.
+     * @param property The checked property or field, or null for a check of the whole class.
+     * @param seed     The seed of the dumb mocks used.
+     * @return A result for a check that passed.
+     */
+    static CheckResult passed(Class<?> type, CheckKind check, String property, long seed) {
+        return new CheckResult(type, check, property, seed, null, null, null);
+    }
+
+    /**
+     * @param type      The checked class.
+     * @param check     The check.
+     * @param property  The checked property or field, or null for a check of the whole class.
+     * @param seed      The seed of the dumb mocks used. The message names it unless it is the
+     *                  {@link Reflection#DEFAULT_SEED default seed}.
+     * @param cause     The exception that made the check fail, or null.
+     * @param format    The {@link String#format(String, Object...) format} of the message.
+     * @param arguments The arguments of the message, which are kept until the message is rendered.
+     * @return A result for a check that failed.
+     */
+    static CheckResult failed(Class<?> type, CheckKind check, String property, long seed, Throwable cause,
+                              String format, Object... arguments) {
+        return new CheckResult(type, check, property, seed, cause, format, arguments);
+    }
+
+    /**
+     * @return True if the check passed.
+     */
+    public boolean isPassed() {
+        return format == null;
+    }
+
+    /**
+     * @return The checked class.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return The check that produced this result.
+     */
+    public CheckKind getCheck() {
+        return check;
+    }
+
+    /**
+     * @return The checked property or field, or null when the result is about the whole class.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return The seed of the dumb mocks the check used, which is {@link Reflection#DEFAULT_SEED} unless the class was
+     * fuzzed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return The exception that made the check fail, or null.
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    /**
+     * @return The message describing the failure, rendered in the root locale on first use, or null if the check
+     * passed.
+     */
+    public String getMessage() {
+        String rendered = message;
+        if (rendered == null && format != null) {
+            rendered = String.format(Locale.ROOT, format, arguments);
+            if (seed != Reflection.DEFAULT_SEED) {
+                rendered = String.format(Locale.ROOT, SEED_MESSAGE, rendered, seed);
+            }
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * @return The failure to throw for this result, created on first use, or null if the check passed.
+     */
+    CheckFailure toFailure() {
+        CheckFailure error = failure;
+        if (error == null && format != null) {
+            error = new CheckFailure(this);
+            failure = error;
+        }
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        String subject = property == null ? type.getName() : type.getName() + '.' + property;
+        return isPassed() ? String.format("%s %s passed", subject, check)
+                : String.format("%s %s failed: %s", subject, check, getMessage());
+    }
+}
@@ -0,0 +1,457 @@
+package com.impressiveinteractive.checkmark;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The metadata of a class, read directly from its class file without loading it. Only the parts needed to decide
+ * whether a class should be checked are kept, together with the field a method only loads or stores when its body is
+ * that of a trivial accessor or mutator.
+ */
+public final class ClassFile {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int RETURN = 0xb1;
+    private static final int[] XRETURN = {0xac, 0xad, 0xae, 0xaf, 0xb0}; // ireturn, lreturn, freturn, dreturn, areturn
+    private static final int[] XLOAD_1 = {0x1b, 0x1f, 0x23, 0x27, 0x2b}; // iload_1, lload_1, fload_1, dload_1, aload_1
+
+    /**
+     * The longest body of a trivial method: aload_0, xload_1, putfield with its two byte index and return.
+     */
+    private static final int MAX_TRIVIAL_CODE_LENGTH = 6;
+
+    private final String name;
+    private final String superName;
+    private final int access;
+    private final boolean anonymous;
+    private final List<Member> fields;
+    private final List<Member> methods;
+
+    private ClassFile(String name, String superName, int access, boolean anonymous,
+                      List<Member> fields, List<Member> methods) {
+        this.name = name;
+        this.superName = superName;
+        this.access = access;
+        this.anonymous = anonymous;
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    /**
+     * Read the class file from the given stream. The stream is not closed.
+     *
+     * @param in The stream to read from.
+     * @return The class file metadata.
+     * @throws IOException Thrown when the stream could not be read or does not contain a class file.
+     */
+    static ClassFile read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a class file.");
+        }
+        data.readUnsignedShort(); // minor version
+        data.readUnsignedShort(); // major version
+
+        int count = data.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNames = new int[count];
+        // The two indexes of field references (class, name and type) and of name and type entries (name, descriptor)
+        int[] firsts = new int[count];
+        int[] seconds = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8[i] = data.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classNames[i] = data.readUnsignedShort();
+                    break;
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_NAME_AND_TYPE:
+                    firsts[i] = data.readUnsignedShort();
+                    seconds[i] = data.readUnsignedShort();
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    data.skipBytes(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    data.skipBytes(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    data.skipBytes(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    data.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException(String.format("Unknown constant pool tag %d at index %d.", tag, i));
+            }
+        }
+
+        int access = data.readUnsignedShort();
+        String name = utf8[classNames[data.readUnsignedShort()]];
+        int superIndex = data.readUnsignedShort();
+        String superName = superIndex == 0 ? null : utf8[classNames[superIndex]];
+        data.skipBytes(2 * data.readUnsignedShort()); // interfaces
+
+        ConstantPool pool = new ConstantPool(utf8, classNames, firsts, seconds);
+        List<Member> fields = readMembers(data, pool);
+        List<Member> methods = readMembers(data, pool);
+
+        boolean anonymous = false;
+        int attributes = data.readUnsignedShort();
+        for (int i = 0; i < attributes; i++) {
+            String attributeName = utf8[data.readUnsignedShort()];
+            int length = data.readInt();
+            if ("InnerClasses".equals(attributeName)) {
+                int classes = data.readUnsignedShort();
+                for (int j = 0; j < classes; j++) {
+                    int innerClass = data.readUnsignedShort();
+                    data.skipBytes(2); // outer class
+                    int innerName = data.readUnsignedShort();
+                    data.skipBytes(2); // inner access flags
+                    if (innerClass != 0 && name.equals(utf8[classNames[innerClass]]) && innerName == 0) {
+                        anonymous = true;
+                    }
+                }
+            } else {
+                data.skipBytes(length);
+            }
+        }
+
+        return new ClassFile(name.replace('/', '.'), superName == null ? null : superName.replace('/', '.'), access,
+                anonymous, fields, methods);
+    }
+
+    private static List<Member> readMembers(DataInputStream data, ConstantPool pool) throws IOException {
+        int count = data.readUnsignedShort();
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int access = data.readUnsignedShort();
+            String name = pool.utf8[data.readUnsignedShort()];
+            String descriptor = pool.utf8[data.readUnsignedShort()];
+            FieldRef gets = null;
+            FieldRef puts = null;
+            int attributes = data.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                String attributeName = pool.utf8[data.readUnsignedShort()];
+                int length = data.readInt();
+                if (!"Code".equals(attributeName) || (access & ACC_STATIC) != 0) {
+                    data.skipBytes(length);
+                    continue;
+                }
+                data.skipBytes(4); // max stack and max locals
+                int codeLength = data.readInt();
+                if (codeLength > MAX_TRIVIAL_CODE_LENGTH) {
+                    data.skipBytes(length - 8);
+                    continue;
+                }
+                byte[] code = new byte[codeLength];
+                data.readFully(code);
+                data.skipBytes(length - 8 - codeLength);
+                gets = trivialGet(code, pool);
+                puts = trivialPut(code, pool);
+            }
+            members.add(new Member(access, name, descriptor, gets, puts));
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+    /**
+     * @return The field loaded by a body of aload_0, getfield and a return of any type, or null for any other body.
+     */
+    private static FieldRef trivialGet(byte[] code, ConstantPool pool) {
+        if (code.length != 5 || unsigned(code, 0) != ALOAD_0 || unsigned(code, 1) != GETFIELD
+                || !isOneOf(unsigned(code, 4), XRETURN)) {
+            return null;
+        }
+        return pool.fieldRef(unsigned(code, 2) << 8 | unsigned(code, 3));
+    }
+
+    /**
+     * @return The field stored by a body of aload_0, a load of the first parameter of any type, putfield and return,
+     * or null for any other body.
+     */
+    private static FieldRef trivialPut(byte[] code, ConstantPool pool) {
+        if (code.length != 6 || unsigned(code, 0) != ALOAD_0 || !isOneOf(unsigned(code, 1), XLOAD_1)
+                || unsigned(code, 2) != PUTFIELD || unsigned(code, 5) != RETURN) {
+            return null;
+        }
+        return pool.fieldRef(unsigned(code, 3) << 8 | unsigned(code, 4));
+    }
+
+    private static int unsigned(byte[] code, int index) {
+        return code[index] & 0xff;
+    }
+
+    private static boolean isOneOf(int opcode, int[] opcodes) {
+        for (int candidate : opcodes) {
+            if (opcode == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The binary name of the class, as used by {@link Class#forName(String)}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The binary name of the super class, or null for {@link Object} and module descriptors.
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    /**
+     * @return The access flags of the class as defined by the class file format.
+     */
+    public int getAccess() {
+        return access;
+    }
+
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (access & ACC_ABSTRACT) != 0;
+    }
+
+    public boolean isEnum() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isSynthetic() {
+        return (access & ACC_SYNTHETIC) != 0;
+    }
+
+    /**
+     * @return True if this is an anonymous class.
+     */
+    public boolean isAnonymous() {
+        return anonymous;
+    }
+
+    /**
+     * @return True if an instance of this class could be created by {@link Reflection#createInstance(Class)}.
+     */
+    public boolean isConcrete() {
+        return !isInterface() && !isAbstract() && !isEnum() && !isAnnotation() && !isSynthetic() && !isAnonymous()
+                && !name.endsWith("package-info") && !name.equals("module-info");
+    }
+
+    /**
+     * Check whether this class declares at least one public, non-static bean accessor or mutator. Inherited methods are
+     * not visible in the class file, so a class that only inherits its properties is not recognized.
+     *
+     * @return True if a bean accessor or mutator is declared.
+     */
+    public boolean declaresBeanMethods() {
+        for (Member method : methods) {
+            if (method.isBeanAccessor() || method.isBeanMutator()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<Member> getFields() {
+        return fields;
+    }
+
+    List<Member> getMethods() {
+        return methods;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * The parts of the constant pool needed to resolve the fields referenced by trivial methods.
+     */
+    private static final class ConstantPool {
+        private final String[] utf8;
+        private final int[] classNames;
+        private final int[] firsts;
+        private final int[] seconds;
+
+        private ConstantPool(String[] utf8, int[] classNames, int[] firsts, int[] seconds) {
+            this.utf8 = utf8;
+            this.classNames = classNames;
+            this.firsts = firsts;
+            this.seconds = seconds;
+        }
+
+        private FieldRef fieldRef(int index) {
+            if (index >= firsts.length || firsts[index] == 0) {
+                return null;
+            }
+            int nameAndType = seconds[index];
+            return new FieldRef(utf8[classNames[firsts[index]]].replace('/', '.'), utf8[firsts[nameAndType]],
+                    utf8[seconds[nameAndType]]);
+        }
+    }
+
+    /**
+     * A field as referenced by a getfield or putfield instruction: the class it is looked up in, which may be a
+     * subclass of the class declaring it, its name and its type descriptor.
+     */
+    static final class FieldRef {
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+
+        private FieldRef(String owner, String name, String descriptor) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        /**
+         * @return The binary name of the class the field is looked up in.
+         */
+        String getOwner() {
+            return owner;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDescriptor() {
+            return descriptor;
+        }
+    }
+
+    /**
+     * A field or method as declared in the class file.
+     */
+    static final class Member {
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final FieldRef gets;
+        private final FieldRef puts;
+
+        private Member(int access, String name, String descriptor, FieldRef gets, FieldRef puts) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.gets = gets;
+            this.puts = puts;
+        }
+
+        int getAccess() {
+            return access;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDescriptor() {
+            return descriptor;
+        }
+
+        boolean isStatic() {
+            return (access & ACC_STATIC) != 0;
+        }
+
+        /**
+         * @return The field of this that a method returns without doing anything else, or null.
+         */
+        FieldRef getTrivialGet() {
+            return gets;
+        }
+
+        /**
+         * @return The field of this that a method stores its only parameter in without doing anything else, or null.
+         */
+        FieldRef getTrivialPut() {
+            return puts;
+        }
+
+        boolean isBeanAccessor() {
+            if ((access & ACC_PUBLIC) == 0 || isStatic() || !descriptor.startsWith("()")) {
+                return false;
+            } else if (name.startsWith("get") && name.length() > 3) {
+                return !descriptor.endsWith(")V");
+            }
+            return name.startsWith("is") && name.length() > 2 && descriptor.equals("()Z");
+        }
+
+        boolean isBeanMutator() {
+            return (access & ACC_PUBLIC) != 0 && !isStatic() && name.startsWith("set") && name.length() > 3
+                    && descriptor.endsWith(")V") && singleParameter(descriptor);
+        }
+
+        private static boolean singleParameter(String descriptor) {
+            int end = descriptor.indexOf(')');
+            int i = 1;
+            while (i < end && descriptor.charAt(i) == '[') {
+                i++;
+            }
+            if (i >= end) {
+                return false;
+            } else if (descriptor.charAt(i) == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            return i + 1 == end;
+        }
+    }
+}
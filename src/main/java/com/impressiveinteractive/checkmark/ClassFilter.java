@@ -0,0 +1,15 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * Decides which scanned classes are checked by the bulk entry points like {@link CheckMark#testPackage(String)}. The
+ * decision is made on the {@link ClassFile} alone, before the class is loaded.
+ *
+ * @see ClassFilters
+ */
+public interface ClassFilter {
+    /**
+     * @param classFile The metadata of the scanned class.
+     * @return True if the class should be checked.
+     */
+    boolean accept(ClassFile classFile);
+}
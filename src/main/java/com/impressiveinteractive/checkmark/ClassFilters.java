@@ -0,0 +1,111 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Common {@link ClassFilter} implementations.
+ */
+public final class ClassFilters {
+    private ClassFilters() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    /**
+     * @return A filter accepting every class.
+     */
+    public static ClassFilter all() {
+        return new ClassFilter() {
+            @Override
+            public boolean accept(ClassFile classFile) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Accept {@link ClassFile#isConcrete() concrete} classes that either declare bean methods or extend a class other
+     * than {@link Object}, which may declare them instead. This is the default filter of the bulk entry points.
+     *
+     * @return The filter.
+     */
+    public static ClassFilter concreteBeans() {
+        return new ClassFilter() {
+            @Override
+            public boolean accept(ClassFile classFile) {
+                return classFile.isConcrete() && (classFile.declaresBeanMethods()
+                        || !Object.class.getName().equals(classFile.getSuperName()));
+            }
+        };
+    }
+
+    /**
+     * @param regex A regular expression that has to match the full binary class name.
+     * @return A filter accepting only classes with a matching name.
+     */
+    public static ClassFilter include(String regex) {
+        return include(Pattern.compile(regex));
+    }
+
+    /**
+     * @param pattern A pattern that has to match the full binary class name.
+     * @return A filter accepting only classes with a matching name.
+     */
+    public static ClassFilter include(final Pattern pattern) {
+        return new ClassFilter() {
+            @Override
+            public boolean accept(ClassFile classFile) {
+                return pattern.matcher(classFile.getName()).matches();
+            }
+        };
+    }
+
+    /**
+     * @param regex A regular expression that has to match the full binary class name.
+     * @return A filter rejecting classes with a matching name.
+     */
+    public static ClassFilter exclude(String regex) {
+        return not(include(regex));
+    }
+
+    /**
+     * @param pattern A pattern that has to match the full binary class name.
+     * @return A filter rejecting classes with a matching name.
+     */
+    public static ClassFilter exclude(Pattern pattern) {
+        return not(include(pattern));
+    }
+
+    /**
+     * @param filter The filter to invert.
+     * @return A filter accepting what the given filter rejects.
+     */
+    public static ClassFilter not(final ClassFilter filter) {
+        return new ClassFilter() {
+            @Override
+            public boolean accept(ClassFile classFile) {
+                return !filter.accept(classFile);
+            }
+        };
+    }
+
+    /**
+     * @param filters The filters to combine.
+     * @return A filter accepting only classes accepted by all of the given filters.
+     */
+    public static ClassFilter and(ClassFilter... filters) {
+        final Iterable<ClassFilter> all = asList(filters);
+        return new ClassFilter() {
+            @Override
+            public boolean accept(ClassFile classFile) {
+                for (ClassFilter filter : all) {
+                    if (!filter.accept(classFile)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+}
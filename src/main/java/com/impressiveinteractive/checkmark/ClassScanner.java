@@ -0,0 +1,175 @@
+package com.impressiveinteractive.checkmark;
+
+import java.beans.IntrospectionException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Enumeration;
+
+/**
+ * Finds classes by reading class files from directories and jars through NIO. Each class file is parsed into a
+ * {@link ClassFile} and handed to the {@link ClassFilter}; only accepted classes are loaded and passed on. Nothing is
+ * collected along the way, so memory use does not grow with the number of scanned classes.
+ */
+final class ClassScanner {
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String JAR_SEPARATOR = "!/";
+
+    private final ClassLoader loader;
+    private final ClassFilter filter;
+
+    /**
+     * @param loader The {@link ClassLoader} used to load accepted classes.
+     * @param filter The {@link ClassFilter} deciding which classes are loaded.
+     */
+    ClassScanner(ClassLoader loader, ClassFilter filter) {
+        this.loader = loader;
+        this.filter = filter;
+    }
+
+    /**
+     * Scan all classes in the given package and its sub packages, in every directory and jar the
+     * {@link ClassLoader} knows of.
+     *
+     * @param packageName The name of the package to scan.
+     * @param callback    The callback to pass the accepted classes to.
+     * @return The number of classes passed to the callback.
+     * @throws IOException                  Thrown when a directory, jar or class file could not be read.
+     * @throws IntrospectionException       Rethrown from the callback.
+     * @throws ReflectiveOperationException Thrown when an accepted class could not be loaded, or from the callback.
+     */
+    int scanPackage(String packageName, Callback callback)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        String path = packageName.replace('.', '/');
+        int count = 0;
+        Enumeration<URL> resources = loader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try {
+                if ("file".equals(resource.getProtocol())) {
+                    count += scan(Paths.get(resource.toURI()), callback);
+                } else if ("jar".equals(resource.getProtocol())) {
+                    String location = resource.toString();
+                    int separator = location.indexOf(JAR_SEPARATOR);
+                    Path jar = Paths.get(new URI(location.substring("jar:".length(), separator)));
+                    count += scanJar(jar, location.substring(separator + 1), callback);
+                }
+            } catch (URISyntaxException e) {
+                throw new IOException(String.format("Can not scan %s.", resource), e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Scan all classes in the given jar.
+     *
+     * @param jar      The jar to scan.
+     * @param callback The callback to pass the accepted classes to.
+     * @return The number of classes passed to the callback.
+     * @throws IOException                  Thrown when the jar could not be read.
+     * @throws IntrospectionException       Rethrown from the callback.
+     * @throws ReflectiveOperationException Thrown when an accepted class could not be loaded, or from the callback.
+     */
+    int scanJar(Path jar, Callback callback)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        return scanJar(jar, "/", callback);
+    }
+
+    private int scanJar(Path jar, String root, Callback callback)
+            throws IOException, IntrospectionException, ReflectiveOperationException {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar, (ClassLoader) null)) {
+            Path path = fileSystem.getPath(root);
+            return Files.exists(path) ? scan(path, callback) : 0;
+        }
+    }
+
+    /**
+     * Scan all classes in the given directory tree.
+     *
+     * @param root     The directory to scan.
+     * @param callback The callback to pass the accepted classes to.
+     * @return The number of classes passed to the callback.
+     * @throws IOException                  Thrown when a directory or class file could not be read.
+     * @throws IntrospectionException       Rethrown from the callback.
+     * @throws ReflectiveOperationException Thrown when an accepted class could not be loaded, or from the callback.
+     */
+    int scan(Path root, Callback callback) throws IOException, IntrospectionException, ReflectiveOperationException {
+        Visitor visitor = new Visitor(callback);
+        Files.walkFileTree(root, visitor);
+        if (visitor.introspectionFailure != null) {
+            throw visitor.introspectionFailure;
+        } else if (visitor.reflectionFailure != null) {
+            throw visitor.reflectionFailure;
+        }
+        return visitor.count;
+    }
+
+    /**
+     * Receives every class accepted by the {@link ClassFilter}.
+     */
+    interface Callback {
+        /**
+         * @param cls       The accepted class, loaded but not initialized.
+         * @param classFile The metadata the class was accepted on.
+         * @throws IntrospectionException       Passed on to the caller of the scan.
+         * @throws ReflectiveOperationException Passed on to the caller of the scan.
+         */
+        void found(Class<?> cls, ClassFile classFile) throws IntrospectionException, ReflectiveOperationException;
+    }
+
+    private final class Visitor extends SimpleFileVisitor<Path> {
+        private final Callback callback;
+        private int count;
+        private IntrospectionException introspectionFailure;
+        private ReflectiveOperationException reflectionFailure;
+
+        private Visitor(Callback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            Path name = dir.getFileName();
+            return name != null && name.toString().startsWith("META-INF")
+                    ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+            if (!attrs.isRegularFile() || !file.toString().endsWith(CLASS_EXTENSION)) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            ClassFile classFile;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                classFile = ClassFile.read(in);
+            }
+            if (!filter.accept(classFile)) {
+                return FileVisitResult.CONTINUE;
+            }
+
+            try {
+                callback.found(Class.forName(classFile.getName(), false, loader), classFile);
+                count++;
+                return FileVisitResult.CONTINUE;
+            } catch (IntrospectionException e) {
+                introspectionFailure = e;
+            } catch (ReflectiveOperationException e) {
+                reflectionFailure = e;
+            }
+            return FileVisitResult.TERMINATE;
+        }
+    }
+}
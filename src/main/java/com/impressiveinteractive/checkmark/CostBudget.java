@@ -0,0 +1,140 @@
+package com.impressiveinteractive.checkmark;
+
+import java.nio.file.Path;
+
+/**
+ * The limit {@link CheckMark#testEqualsAndHashCodeCost(Class, CostBudget)} holds the cost of equals and hashCode to,
+ * and {@link CheckMark#testCompareTo(Class, CostBudget)} the cost of compareTo.
+ * A budget is either an absolute number of nanoseconds per operation, or a baseline file with a tolerance.
+ * <p/>
+ * Baselines are stored relative to a fixed calibration workload that is measured in the same run, so that a baseline
+ * recorded on a developer machine is still meaningful on a CI machine of different speed. Classes missing from the
+ * baseline file are measured and added to it, as are all classes when the {@value #UPDATE_PROPERTY} system property is
+ * true. Commit the file to keep the baseline.
+ * <p/>
+ * <pre>
+ * CheckMark.testEqualsAndHashCodeCost(Key.class, CostBudget.baseline(Paths.get("src/test/resources/cost.properties")));
+ * </pre>
+ */
+public final class CostBudget {
+    /**
+     * The system property that, when true, makes baseline budgets overwrite the stored baselines instead of checking
+     * against them.
+     */
+    public static final String UPDATE_PROPERTY = "checkmark.updateBaselines";
+
+    private static final double DEFAULT_TOLERANCE = 3;
+    static final long DEFAULT_WARMUP_MILLIS = 50;
+    static final int DEFAULT_BATCHES = 11;
+
+    private final double maxNanos;
+    private final Path baseline;
+    private final double tolerance;
+    private final long warmupMillis;
+    private final int batches;
+
+    private CostBudget(double maxNanos, Path baseline, double tolerance, long warmupMillis, int batches) {
+        if (batches < 1) {
+            throw new IllegalArgumentException("At least one batch has to be measured.");
+        } else if (tolerance < 1) {
+            throw new IllegalArgumentException("The tolerance can not be lower than 1.");
+        }
+        this.maxNanos = maxNanos;
+        this.baseline = baseline;
+        this.tolerance = tolerance;
+        this.warmupMillis = warmupMillis;
+        this.batches = batches;
+    }
+
+    /**
+     * A budget of a fixed number of nanoseconds for every single equals, hashCode or compareTo call.
+     *
+     * @param nanos The maximum number of nanoseconds per call.
+     * @return The budget.
+     */
+    public static CostBudget maxNanos(double nanos) {
+        if (nanos <= 0) {
+            throw new IllegalArgumentException("The budget has to be positive.");
+        }
+        return new CostBudget(nanos, null, DEFAULT_TOLERANCE, DEFAULT_WARMUP_MILLIS, DEFAULT_BATCHES);
+    }
+
+    /**
+     * A budget of the stored baseline times the default tolerance of 3.
+     *
+     * @param file The properties file holding the baselines, which is created when it does not exist.
+     * @return The budget.
+     */
+    public static CostBudget baseline(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("The baseline file can not be null.");
+        }
+        return new CostBudget(0, file, DEFAULT_TOLERANCE, DEFAULT_WARMUP_MILLIS, DEFAULT_BATCHES);
+    }
+
+    /**
+     * @param tolerance The factor by which a call may be slower than its baseline, at least 1.
+     * @return A copy of this budget with the given tolerance.
+     */
+    public CostBudget withTolerance(double tolerance) {
+        return new CostBudget(maxNanos, baseline, tolerance, warmupMillis, batches);
+    }
+
+    /**
+     * @param warmupMillis The time spent calling each operation before it is measured.
+     * @return A copy of this budget with the given warm-up time.
+     */
+    public CostBudget withWarmupMillis(long warmupMillis) {
+        return new CostBudget(maxNanos, baseline, tolerance, warmupMillis, batches);
+    }
+
+    /**
+     * @param batches The number of timed batches per operation. The median batch is used.
+     * @return A copy of this budget with the given number of batches.
+     */
+    public CostBudget withBatches(int batches) {
+        return new CostBudget(maxNanos, baseline, tolerance, warmupMillis, batches);
+    }
+
+    /**
+     * @return The maximum number of nanoseconds per call, or 0 for a baseline budget.
+     */
+    public double getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The baseline file, or null for an absolute budget.
+     */
+    public Path getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * @return The factor by which a call may be slower than its baseline.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return The time spent calling each operation before it is measured.
+     */
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    /**
+     * @return The number of timed batches per operation.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    @Override
+    public String toString() {
+        return baseline == null
+                ? String.format("CostBudget[maxNanos=%s]", maxNanos)
+                : String.format("CostBudget[baseline=%s, tolerance=%s]", baseline, tolerance);
+    }
+}
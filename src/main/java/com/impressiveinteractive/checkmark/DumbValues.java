@@ -0,0 +1,309 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+
+/**
+ * The value generation behind {@link Reflection#dumbMock(Class, long)}. Every type is mapped once to a
+ * {@link Generator} through a {@link ClassValue}, so generating a value is a table lookup followed by a direct call
+ * instead of a chain of class comparisons.
+ * <p/>
+ * Primitives, their wrappers and strings are immutable, so their values are pooled per seed for the low seeds that
+ * {@link CheckMark} uses. Pools are filled on first use of a seed, and a racing fill on another thread may store
+ * another, equal instance. Callers that compare by identity, like the accessor and mutator checks, have to use
+ * {@link #checkValue(Class, CheckKind, long)}, which creates a new instance instead of taking one from the pool.
+ * <p/>
+ * Every generator yields different values for different seeds within the range of its type, which is what the
+ * equals check relies on when it compares the values for {@link CheckMark#SEED_ONE} and {@link CheckMark#SEED_TWO}.
+ */
+final class DumbValues {
+    static final int POOL_SIZE = 2048;
+
+    private static final ClassValue<Generator> GENERATORS = new ClassValue<Generator>() {
+        @Override
+        protected Generator computeValue(Class<?> type) {
+            return generatorFor(type);
+        }
+    };
+
+    private static final Generator BOOLEAN = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Boolean(booleanValue(seed));
+        }
+    };
+
+    private static final Generator BYTE = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Byte(byteValue(seed));
+        }
+    };
+
+    private static final Generator CHAR = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Character(charValue(seed));
+        }
+    };
+
+    private static final Generator SHORT = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Short(shortValue(seed));
+        }
+    };
+
+    private static final Generator INT = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Integer(intValue(seed));
+        }
+    };
+
+    private static final Generator LONG = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Long(seed);
+        }
+    };
+
+    private static final Generator FLOAT = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Float(floatValue(seed));
+        }
+    };
+
+    private static final Generator DOUBLE = new Pooled() {
+        @Override
+        @SuppressWarnings({"deprecation", "removal"})
+        Object create(long seed) {
+            return new Double(doubleValue(seed));
+        }
+    };
+
+    private static final Generator STRING = new Pooled() {
+        @Override
+        Object create(long seed) {
+            return new String(Long.toString(seed));
+        }
+    };
+
+    private static final Generator ARRAY = new Generator() {
+        @Override
+        Object value(Class<?> type, long seed) {
+            return Array.newInstance(type.getComponentType(), 0);
+        }
+    };
+
+    private static final Generator INSTANCE = new Generator() {
+        @Override
+        Object value(Class<?> type, long seed) throws ReflectiveOperationException {
+            return InstanceGraph.nested(type, seed);
+        }
+    };
+
+    private static final Generator SENTINEL = new Generator() {
+        @Override
+        Object value(Class<?> type, long seed) throws ReflectiveOperationException {
+            return Sentinels.sentinel(type, seed);
+        }
+
+        @Override
+        Object checkValue(Class<?> type, CheckKind check, long seed) throws ReflectiveOperationException {
+            return Sentinels.checkValue(type, check, seed);
+        }
+    };
+
+    private DumbValues() {
+        throw new AssertionError("Private constructor called");
+    }
+
+    /**
+     * @param type The type to generate a value for.
+     * @param seed The seed influencing the value.
+     * @return The value.
+     * @throws ReflectiveOperationException Thrown when an instance of a final type could not be created.
+     * @see Reflection#dumbMock(Class, long)
+     */
+    static Object value(Class<?> type, long seed) throws ReflectiveOperationException {
+        return GENERATORS.get(type).value(type, seed);
+    }
+
+    /**
+     * @param type  The type to generate a value for.
+     * @param check The check the value is passed by.
+     * @param seed  The seed influencing the value.
+     * @return A value like {@link #value(Class, long)} returns, but not the same instance as any value it returns,
+     * where the type allows that.
+     * @throws ReflectiveOperationException Thrown when an instance of a final type could not be created.
+     * @see Reflection#checkValue(Class, CheckKind, long)
+     */
+    static Object checkValue(Class<?> type, CheckKind check, long seed) throws ReflectiveOperationException {
+        return GENERATORS.get(type).checkValue(type, check, seed);
+    }
+
+    /**
+     * @param type  The type the value was generated for.
+     * @param seed  The seed the value was generated with.
+     * @param value The value {@link #value(Class, long)} returned.
+     * @return An equal value, which is a new instance for strings and boxed primitives. Other values are only equal to
+     * themselves or are not known to be equal when created twice, so the value itself is returned.
+     * @see Reflection#equalDumbMock(Class, long, Object)
+     */
+    static Object copy(Class<?> type, long seed, Object value) {
+        return GENERATORS.get(type).copy(seed, value);
+    }
+
+    /**
+     * @param type The type to check.
+     * @return True for primitives, their wrappers, strings, arrays and enumerations, whose dumb mocks are plain values
+     * rather than instances or sentinels.
+     */
+    static boolean isValueType(Class<?> type) {
+        Generator generator = GENERATORS.get(type);
+        return generator instanceof Pooled || generator instanceof EnumConstants || generator == ARRAY;
+    }
+
+    static boolean booleanValue(long seed) {
+        return (seed & 1) != 0;
+    }
+
+    static byte byteValue(long seed) {
+        return (byte) seed;
+    }
+
+    static char charValue(long seed) {
+        return (char) (seed % 0x10000);
+    }
+
+    static short shortValue(long seed) {
+        return (short) seed;
+    }
+
+    static int intValue(long seed) {
+        return (int) seed;
+    }
+
+    static float floatValue(long seed) {
+        return (float) seed;
+    }
+
+    static double doubleValue(long seed) {
+        return (double) seed;
+    }
+
+    private static Generator generatorFor(Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE;
+        } else if (type == char.class || type == Character.class) {
+            return CHAR;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT;
+        } else if (type == int.class || type == Integer.class) {
+            return INT;
+        } else if (type == long.class || type == Long.class) {
+            return LONG;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE;
+        } else if (type.isPrimitive()) {
+            throw new IllegalArgumentException(String.format("Not a known primitive: %s", type));
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type.isArray()) {
+            return ARRAY;
+        } else if (type.isEnum()) {
+            return new EnumConstants(type.getEnumConstants());
+        } else if (Modifier.isFinal(type.getModifiers())) {
+            return INSTANCE;
+        }
+        return SENTINEL;
+    }
+
+    private abstract static class Generator {
+        abstract Object value(Class<?> type, long seed) throws ReflectiveOperationException;
+
+        /**
+         * Generators that hand out shared instances override this to return another one.
+         */
+        Object checkValue(Class<?> type, CheckKind check, long seed) throws ReflectiveOperationException {
+            return value(type, seed);
+        }
+
+        /**
+         * Generators of values that stay equal when created again override this to create a new one.
+         */
+        Object copy(long seed, Object value) {
+            return value;
+        }
+    }
+
+    /**
+     * Keeps the values of the seeds 0 up to {@link #POOL_SIZE} once created. Other seeds, and every call to
+     * {@link #checkValue(Class, CheckKind, long)}, create a new value.
+     */
+    private abstract static class Pooled extends Generator {
+        private final Object[] pool = new Object[POOL_SIZE];
+
+        @Override
+        final Object value(Class<?> type, long seed) {
+            if (seed < 0 || seed >= POOL_SIZE) {
+                return create(seed);
+            }
+            Object value = pool[(int) seed];
+            if (value == null) {
+                value = create(seed);
+                pool[(int) seed] = value;
+            }
+            return value;
+        }
+
+        @Override
+        final Object checkValue(Class<?> type, CheckKind check, long seed) {
+            return create(seed);
+        }
+
+        @Override
+        final Object copy(long seed, Object value) {
+            return create(seed);
+        }
+
+        /**
+         * Create the value, which must be a new instance on every call. Wrappers are created with their constructors
+         * rather than valueOf, which hands out cached instances for small values.
+         */
+        abstract Object create(long seed);
+    }
+
+    /**
+     * Picks one of the constants of an enumeration, read once when the enumeration is first used.
+     */
+    private static final class EnumConstants extends Generator {
+        private final Object[] constants;
+
+        private EnumConstants(Object[] constants) {
+            this.constants = constants;
+        }
+
+        @Override
+        Object value(Class<?> type, long seed) {
+            if (constants.length == 0) {
+                throw new IllegalArgumentException(
+                        String.format("Enumeration %s has no constants to choose from.", type));
+            }
+            return constants[(int) ((seed & Long.MAX_VALUE) % constants.length)];
+        }
+    }
+}
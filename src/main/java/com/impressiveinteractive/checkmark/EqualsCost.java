@@ -0,0 +1,338 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Measures the cost of equals, hashCode and compareTo of a class without a separate benchmark harness. Each operation
+ * is called in a loop that is first warmed up and sized so that a batch takes about half a millisecond, after which a
+ * number of batches are timed and the median is used. A fixed calibration workload is measured the same way, so that
+ * costs can be compared between machines.
+ * <p/>
+ * Instances are built like {@link CheckMark#testEqualsAndHashCode(Class)} builds them, except that the instances hold
+ * {@link CheckMark#setFieldsToEqualValues(Class, Object, Object...) equal values that are not the same instance}, so
+ * that equals can not skip a deep compare of, for example, two strings. The unequal pairs differ in a single field
+ * each, so equals has to look at the fields before returning false. CompareTo is timed on the unequal
+ * pairs and the equal pair together, like a sort mostly compares distinct keys.
+ */
+final class EqualsCost {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EqualsCost.class);
+
+    private static final long TARGET_BATCH_NANOS = 500000L;
+    private static final int MAX_OPERATIONS = 1 << 30;
+    private static final Object BASELINE_FILES = new Object();
+
+    private static final String BUDGET_MESSAGE = "%s of %s takes %.1f ns per call, the budget is %.1f ns.";
+    private static final String BASELINE_MESSAGE =
+            "%s of %s takes %.2f times the calibration workload (%.1f ns per call), which is %.1f times its baseline "
+                    + "of %.2f; at most %.1f times is allowed.";
+
+    /**
+     * Keeps the JIT from removing the measured calls.
+     */
+    private static volatile int sink;
+
+    /**
+     * The measured operations, named as they appear in the baseline file.
+     */
+    enum Operation {
+        EQUAL("equal", CheckKind.EQUALS_AND_HASH_CODE),
+        UNEQUAL("unequal", CheckKind.EQUALS_AND_HASH_CODE),
+        HASH_CODE("hashCode", CheckKind.EQUALS_AND_HASH_CODE),
+        COMPARE_TO("compareTo", CheckKind.COMPARE_TO);
+
+        private final String key;
+        private final CheckKind check;
+
+        Operation(String key, CheckKind check) {
+            this.key = key;
+            this.check = check;
+        }
+    }
+
+    /**
+     * The operations measured by {@link CheckMark#testEqualsAndHashCodeCost(Class, CostBudget)}.
+     */
+    static final Set<Operation> EQUALS_AND_HASH_CODE =
+            Collections.unmodifiableSet(EnumSet.of(Operation.EQUAL, Operation.UNEQUAL, Operation.HASH_CODE));
+
+    private final Class<?> type;
+    private final double[] nanos;
+    private final double calibrationNanos;
+
+    private EqualsCost(Class<?> type, double[] nanos, double calibrationNanos) {
+        this.type = type;
+        this.nanos = nanos;
+        this.calibrationNanos = calibrationNanos;
+    }
+
+    /**
+     * Build the instances and measure the equals and hashCode operations on them.
+     *
+     * @param cls    The class to measure.
+     * @param budget The budget, which decides the warm-up time and number of batches.
+     * @return The measurements.
+     * @throws ReflectiveOperationException Thrown when the instances could not be created or their fields set.
+     */
+    static EqualsCost measure(Class<?> cls, CostBudget budget) throws ReflectiveOperationException {
+        return measure(cls, budget, EQUALS_AND_HASH_CODE);
+    }
+
+    /**
+     * Build the instances and measure the given operations on them.
+     *
+     * @param cls        The class to measure, which has to be {@link Comparable} to measure compareTo.
+     * @param budget     The budget, which decides the warm-up time and number of batches.
+     * @param operations The operations to measure. The others are not a number.
+     * @return The measurements.
+     * @throws ReflectiveOperationException Thrown when the instances could not be created or their fields set.
+     */
+    @SuppressWarnings("unchecked")
+    static EqualsCost measure(Class<?> cls, CostBudget budget, Set<Operation> operations)
+            throws ReflectiveOperationException {
+        final Object instanceA = Reflection.createInstance(cls);
+        final Object instanceB = Reflection.createInstance(cls);
+        List<Field> fields = new ArrayList<>();
+        List<Object> unequal = new ArrayList<>();
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+                unequal.add(Reflection.createInstance(cls));
+            }
+        }
+        List<Object> copies = new ArrayList<>(unequal);
+        copies.add(instanceB);
+        CheckMark.setFieldsToEqualValues(cls, instanceA, copies.toArray());
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            field.set(unequal.get(i), Reflection.dumbMock(field.getType(), CheckMark.SEED_TWO));
+        }
+        List<Object> compared = new ArrayList<>(unequal);
+        compared.add(instanceB);
+        final Object[] ordered = compared.toArray();
+        if (unequal.isEmpty()) {
+            unequal.add(new Object());
+        }
+        final Object[] others = unequal.toArray();
+
+        double[] nanos = new double[Operation.values().length];
+        Arrays.fill(nanos, Double.NaN);
+        if (operations.contains(Operation.EQUAL)) {
+            nanos[Operation.EQUAL.ordinal()] = nanosPerCall(new Workload() {
+                @Override
+                int run(int i) {
+                    return instanceA.equals(instanceB) ? 1 : 0;
+                }
+            }, budget);
+        }
+        if (operations.contains(Operation.UNEQUAL)) {
+            nanos[Operation.UNEQUAL.ordinal()] = nanosPerCall(new Workload() {
+                @Override
+                int run(int i) {
+                    return instanceA.equals(others[i % others.length]) ? 1 : 0;
+                }
+            }, budget);
+        }
+        if (operations.contains(Operation.HASH_CODE)) {
+            nanos[Operation.HASH_CODE.ordinal()] = nanosPerCall(new Workload() {
+                @Override
+                int run(int i) {
+                    return instanceA.hashCode();
+                }
+            }, budget);
+        }
+        if (operations.contains(Operation.COMPARE_TO)) {
+            final Comparable<Object> comparable = (Comparable<Object>) instanceA;
+            nanos[Operation.COMPARE_TO.ordinal()] = nanosPerCall(new Workload() {
+                @Override
+                int run(int i) {
+                    return comparable.compareTo(ordered[i % ordered.length]);
+                }
+            }, budget);
+        }
+        return new EqualsCost(cls, nanos, calibrate(budget));
+    }
+
+    /**
+     * @param operation The operation.
+     * @return The median number of nanoseconds per call of the operation, or not a number if it was not measured.
+     */
+    double getNanos(Operation operation) {
+        return nanos[operation.ordinal()];
+    }
+
+    /**
+     * @param operation The operation.
+     * @return The cost of the operation relative to the calibration workload.
+     */
+    double getRelativeCost(Operation operation) {
+        return nanos[operation.ordinal()] / calibrationNanos;
+    }
+
+    /**
+     * Fail when any measured operation exceeds the budget. Baselines that are missing, or all baselines when
+     * {@value CostBudget#UPDATE_PROPERTY} is set, are stored instead.
+     *
+     * @param budget The budget to hold the measurements to.
+     * @throws IOException Thrown when the baseline file could not be read or written.
+     */
+    void check(CostBudget budget) throws IOException {
+        if (budget.getBaseline() == null) {
+            for (Operation operation : Operation.values()) {
+                // False for operations that were not measured
+                if (getNanos(operation) > budget.getMaxNanos()) {
+                    throw failure(operation, BUDGET_MESSAGE, operation.key, type.getCanonicalName(),
+                            getNanos(operation), budget.getMaxNanos());
+                }
+            }
+            return;
+        }
+
+        boolean update = Boolean.getBoolean(CostBudget.UPDATE_PROPERTY);
+        synchronized (BASELINE_FILES) {
+            Properties baselines = load(budget.getBaseline());
+            boolean changed = false;
+            for (Operation operation : Operation.values()) {
+                if (Double.isNaN(getNanos(operation))) {
+                    continue;
+                }
+                String key = type.getName() + '.' + operation.key;
+                String stored = baselines.getProperty(key);
+                if (update || stored == null) {
+                    baselines.setProperty(key, String.format(Locale.ROOT, "%.4f", getRelativeCost(operation)));
+                    changed = true;
+                    continue;
+                }
+                double baseline = Double.parseDouble(stored);
+                double factor = getRelativeCost(operation) / baseline;
+                if (factor > budget.getTolerance()) {
+                    throw failure(operation, BASELINE_MESSAGE, operation.key, type.getCanonicalName(),
+                            getRelativeCost(operation), getNanos(operation), factor, baseline,
+                            budget.getTolerance());
+                }
+            }
+            if (changed) {
+                LOGGER.info("Storing cost baselines of {} in {}.", type.getName(), budget.getBaseline());
+                store(budget.getBaseline(), baselines);
+            }
+        }
+    }
+
+    private CheckFailure failure(Operation operation, String format, Object... arguments) {
+        return CheckMark.failure(CheckResult.failed(type, operation.check, null, Reflection.DEFAULT_SEED, null, format,
+                arguments));
+    }
+
+    private static double calibrate(CostBudget budget) {
+        final int[] data = new int[16];
+        return nanosPerCall(new Workload() {
+            @Override
+            int run(int i) {
+                data[i & 15] = i;
+                return Arrays.hashCode(data);
+            }
+        }, budget);
+    }
+
+    private static double nanosPerCall(Workload workload, CostBudget budget) {
+        return nanosPerCall(workload, budget.getWarmupMillis(), budget.getBatches());
+    }
+
+    /**
+     * Warm up the workload and size its batches so that a batch takes about half a millisecond, then time the given
+     * number of batches.
+     *
+     * @param workload     The workload to time.
+     * @param warmupMillis The minimum time to spend warming up.
+     * @param batches      The number of timed batches.
+     * @return The median number of nanoseconds per call of the workload.
+     */
+    static double nanosPerCall(Workload workload, long warmupMillis, int batches) {
+        int operations = 1;
+        long deadline = System.nanoTime() + warmupMillis * 1000000L;
+        while (true) {
+            long elapsed = batch(workload, operations);
+            if (elapsed < TARGET_BATCH_NANOS && operations < MAX_OPERATIONS) {
+                operations <<= 1;
+            } else if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        double[] samples = new double[batches];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (double) batch(workload, operations) / operations;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static long batch(Workload workload, int operations) {
+        int result = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            result += workload.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += result;
+        return elapsed;
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Write the baselines sorted by key, so that the file diffs well, through a temporary file that replaces the
+     * original at once.
+     */
+    private static void store(Path file, Properties baselines) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("# Cost of equals, hashCode and compareTo relative to the CheckMark calibration "
+                        + "workload.\n");
+                for (String key : new TreeSet<>(baselines.stringPropertyNames())) {
+                    writer.write(key + '=' + baselines.getProperty(key) + '\n');
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * A single timed call. The result is summed into a sink, so that the JIT can not remove the call.
+     */
+    abstract static class Workload {
+        abstract int run(int i);
+    }
+}
@@ -0,0 +1,203 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Advice on the order in which {@link Object#equals(Object)} of a class compares its fields, as returned by
+ * {@link CheckMark#adviseEqualsFieldOrder(Class)}.
+ * <p/>
+ * Like the equals check, the advisor changes one field at a time and calls equals, but here each call is timed. An
+ * equals that short-circuits stops at the first field that differs, so the time it takes to notice a difference in a
+ * field is the cost of all comparisons that run before it. Sorting the fields by that time gives the order in which
+ * equals compares them. It is compared to the time equals takes to reject a {@code new Object()}, which involves no
+ * field comparison at all.
+ * <p/>
+ * Primitive and enumeration fields are compared by a single instruction. When noticing a difference in one of them
+ * takes clearly longer than rejecting a {@code new Object()}, by at least half of what the cheapest of the other fields
+ * adds to it, costlier comparisons run before it and reordering is advised: cheap fields first, then the others in
+ * the order they are compared now. Equal fields hold
+ * {@link CheckMark#setFieldsToEqualValues(Class, Object, Object...) equal values that are not the same instance}, like
+ * {@link CheckMark#testEqualsAndHashCodeCost(Class, CostBudget)} uses, so that their comparisons are not cut short by
+ * an identity check.
+ */
+public final class EqualsOrderAdvice {
+    /**
+     * A difference that takes less extra time than this to notice is not worth reordering for.
+     */
+    static final double MIN_SAVING_NANOS = 10;
+
+    private static final String ADVICE_MESSAGE = "Equals of %s compares costly fields before cheap ones: a difference "
+            + "in %s is only noticed after %.1f ns, while rejecting a new Object() takes %.1f ns. Compare the fields "
+            + "in this order: %s.";
+    private static final String NO_ADVICE_MESSAGE = "Equals of %s compares its cheap fields first.";
+
+    private final Class<?> type;
+    private final double baselineNanos;
+    private final Map<String, Double> nanos;
+    private final List<String> suggestedOrder;
+    private final String slowestCheapField;
+
+    private EqualsOrderAdvice(Class<?> type, double baselineNanos, Map<String, Double> nanos,
+                              List<String> suggestedOrder, String slowestCheapField) {
+        this.type = type;
+        this.baselineNanos = baselineNanos;
+        this.nanos = Collections.unmodifiableMap(nanos);
+        this.suggestedOrder = Collections.unmodifiableList(suggestedOrder);
+        this.slowestCheapField = slowestCheapField;
+    }
+
+    /**
+     * Time equals for a difference in every instance field.
+     *
+     * @param cls          The class to measure.
+     * @param warmupMillis The time to warm up every timed call.
+     * @param batches      The number of timed batches per call.
+     * @return The advice.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     */
+    static EqualsOrderAdvice measure(Class<?> cls, long warmupMillis, int batches)
+            throws ReflectiveOperationException {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+            }
+        }
+
+        final Object instance = Reflection.createInstance(cls);
+        Object[] others = new Object[fields.size()];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = Reflection.createInstance(cls);
+        }
+        CheckMark.setFieldsToEqualValues(cls, instance, others);
+
+        final Map<String, Double> measured = new LinkedHashMap<>();
+        final List<Field> cheap = new ArrayList<>();
+        final List<Field> costly = new ArrayList<>();
+        for (int i = 0; i < others.length; i++) {
+            Field field = fields.get(i);
+            final Object other = others[i];
+            field.set(other, Reflection.dumbMock(field.getType(), CheckMark.SEED_TWO));
+            if (instance.equals(other)) {
+                // Ignored by equals, which the equals check reports
+                continue;
+            }
+            measured.put(field.getName(), EqualsCost.nanosPerCall(new EqualsCost.Workload() {
+                @Override
+                int run(int i) {
+                    return instance.equals(other) ? 1 : 0;
+                }
+            }, warmupMillis, batches));
+            Class<?> fieldType = field.getType();
+            (fieldType.isPrimitive() || fieldType.isEnum() ? cheap : costly).add(field);
+        }
+
+        final Object stranger = new Object();
+        double baseline = EqualsCost.nanosPerCall(new EqualsCost.Workload() {
+            @Override
+            int run(int i) {
+                return instance.equals(stranger) ? 1 : 0;
+            }
+        }, warmupMillis, batches);
+
+        Map<String, Double> nanos = sorted(measured);
+        Comparator<Field> byNanos = new Comparator<Field>() {
+            @Override
+            public int compare(Field a, Field b) {
+                return Double.compare(measured.get(a.getName()), measured.get(b.getName()));
+            }
+        };
+        Collections.sort(cheap, byNanos);
+        Collections.sort(costly, byNanos);
+        // Scaled to the costly comparisons, so that noise on the few nanoseconds of a cheap one is no reason to reorder
+        double threshold = costly.isEmpty() ? Double.MAX_VALUE : baseline
+                + Math.max(MIN_SAVING_NANOS, (measured.get(costly.get(0).getName()) - baseline) / 2);
+        List<String> suggested = new ArrayList<>();
+        String slowestCheapField = null;
+        for (Field field : cheap) {
+            suggested.add(field.getName());
+            if (measured.get(field.getName()) > threshold) {
+                slowestCheapField = field.getName();
+            }
+        }
+        for (Field field : costly) {
+            suggested.add(field.getName());
+        }
+        return new EqualsOrderAdvice(cls, baseline, nanos, suggested, slowestCheapField);
+    }
+
+    /**
+     * @return True if cheap fields are compared after costlier ones and should be moved forward.
+     */
+    public boolean isReorderingAdvised() {
+        return slowestCheapField != null;
+    }
+
+    /**
+     * @return The fields in the order equals compares them, as far as can be told from the timings.
+     */
+    public List<String> getObservedOrder() {
+        return Collections.unmodifiableList(new ArrayList<>(nanos.keySet()));
+    }
+
+    /**
+     * @return The fields in the order equals should compare them: primitives and enumerations first.
+     */
+    public List<String> getSuggestedOrder() {
+        return suggestedOrder;
+    }
+
+    /**
+     * @return The median number of nanoseconds equals takes to notice a difference, by field name, in the observed
+     * order. Fields that equals ignores are left out.
+     */
+    public Map<String, Double> getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return The median number of nanoseconds equals takes to reject a {@code new Object()}.
+     */
+    public double getBaselineNanos() {
+        return baselineNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (!isReorderingAdvised()) {
+            return String.format(NO_ADVICE_MESSAGE, type.getCanonicalName());
+        }
+        StringBuilder order = new StringBuilder();
+        for (String field : suggestedOrder) {
+            if (order.length() > 0) {
+                order.append(", ");
+            }
+            order.append(field);
+        }
+        return String.format(Locale.ROOT, ADVICE_MESSAGE, type.getCanonicalName(), slowestCheapField,
+                nanos.get(slowestCheapField), baselineNanos, order);
+    }
+
+    private static Map<String, Double> sorted(final Map<String, Double> nanos) {
+        List<String> names = new ArrayList<>(nanos.keySet());
+        Collections.sort(names, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return Double.compare(nanos.get(a), nanos.get(b));
+            }
+        });
+        Map<String, Double> sorted = new LinkedHashMap<>();
+        for (String name : names) {
+            sorted.put(name, nanos.get(name));
+        }
+        return sorted;
+    }
+}
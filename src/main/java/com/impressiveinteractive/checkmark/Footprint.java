@@ -0,0 +1,337 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The estimated heap footprint of the instances of a class, as returned by {@link CheckMark#analyzeFootprint(Class)}.
+ * <p/>
+ * The shallow size is estimated from the field types under an {@link ObjectLayout}, the way HotSpot lays out fields
+ * since JDK 15: superclass fields first, larger fields before smaller ones, every field aligned to its own size, and
+ * gaps left by alignment filled by later fields that fit. The JVM is free to do otherwise, so the figures are estimates
+ * that are usually exact.
+ * <p/>
+ * Two kinds of waste are pointed out: padding, the bytes that hold no field at all, and wrapper fields like
+ * {@link Integer} that could be primitives. A wrapper field costs a reference plus, for every value that is not cached
+ * by {@code valueOf}, an object of its own.
+ * <p/>
+ * The retained size adds up all objects reachable from an instance built by {@link Reflection#createInstance(Class)}.
+ * Enumeration constants and classes are shared and not counted. Mocks, sentinels and objects whose fields can not be
+ * read are counted with their shallow size only.
+ */
+public final class Footprint {
+    private static final String BUDGET_MESSAGE = "Instances of %s take %d bytes under %s, at most %d is allowed.%s";
+    private static final String SUMMARY_MESSAGE = "Instances of %s take %d bytes under %s: %d header, %d fields and %d "
+            + "padding. An instance built by createInstance retains %d bytes in %d objects.";
+    private static final String FIELD_MESSAGE = "%n  %4d %3d %s";
+    private static final String PADDING_MESSAGE = " %d of %d bytes are padding, reordering or narrowing fields may "
+            + "save up to %d bytes per instance.";
+    private static final String BOXED_MESSAGE =
+            " Field %s of type %s could be the primitive %s, saving up to %d bytes per instance.";
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        PRIMITIVES.put(Boolean.class, boolean.class);
+        PRIMITIVES.put(Byte.class, byte.class);
+        PRIMITIVES.put(Character.class, char.class);
+        PRIMITIVES.put(Short.class, short.class);
+        PRIMITIVES.put(Integer.class, int.class);
+        PRIMITIVES.put(Float.class, float.class);
+        PRIMITIVES.put(Long.class, long.class);
+        PRIMITIVES.put(Double.class, double.class);
+    }
+
+    private final Class<?> type;
+    private final ObjectLayout layout;
+    private final FieldLayout fields;
+    private final Map<String, Long> boxedSavings;
+    private final long retainedBytes;
+    private final int retainedObjects;
+
+    private Footprint(Class<?> type, ObjectLayout layout, FieldLayout fields, Map<String, Long> boxedSavings,
+                      long retainedBytes, int retainedObjects) {
+        this.type = type;
+        this.layout = layout;
+        this.fields = fields;
+        this.boxedSavings = Collections.unmodifiableMap(boxedSavings);
+        this.retainedBytes = retainedBytes;
+        this.retainedObjects = retainedObjects;
+    }
+
+    /**
+     * Estimate the footprint of the given class.
+     *
+     * @param cls    The class to analyze.
+     * @param layout The layout to estimate the sizes under.
+     * @return The footprint.
+     * @throws ReflectiveOperationException Thrown when no instance could be created.
+     */
+    static Footprint measure(Class<?> cls, ObjectLayout layout) throws ReflectiveOperationException {
+        Map<Class<?>, FieldLayout> layouts = new HashMap<>();
+        FieldLayout fields = layout(cls, layout, layouts);
+
+        Map<String, Long> boxedSavings = new LinkedHashMap<>();
+        for (Field field : fields.offsets.keySet()) {
+            Class<?> primitive = PRIMITIVES.get(field.getType());
+            if (primitive != null) {
+                int size = layout.sizeOf(primitive);
+                long box = ObjectLayout.align(layout.getHeaderBytes() + size, ObjectLayout.ALIGNMENT);
+                boxedSavings.put(field.getName(), layout.getReferenceBytes() + box - size);
+            }
+        }
+
+        Object root = Reflection.createInstance(cls);
+        Map<Object, Boolean> seen = new IdentityHashMap<>();
+        Deque<Object> pending = new ArrayDeque<>();
+        seen.put(root, Boolean.TRUE);
+        pending.push(root);
+        long retained = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            Class<?> objectType = object.getClass();
+            if (objectType.isArray()) {
+                int length = Array.getLength(object);
+                retained += layout.arraySize(objectType, length);
+                if (!objectType.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < length; i++) {
+                        visit(Array.get(object, i), seen, pending);
+                    }
+                }
+                continue;
+            }
+
+            FieldLayout objectFields = layout(objectType, layout, layouts);
+            retained += objectFields.size;
+            if (Sentinels.isSentinel(object)) {
+                continue;
+            }
+            try {
+                for (Field field : objectFields.offsets.keySet()) {
+                    if (!field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        visit(field.get(object), seen, pending);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Fields of a module that is not open to us, count the object itself only
+            }
+        }
+        return new Footprint(cls, layout, fields, boxedSavings, retained, seen.size());
+    }
+
+    /**
+     * Fail when an instance takes more than the given number of bytes.
+     *
+     * @param maxBytes The highest allowed shallow size.
+     */
+    void check(long maxBytes) {
+        if (getShallowBytes() > maxBytes) {
+            throw CheckMark.failure(CheckResult.failed(type, CheckKind.FOOTPRINT, null, Reflection.DEFAULT_SEED, null,
+                    BUDGET_MESSAGE, type.getCanonicalName(), getShallowBytes(), layout, maxBytes, advice()));
+        }
+    }
+
+    /**
+     * @return The layout the sizes are estimated under.
+     */
+    public ObjectLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return The estimated number of bytes a single instance takes, without the objects it refers to.
+     */
+    public long getShallowBytes() {
+        return fields.size;
+    }
+
+    /**
+     * @return The number of bytes the instance fields take, including those of superclasses.
+     */
+    public long getFieldBytes() {
+        return fields.fieldBytes;
+    }
+
+    /**
+     * @return The number of bytes of an instance that hold neither header nor field.
+     */
+    public long getPaddingBytes() {
+        return getShallowBytes() - layout.getHeaderBytes() - getFieldBytes();
+    }
+
+    /**
+     * @return The offset of every instance field, including synthetic ones, by field name in offset order.
+     */
+    public Map<String, Long> getOffsets() {
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        for (Map.Entry<Field, Long> entry : fields.offsets.entrySet()) {
+            offsets.put(entry.getKey().getName(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(offsets);
+    }
+
+    /**
+     * @return The wrapper fields that could be primitives, with the number of bytes per instance that would save when
+     * none of the values is cached by {@code valueOf}.
+     */
+    public Map<String, Long> getBoxedSavings() {
+        return boxedSavings;
+    }
+
+    /**
+     * @return The estimated number of bytes of all objects reachable from an instance built by
+     * {@link Reflection#createInstance(Class)}, including the instance itself.
+     */
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /**
+     * @return The number of objects counted in {@link #getRetainedBytes()}.
+     */
+    public int getRetainedObjects() {
+        return retainedObjects;
+    }
+
+    /**
+     * @return A report of the sizes, one line per field with its offset and size, followed by the waste found.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(SUMMARY_MESSAGE, type.getCanonicalName(),
+                getShallowBytes(), layout, layout.getHeaderBytes(), getFieldBytes(), getPaddingBytes(),
+                retainedBytes, retainedObjects));
+        for (Map.Entry<Field, Long> entry : fields.offsets.entrySet()) {
+            Field field = entry.getKey();
+            report.append(String.format(FIELD_MESSAGE, entry.getValue(), layout.sizeOf(field.getType()),
+                    field.getType().getSimpleName() + ' ' + field.getName()));
+        }
+        return report.append(advice()).toString();
+    }
+
+    private String advice() {
+        StringBuilder advice = new StringBuilder();
+        long ideal = ObjectLayout.align(layout.getHeaderBytes() + getFieldBytes(), ObjectLayout.ALIGNMENT);
+        if (getShallowBytes() > ideal) {
+            advice.append(String.format(PADDING_MESSAGE, getPaddingBytes(), getShallowBytes(),
+                    getShallowBytes() - ideal));
+        }
+        for (Field field : fields.offsets.keySet()) {
+            Long saving = boxedSavings.get(field.getName());
+            if (saving != null) {
+                advice.append(String.format(BOXED_MESSAGE, field.getName(), field.getType().getSimpleName(),
+                        PRIMITIVES.get(field.getType()), saving));
+            }
+        }
+        return advice.toString();
+    }
+
+    private static void visit(Object value, Map<Object, Boolean> seen, Deque<Object> pending) {
+        if (value != null && !(value instanceof Class) && !(value instanceof Enum)
+                && seen.put(value, Boolean.TRUE) == null) {
+            pending.push(value);
+        }
+    }
+
+    private static FieldLayout layout(Class<?> cls, ObjectLayout layout, Map<Class<?>, FieldLayout> layouts) {
+        FieldLayout fields = layouts.get(cls);
+        if (fields == null) {
+            fields = new FieldLayout(cls, layout);
+            layouts.put(cls, fields);
+        }
+        return fields;
+    }
+
+    /**
+     * The offsets of all instance fields of a class, superclass fields first. Unlike
+     * {@link Reflection#getFields(Class)} this includes synthetic fields, like the reference of an inner class to its
+     * outer instance, since they take space as well.
+     */
+    private static final class FieldLayout {
+        private final Map<Field, Long> offsets = new LinkedHashMap<>();
+        private final long size;
+        private long fieldBytes;
+
+        private FieldLayout(Class<?> cls, final ObjectLayout layout) {
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> current = cls; current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+
+            // Free ranges before the end of the fields so far, as pairs of start and end
+            List<long[]> gaps = new ArrayList<>();
+            long end = layout.getHeaderBytes();
+            final Map<Field, Long> placed = new HashMap<>();
+            for (Class<?> current : hierarchy) {
+                List<Field> declared = new ArrayList<>();
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        declared.add(field);
+                    }
+                }
+                Collections.sort(declared, new Comparator<Field>() {
+                    @Override
+                    public int compare(Field a, Field b) {
+                        return layout.sizeOf(b.getType()) - layout.sizeOf(a.getType());
+                    }
+                });
+                for (Field field : declared) {
+                    int size = layout.sizeOf(field.getType());
+                    fieldBytes += size;
+                    Long offset = fill(gaps, size);
+                    if (offset == null) {
+                        offset = ObjectLayout.align(end, size);
+                        if (offset > end) {
+                            gaps.add(new long[]{end, offset});
+                        }
+                        end = offset + size;
+                    }
+                    placed.put(field, offset);
+                }
+            }
+            this.size = ObjectLayout.align(end, ObjectLayout.ALIGNMENT);
+
+            List<Field> byOffset = new ArrayList<>(placed.keySet());
+            Collections.sort(byOffset, new Comparator<Field>() {
+                @Override
+                public int compare(Field a, Field b) {
+                    return Long.compare(placed.get(a), placed.get(b));
+                }
+            });
+            for (Field field : byOffset) {
+                offsets.put(field, placed.get(field));
+            }
+        }
+
+        private static Long fill(List<long[]> gaps, int size) {
+            for (int i = 0; i < gaps.size(); i++) {
+                long[] gap = gaps.get(i);
+                long offset = ObjectLayout.align(gap[0], size);
+                if (offset + size <= gap[1]) {
+                    gaps.remove(i);
+                    if (offset + size < gap[1]) {
+                        gaps.add(i, new long[]{offset + size, gap[1]});
+                    }
+                    if (gap[0] < offset) {
+                        gaps.add(i, new long[]{gap[0], offset});
+                    }
+                    return offset;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * Support methods for the verifiers generated by the {@link CheckMarkProcessor}. Keeping these here means generated
+ * code reports failures exactly like {@link CheckMark} does, including the {@link CheckMarkListener} events.
+ * <p/>
+ * This class is only meant to be used by generated code.
+ */
+public final class GeneratedChecks {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckMark.class);
+
+    /**
+     * The seed used for the values both instances share in the equals check.
+     */
+    public static final long SEED_ONE = CheckMark.SEED_ONE;
+
+    /**
+     * The seed used for the value that should make the instances unequal in the equals check.
+     */
+    public static final long SEED_TWO = CheckMark.SEED_TWO;
+
+    private GeneratedChecks() {
+        throw new AssertionError("Private constructor called");
+    }
+
+    /**
+     * Look up a field the generated verifier can not reach directly, and make it accessible. The declaring class is
+     * given as a number of steps up the hierarchy, so that fields of superclasses the verifier can not name can still
+     * be found.
+     *
+     * @param cls   The checked class.
+     * @param depth The number of superclasses to walk up from cls to get to the declaring class.
+     * @param name  The name of the field.
+     * @return The accessible field.
+     * @throws IllegalStateException Thrown when the field does not exist, which means the verifier is out of date.
+     */
+    public static Field field(Class<?> cls, int depth, String name) {
+        Class<?> declaring = cls;
+        for (int i = 0; i < depth && declaring != null; i++) {
+            declaring = declaring.getSuperclass();
+        }
+        try {
+            if (declaring == null) {
+                throw new NoSuchFieldException(name);
+            }
+            Field field = declaring.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(String.format(
+                    "Generated verifier for %s is out of date, field %s is missing.", cls.getCanonicalName(), name), e);
+        }
+    }
+
+    /**
+     * Create the value the generated accessor check passes, which like in {@link CheckMark} is never an instance the
+     * checked bean got from its constructor.
+     *
+     * @param type The type of the property.
+     * @return The value.
+     * @throws ReflectiveOperationException Thrown when creating the value was not possible.
+     * @see Reflection#checkValue(Class, CheckKind, long)
+     */
+    public static Object accessorValue(Class<?> type) throws ReflectiveOperationException {
+        return Reflection.checkValue(type, CheckKind.ACCESSORS, Reflection.DEFAULT_SEED);
+    }
+
+    /**
+     * Create the value the generated mutator check passes, which is never the value of the accessor check either.
+     *
+     * @param type The type of the property.
+     * @return The value.
+     * @throws ReflectiveOperationException Thrown when creating the value was not possible.
+     * @see Reflection#checkValue(Class, CheckKind, long)
+     */
+    public static Object mutatorValue(Class<?> type) throws ReflectiveOperationException {
+        return Reflection.checkValue(type, CheckKind.MUTATORS, Reflection.DEFAULT_SEED);
+    }
+
+    /**
+     * Report a getter without a field, which the accessor check skips with the same warning as {@link CheckMark}.
+     *
+     * @param property The name of the property.
+     */
+    public static void ignoredGetter(String property) {
+        LOGGER.warn(CheckMark.NO_GETTER_MESSAGE, property);
+    }
+
+    /**
+     * Report a getter that did not return the value of its field, like the accessor check of {@link CheckMark}.
+     *
+     * @param cls      The checked class.
+     * @param property The name of the property.
+     * @return The failure for the generated verifier to throw.
+     */
+    public static AssertionError accessorFailed(Class<?> cls, String property) {
+        return failure(cls, CheckKind.ACCESSORS, property, null, CheckMark.ACCESSOR_FAIL_MESSAGE);
+    }
+
+    /**
+     * Report a getter that threw while it was checked.
+     *
+     * @param cls      The checked class.
+     * @param property The name of the property.
+     * @param cause    The exception the getter threw.
+     * @return The failure for the generated verifier to throw.
+     */
+    public static AssertionError accessorException(Class<?> cls, String property, Throwable cause) {
+        return failure(cls, CheckKind.ACCESSORS, property, cause, CheckMark.ACCESSOR_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * Report a setter that did not store the given value in its field, like the mutator check of {@link CheckMark}.
+     *
+     * @param cls      The checked class.
+     * @param property The name of the property.
+     * @return The failure for the generated verifier to throw.
+     */
+    public static AssertionError mutatorFailed(Class<?> cls, String property) {
+        return failure(cls, CheckKind.MUTATORS, property, null, CheckMark.MUTATOR_FAIL_MESSAGE);
+    }
+
+    /**
+     * Report a setter that threw while it was checked.
+     *
+     * @param cls      The checked class.
+     * @param property The name of the property.
+     * @param cause    The exception the setter threw.
+     * @return The failure for the generated verifier to throw.
+     */
+    public static AssertionError mutatorException(Class<?> cls, String property, Throwable cause) {
+        return failure(cls, CheckKind.MUTATORS, property, cause, CheckMark.MUTATOR_EXCEPTION_MESSAGE);
+    }
+
+    /**
+     * Report a field that equals ignored: changing it on one of two equal instances did not make them unequal.
+     *
+     * @param cls   The checked class.
+     * @param field The name of the field.
+     * @return The failure for the generated verifier to throw.
+     */
+    public static AssertionError fieldNotUsedInEquals(Class<?> cls, String field) {
+        return CheckMark.failure(CheckResult.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, field,
+                Reflection.DEFAULT_SEED, null, CheckMark.FIELD_NOT_USED_IN_EQUALS_MESSAGE, field));
+    }
+
+    private static AssertionError failure(Class<?> cls, CheckKind check, String property, Throwable cause,
+                                          String format) {
+        return CheckMark.failure(CheckResult.failed(cls, check, property, Reflection.DEFAULT_SEED, cause, format,
+                cls.getCanonicalName(), property));
+    }
+
+    /**
+     * @param cls       The checked class.
+     * @param instanceA An instance of the checked class.
+     * @param instanceB An exact copy of instanceA.
+     * @see CheckMark#testEqualsAndHashCode(Class)
+     */
+    public static void checkEqualsContract(Class<?> cls, Object instanceA, Object instanceB) {
+        CheckMark.checkEqualsContract(cls, instanceA, instanceB);
+    }
+}
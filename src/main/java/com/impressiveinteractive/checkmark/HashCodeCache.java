@@ -0,0 +1,217 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Support for classes that cache their hashCode in a field, the way {@link String} does. The field holding the cache
+ * has to be annotated with {@link CachedHashCode}, and is left out of the equals checks by
+ * {@link VerificationPlan#getFields()}, since equals ignores it and a dumb mock in it would be returned as the
+ * hashCode. A field is never left out for its name alone, since a field named like a cache may well be part of
+ * equals; such a field is only logged as a hint.
+ * <p/>
+ * A cache can go wrong in two ways: it can hold something else than what hashCode computes, and it can be filled
+ * racily, so that threads calling hashCode on a fresh instance at the same time see different results. The first is
+ * checked along with the equals contract, the second by {@link #checkConcurrent(Class, int, int)}.
+ */
+final class HashCodeCache {
+    static final int DEFAULT_ROUNDS = 100;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashCodeCache.class);
+
+    private static final ClassValue<Field> CACHES = new ClassValue<Field>() {
+        @Override
+        protected Field computeValue(Class<?> type) {
+            Field cache = find(type, Reflection.getFields(type));
+            if (cache != null) {
+                cache.setAccessible(true);
+            }
+            return cache;
+        }
+    };
+
+    private static final String CACHED_VALUE_MESSAGE = "HashCode of %s caches %d in field %s, but computes %d.";
+    private static final String STALE_VALUE_MESSAGE =
+            "HashCode of %s returns %d from its cache, but %d after field %s is cleared.";
+    private static final String RACE_MESSAGE = "HashCode of %s is not thread-safe: %d of %d threads calling it on a "
+            + "fresh instance at the same time got %d instead of %d.";
+    private static final String EXCEPTION_MESSAGE = "HashCode of %s threw an exception when called by %d threads.";
+    private static final String UNANNOTATED_MESSAGE = "Field {} of {} looks like a hashCode cache, but is checked like "
+            + "any other field. Annotate it with @CachedHashCode if equals ignores it.";
+
+    private HashCodeCache() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    /**
+     * Get the field the given class caches its hashCode in. This is kept apart from the {@link VerificationPlan} so
+     * that classes with a {@link CheckMarkVerifier} are not introspected for it.
+     *
+     * @param cls The class to get the cache field for.
+     * @return The accessible cache field, or null when the class does not cache its hashCode.
+     */
+    static Field forClass(Class<?> cls) {
+        return CACHES.get(cls);
+    }
+
+    /**
+     * Find the field annotated with {@link CachedHashCode}. Fields that only
+     * {@link #isConventional(String, boolean, boolean, boolean) look like} a hashCode cache are logged, but not used.
+     *
+     * @param type   The class to find the cache field for.
+     * @param fields All fields of the class hierarchy.
+     * @return The cache field, or null when the class does not cache its hashCode.
+     */
+    private static Field find(Class<?> type, Collection<Field> fields) {
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(CachedHashCode.class)) {
+                return field;
+            }
+        }
+        for (Field field : fields) {
+            int modifiers = field.getModifiers();
+            if (isConventional(field.getName(), field.getType() == int.class, Modifier.isStatic(modifiers),
+                    Modifier.isFinal(modifiers))) {
+                LOGGER.info(UNANNOTATED_MESSAGE, field.getName(), type.getName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decide whether a field looks like a hashCode cache by its name and type, which is only used to hint at a missing
+     * {@link CachedHashCode} annotation. This is shared with the {@link CheckMarkProcessor}, which only has the
+     * elements of a field.
+     *
+     * @param name        The name of the field.
+     * @param intField    True if the field is of type {@code int}.
+     * @param staticField True if the field is static.
+     * @param finalField  True if the field is final.
+     * @return True for a non-static, non-final {@code int} field named {@code hash} or {@code hashCode}, or ending in
+     * {@code Hash} or {@code HashCode}.
+     */
+    static boolean isConventional(String name, boolean intField, boolean staticField, boolean finalField) {
+        return intField && !staticField && !finalField && (name.equals("hash") || name.equals("hashCode")
+                || name.endsWith("Hash") || name.endsWith("HashCode"));
+    }
+
+    /**
+     * Check that the cache holds what hashCode computes, and that hashCode computes the same after the cache is
+     * cleared. An instance whose hashCode is 0 keeps an empty cache, like {@link String} does.
+     *
+     * @param cls      The checked class.
+     * @param cache    The field the hashCode is cached in.
+     * @param instance An instance of the checked class whose hashCode has been called.
+     * @throws IllegalAccessException Thrown when the cache field could not be read or cleared.
+     */
+    static void check(Class<?> cls, Field cache, Object instance) throws IllegalAccessException {
+        int hashCode = instance.hashCode();
+        int cached = cache.getInt(instance);
+        if (cached != 0 && cached != hashCode) {
+            throw CheckMark.failure(CheckResult.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, cache.getName(),
+                    Reflection.DEFAULT_SEED, null, CACHED_VALUE_MESSAGE, cls.getCanonicalName(), cached,
+                    cache.getName(), hashCode));
+        }
+        cache.setInt(instance, 0);
+        int fresh = instance.hashCode();
+        if (fresh != hashCode) {
+            throw CheckMark.failure(CheckResult.failed(cls, CheckKind.EQUALS_AND_HASH_CODE, cache.getName(),
+                    Reflection.DEFAULT_SEED, null, STALE_VALUE_MESSAGE, cls.getCanonicalName(), hashCode, fresh,
+                    cache.getName()));
+        }
+    }
+
+    /**
+     * @return One thread per available processor, but at least four.
+     */
+    static int defaultThreads() {
+        return Math.max(4, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Call hashCode from many threads at once, on a fresh instance per round, and check that every call returns the
+     * hashCode of an exact copy computed by a single thread. The threads are released together once they are all
+     * waiting, which makes it likely that they find the cache empty at the same time.
+     *
+     * @param cls     The checked class.
+     * @param threads The number of threads calling hashCode at once.
+     * @param rounds  The number of fresh instances to race on.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     * @throws InterruptedException         Thrown when interrupted while waiting for the threads.
+     */
+    static void checkConcurrent(Class<?> cls, int threads, int rounds)
+            throws ReflectiveOperationException, InterruptedException {
+        Object copy = Reflection.createInstance(cls);
+        CheckMark.setFieldsToSameValue(cls, copy, copy);
+        int expected = copy.hashCode();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "checkmark-hashcode");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            for (int round = 0; round < rounds; round++) {
+                final Object instance = Reflection.createInstance(cls);
+                CheckMark.setFieldsToSameValue(cls, instance, copy);
+                final CountDownLatch ready = new CountDownLatch(threads);
+                final CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>(threads);
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(new Callable<Integer>() {
+                        @Override
+                        public Integer call() throws InterruptedException {
+                            ready.countDown();
+                            start.await();
+                            return instance.hashCode();
+                        }
+                    }));
+                }
+                ready.await();
+                start.countDown();
+
+                int wrong = 0;
+                int wrongValue = 0;
+                for (Future<Integer> result : results) {
+                    int hashCode = get(cls, threads, result);
+                    if (hashCode != expected) {
+                        wrong++;
+                        wrongValue = hashCode;
+                    }
+                }
+                if (wrong > 0) {
+                    throw CheckMark.failure(CheckResult.failed(cls, CheckKind.HASH_CODE_CONCURRENCY, null,
+                            Reflection.DEFAULT_SEED, null, RACE_MESSAGE, cls.getCanonicalName(), wrong, threads,
+                            wrongValue, expected));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int get(Class<?> cls, int threads, Future<Integer> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw CheckMark.failure(CheckResult.failed(cls, CheckKind.HASH_CODE_CONCURRENCY, null,
+                    Reflection.DEFAULT_SEED, e.getCause(), EXCEPTION_MESSAGE, cls.getCanonicalName(), threads));
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures how well the hashCode of a class spreads many distinct instances. Instances are generated by setting every
+ * instance field to a {@link Reflection#dumbMock(Class, long) dumb mock} with a pseudo random seed. The seeds stay
+ * below the number of samples, so every field type contributes at most that many distinct values.
+ * <p/>
+ * Three things are measured:
+ * <ul>
+ * <li>The collision rate: the fraction of distinct instances (by equals) that share their hashCode with another
+ * distinct instance;</li>
+ * <li>The bucket usage: the number of buckets a {@link HashMap} sized for the instances would use, after applying
+ * its spreading function, relative to the number a uniformly random hash would use on average. The largest bucket is
+ * measured as well;</li>
+ * <li>The contribution of every field: instances are generated in which only that field changes, and the Shannon
+ * entropy of their hashCodes is divided by the entropy of the instances themselves. A field that is ignored by
+ * hashCode contributes 0, a field whose every value gives a different hashCode contributes 1.</li>
+ * </ul>
+ */
+final class HashCodeDistribution {
+    private static final String COLLISION_MESSAGE =
+            "HashCode of %s collides too often: %.1f%% of %d distinct instances share their hashCode with another "
+                    + "instance, at most %.1f%% is allowed.";
+    private static final String BUCKET_USAGE_MESSAGE =
+            "HashCode of %s spreads badly over HashMap buckets: %d of %d buckets are used for %d instances, which is "
+                    + "%.1f%% of the %.1f buckets a random hashCode uses, at least %.1f%% is required.";
+    private static final String BUCKET_SIZE_MESSAGE =
+            "HashCode of %s puts %d of %d instances in a single HashMap bucket, at most %d is allowed.";
+    private static final String FIELD_CONTRIBUTION_MESSAGE =
+            "Field %s contributes too little to the hashCode of %s: %.2f of its entropy, at least %.2f is required.";
+
+    private final Class<?> type;
+    private final int distinct;
+    private final int collisions;
+    private final int buckets;
+    private final int usedBuckets;
+    private final double expectedBuckets;
+    private final int largestBucket;
+    private final Map<String, Double> contributions;
+
+    private HashCodeDistribution(Class<?> type, List<Object> instances, Map<String, Double> contributions) {
+        this.type = type;
+
+        Map<Integer, Integer> hashes = new HashMap<>();
+        for (Object instance : instances) {
+            Integer hash = instance.hashCode();
+            Integer count = hashes.get(hash);
+            hashes.put(hash, count == null ? 1 : count + 1);
+        }
+        int collisions = 0;
+        for (Integer count : hashes.values()) {
+            if (count > 1) {
+                collisions += count;
+            }
+        }
+        this.distinct = instances.size();
+        this.collisions = collisions;
+
+        this.buckets = tableSize(distinct);
+        int[] sizes = new int[buckets];
+        int used = 0;
+        int largest = 0;
+        for (Object instance : instances) {
+            int index = spread(instance.hashCode()) & (buckets - 1);
+            if (sizes[index]++ == 0) {
+                used++;
+            }
+            largest = Math.max(largest, sizes[index]);
+        }
+        this.usedBuckets = used;
+        this.largestBucket = largest;
+        this.expectedBuckets = buckets * (1 - Math.pow(1 - 1.0 / buckets, distinct));
+        this.contributions = Collections.unmodifiableMap(contributions);
+    }
+
+    /**
+     * Generate the samples for the given class and measure the distribution of their hashCodes.
+     *
+     * @param cls     The class to measure.
+     * @param samples The number of instances to generate, both for the whole class and for every field.
+     * @return The measurements.
+     * @throws ReflectiveOperationException Thrown when instances could not be created or their fields set.
+     */
+    static HashCodeDistribution measure(Class<?> cls, int samples) throws ReflectiveOperationException {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+            }
+        }
+
+        Set<Object> instances = new HashSet<>();
+        for (int i = 0; i < samples; i++) {
+            Object instance = Reflection.createInstance(cls);
+            for (int j = 0; j < fields.size(); j++) {
+                Field field = fields.get(j);
+                field.set(instance, Reflection.dumbMock(field.getType(), seed(i, j, samples)));
+            }
+            instances.add(instance);
+        }
+
+        Map<String, Double> contributions = new LinkedHashMap<>();
+        for (Field field : fields) {
+            Set<Object> varied = new HashSet<>();
+            for (int i = 0; i < samples; i++) {
+                Object instance = Reflection.createInstance(cls);
+                for (Field other : fields) {
+                    long seed = other == field ? i : CheckMark.SEED_ONE;
+                    other.set(instance, Reflection.dumbMock(other.getType(), seed));
+                }
+                varied.add(instance);
+            }
+            if (varied.size() > 1) {
+                contributions.put(field.getName(), hashEntropy(varied) / log2(varied.size()));
+            }
+        }
+        return new HashCodeDistribution(cls, new ArrayList<>(instances), contributions);
+    }
+
+    /**
+     * Fail when any of the measurements is beyond the given thresholds. Fields are checked first, since a field that
+     * is ignored by hashCode also shows up as collisions.
+     *
+     * @param thresholds The limits to hold the measurements to.
+     */
+    void check(HashCodeThresholds thresholds) {
+        String name = type.getCanonicalName();
+        for (Map.Entry<String, Double> contribution : contributions.entrySet()) {
+            if (contribution.getValue() < thresholds.getMinFieldContribution()) {
+                throw failure(contribution.getKey(), FIELD_CONTRIBUTION_MESSAGE, contribution.getKey(), name,
+                        contribution.getValue(), thresholds.getMinFieldContribution());
+            }
+        }
+        if (getCollisionRate() > thresholds.getMaxCollisionRate()) {
+            throw failure(null, COLLISION_MESSAGE, name, getCollisionRate() * 100, distinct,
+                    thresholds.getMaxCollisionRate() * 100);
+        } else if (getBucketUsage() < thresholds.getMinBucketUsage()) {
+            throw failure(null, BUCKET_USAGE_MESSAGE, name, usedBuckets, buckets, distinct,
+                    getBucketUsage() * 100, expectedBuckets, thresholds.getMinBucketUsage() * 100);
+        } else if (largestBucket > thresholds.getMaxBucketSize()) {
+            throw failure(null, BUCKET_SIZE_MESSAGE, name, largestBucket, distinct, thresholds.getMaxBucketSize());
+        }
+    }
+
+    /**
+     * @return The number of distinct instances, by equals, among the generated samples.
+     */
+    int getDistinct() {
+        return distinct;
+    }
+
+    double getCollisionRate() {
+        return distinct == 0 ? 0 : (double) collisions / distinct;
+    }
+
+    double getBucketUsage() {
+        return expectedBuckets == 0 ? 1 : usedBuckets / expectedBuckets;
+    }
+
+    int getLargestBucket() {
+        return largestBucket;
+    }
+
+    /**
+     * @return The contribution of every instance field that can take more than one value, by field name.
+     */
+    Map<String, Double> getContributions() {
+        return contributions;
+    }
+
+    private CheckFailure failure(String field, String format, Object... arguments) {
+        return CheckMark.failure(CheckResult.failed(type, CheckKind.HASH_CODE_DISTRIBUTION, field,
+                Reflection.DEFAULT_SEED, null, format, arguments));
+    }
+
+    /**
+     * A cheap mix of sample and field index, so that fields do not all take the same seed in the same sample.
+     */
+    private static long seed(int sample, int field, int samples) {
+        long mixed = (sample + 1) * 0x9E3779B97F4A7C15L + (field + 1) * 0xC2B2AE3D27D4EB4FL;
+        mixed ^= mixed >>> 29;
+        return (mixed & Long.MAX_VALUE) % samples;
+    }
+
+    /**
+     * The spreading function of {@link HashMap}, which folds the high bits into the low bits used for the index.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The table size a {@link HashMap} ends up with for the given number of entries at its default load factor.
+     */
+    private static int tableSize(int entries) {
+        int needed = (int) Math.ceil(entries / 0.75);
+        int size = 16;
+        while (size < needed) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static double hashEntropy(Collection<Object> instances) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Object instance : instances) {
+            Integer hash = instance.hashCode();
+            Integer count = counts.get(hash);
+            counts.put(hash, count == null ? 1 : count + 1);
+        }
+        double entropy = 0;
+        for (Integer count : counts.values()) {
+            double p = (double) count / instances.size();
+            entropy -= p * log2(p);
+        }
+        return entropy;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
@@ -0,0 +1,161 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.Objects;
+
+/**
+ * The limits {@link CheckMark#testHashCodeDistribution(Class, HashCodeThresholds)} holds a hashCode to. Instances are
+ * immutable; start from {@link #defaults()} and change single limits with the <em>with</em> methods.
+ * <p/>
+ * <pre>
+ * CheckMark.testHashCodeDistribution(Key.class, HashCodeThresholds.defaults().withMaxCollisionRate(0.01));
+ * </pre>
+ */
+public final class HashCodeThresholds {
+    private static final HashCodeThresholds DEFAULTS = new HashCodeThresholds(1024, 0.1, 0.75, 8, 0.5);
+
+    private final int samples;
+    private final double maxCollisionRate;
+    private final double minBucketUsage;
+    private final int maxBucketSize;
+    private final double minFieldContribution;
+
+    private HashCodeThresholds(int samples, double maxCollisionRate, double minBucketUsage, int maxBucketSize,
+                               double minFieldContribution) {
+        if (samples < 2) {
+            throw new IllegalArgumentException("At least two samples are needed to measure a distribution.");
+        } else if (maxBucketSize < 1) {
+            throw new IllegalArgumentException("The maximum bucket size has to be positive.");
+        }
+        checkRate("maximum collision rate", maxCollisionRate);
+        checkRate("minimum bucket usage", minBucketUsage);
+        checkRate("minimum field contribution", minFieldContribution);
+        this.samples = samples;
+        this.maxCollisionRate = maxCollisionRate;
+        this.minBucketUsage = minBucketUsage;
+        this.maxBucketSize = maxBucketSize;
+        this.minFieldContribution = minFieldContribution;
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException(String.format("The %s has to be between 0 and 1, not %s.", name, rate));
+        }
+    }
+
+    /**
+     * The default thresholds: 1024 samples, at most 10% colliding instances, at least 75% of the expected number of
+     * {@link java.util.HashMap} buckets in use, no bucket with more than 8 entries (the size at which a HashMap bucket
+     * turns into a tree) and every field contributing at least half of its entropy to the hashCode.
+     *
+     * @return The default thresholds.
+     */
+    public static HashCodeThresholds defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return The number of instances to generate.
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return The highest allowed fraction of distinct instances that share their hashCode with another instance.
+     */
+    public double getMaxCollisionRate() {
+        return maxCollisionRate;
+    }
+
+    /**
+     * @return The lowest allowed ratio between the used and the expected number of used {@link java.util.HashMap}
+     * buckets.
+     */
+    public double getMinBucketUsage() {
+        return minBucketUsage;
+    }
+
+    /**
+     * @return The highest allowed number of instances in a single {@link java.util.HashMap} bucket.
+     */
+    public int getMaxBucketSize() {
+        return maxBucketSize;
+    }
+
+    /**
+     * @return The lowest allowed ratio between the entropy of the hashCodes and the entropy of the instances when
+     * only a single field changes.
+     */
+    public double getMinFieldContribution() {
+        return minFieldContribution;
+    }
+
+    /**
+     * @param samples The number of instances to generate, at least 2.
+     * @return A copy of these thresholds with the given number of samples.
+     */
+    public HashCodeThresholds withSamples(int samples) {
+        return new HashCodeThresholds(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    /**
+     * @param maxCollisionRate The highest allowed fraction of colliding instances, between 0 and 1.
+     * @return A copy of these thresholds with the given collision rate.
+     */
+    public HashCodeThresholds withMaxCollisionRate(double maxCollisionRate) {
+        return new HashCodeThresholds(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    /**
+     * @param minBucketUsage The lowest allowed ratio between the used and the expected number of used buckets,
+     *                       between 0 and 1.
+     * @return A copy of these thresholds with the given bucket usage.
+     */
+    public HashCodeThresholds withMinBucketUsage(double minBucketUsage) {
+        return new HashCodeThresholds(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    /**
+     * @param maxBucketSize The highest allowed number of instances in a single bucket, at least 1.
+     * @return A copy of these thresholds with the given bucket size.
+     */
+    public HashCodeThresholds withMaxBucketSize(int maxBucketSize) {
+        return new HashCodeThresholds(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    /**
+     * @param minFieldContribution The lowest allowed fraction of the entropy of a single field that has to show in the
+     *                             hashCode, between 0 and 1.
+     * @return A copy of these thresholds with the given field contribution.
+     */
+    public HashCodeThresholds withMinFieldContribution(double minFieldContribution) {
+        return new HashCodeThresholds(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(samples, maxCollisionRate, minBucketUsage, maxBucketSize, minFieldContribution);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final HashCodeThresholds other = (HashCodeThresholds) obj;
+        return this.samples == other.samples
+                && Double.compare(this.maxCollisionRate, other.maxCollisionRate) == 0
+                && Double.compare(this.minBucketUsage, other.minBucketUsage) == 0
+                && this.maxBucketSize == other.maxBucketSize
+                && Double.compare(this.minFieldContribution, other.minFieldContribution) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HashCodeThresholds[samples=%d, maxCollisionRate=%s, minBucketUsage=%s, maxBucketSize=%d, "
+                + "minFieldContribution=%s]", samples, maxCollisionRate, minBucketUsage, maxBucketSize,
+                minFieldContribution);
+    }
+}
@@ -0,0 +1,125 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The session in which {@link Reflection#createInstance(Class)} builds an instance together with all final values its
+ * constructor needs. A session is opened by the outermost call on a thread and closed when that call returns, so every
+ * top level instance still gets a graph of its own.
+ * <p/>
+ * Within a session:
+ * <ul>
+ * <li>Nested instances are built once per type and seed and then shared, so a type that is needed in many places of
+ * the graph costs a single construction and building a deeply nested aggregate takes linear instead of exponential
+ * time;</li>
+ * <li>A type that is needed while it is being built, because of a cycle in the constructor graph, gets a placeholder
+ * instead of recursing until the stack overflows;</li>
+ * <li>Types nested deeper than {@link Reflection#getMaxInstanceDepth()} get a placeholder as well.</li>
+ * </ul>
+ * The placeholder is null, so a constructor that does not accept it fails and the next constructor is tried. The
+ * constructor that then succeeds may not be the one that would have been chosen without placeholders, so the session
+ * counts the placeholders it handed out and {@link Reflection#createInstance(Class)} does not remember constructors
+ * that were chosen, nor classes that failed, while the count went up.
+ */
+final class InstanceGraph {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstanceGraph.class);
+
+    private static final ThreadLocal<InstanceGraph> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Long, Object>> built = new HashMap<>();
+    private final Set<Class<?>> building = new HashSet<>();
+    private int depth;
+    private int placeholders;
+
+    private InstanceGraph() {
+    }
+
+    /**
+     * Join the session of the current thread, or open one for the given type when there is none.
+     *
+     * @param root The type about to be instantiated.
+     * @return The new session, which has to be {@link #close(InstanceGraph) closed} by the caller, or null when a
+     * session was already open.
+     */
+    static InstanceGraph open(Class<?> root) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        InstanceGraph graph = new InstanceGraph();
+        graph.building.add(root);
+        CURRENT.set(graph);
+        return graph;
+    }
+
+    /**
+     * @param graph The session returned by {@link #open(Class)}, which may be null.
+     */
+    static void close(InstanceGraph graph) {
+        if (graph != null) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return The number of placeholders the session of the current thread handed out so far, or 0 when there is no
+     * session.
+     */
+    static int placeholders() {
+        InstanceGraph graph = CURRENT.get();
+        return graph == null ? 0 : graph.placeholders;
+    }
+
+    /**
+     * Get an instance of a final type needed while building a graph. Outside of a session this is a plain call to
+     * {@link Reflection#createInstance(Class)}.
+     *
+     * @param type The type of the instance.
+     * @param seed The seed the instance was asked for with.
+     * @return The shared instance for the type and seed, or null as a placeholder.
+     * @throws ReflectiveOperationException Thrown when creating the instance was not possible.
+     */
+    static Object nested(Class<?> type, long seed) throws ReflectiveOperationException {
+        InstanceGraph graph = CURRENT.get();
+        if (graph == null) {
+            return Reflection.createInstance(type);
+        }
+        return graph.get(type, seed);
+    }
+
+    private Object get(Class<?> type, long seed) throws ReflectiveOperationException {
+        Map<Long, Object> instances = built.get(type);
+        Object instance = instances == null ? null : instances.get(seed);
+        if (instance != null) {
+            return instance;
+        } else if (building.contains(type)) {
+            LOGGER.debug("Using a placeholder for {}, its constructor needs an instance of itself.", type.getName());
+            placeholders++;
+            return null;
+        } else if (depth >= Reflection.getMaxInstanceDepth()) {
+            LOGGER.debug("Using a placeholder for {}, it is nested deeper than {}.", type.getName(), depth);
+            placeholders++;
+            return null;
+        }
+
+        building.add(type);
+        depth++;
+        try {
+            instance = Reflection.createInstance(type);
+        } finally {
+            depth--;
+            building.remove(type);
+        }
+        if (instances == null) {
+            instances = new HashMap<>();
+            built.put(type, instances);
+        }
+        instances.put(seed, instance);
+        return instance;
+    }
+}
@@ -0,0 +1,78 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The strategy {@link CheckMark} uses to call accessors and mutators and to read and write their backing fields.
+ *
+ * @see CheckMark#setInvocationEngine(InvocationEngine)
+ */
+public enum InvocationEngine {
+    /**
+     * Use {@link java.lang.reflect.Method#invoke(Object, Object...)}, {@link java.lang.reflect.Field#get(Object)} and
+     * {@link java.lang.reflect.Field#set(Object, Object)}. Primitive values are boxed on every call.
+     */
+    REFLECTION {
+        @Override
+        PropertyInvoker bind(VerificationPlan.Property property) {
+            return new ReflectionInvoker(property);
+        }
+    },
+
+    /**
+     * Use {@link java.lang.invoke.MethodHandle}s that are created once per property. Primitive values are compared
+     * without boxing. Properties for which no handles can be created fall back to {@link #REFLECTION}.
+     */
+    METHOD_HANDLE {
+        @Override
+        PropertyInvoker bind(VerificationPlan.Property property) {
+            try {
+                return new MethodHandleInvoker(property);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.debug(FALLBACK_MESSAGE, property.getName(), e);
+                return REFLECTION.bind(property);
+            }
+        }
+    };
+
+    /**
+     * The system property that can be used to select the default engine by name.
+     */
+    public static final String SYSTEM_PROPERTY = "checkmark.invocationEngine";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvocationEngine.class);
+    private static final String FALLBACK_MESSAGE =
+            "Falling back to reflection for property \"{}\" since no method handles could be created.";
+    private static final String UNKNOWN_ENGINE_MESSAGE =
+            "Unknown invocation engine \"{}\" in system property {}, using {} instead. Valid engines are {}.";
+
+    /**
+     * Create the {@link PropertyInvoker} for the given property.
+     *
+     * @param property The property to create the invoker for.
+     * @return The invoker.
+     */
+    abstract PropertyInvoker bind(VerificationPlan.Property property);
+
+    /**
+     * @return The engine named by the {@value #SYSTEM_PROPERTY} system property, or {@link #METHOD_HANDLE} if it is
+     * not set or does not name an engine.
+     */
+    static InvocationEngine fromSystemProperty() {
+        String name = System.getProperty(SYSTEM_PROPERTY);
+        if (name == null) {
+            return METHOD_HANDLE;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Thrown from the static initializer of CheckMark otherwise, which breaks every later check
+            LOGGER.warn(UNKNOWN_ENGINE_MESSAGE, name, SYSTEM_PROPERTY, METHOD_HANDLE, Arrays.toString(values()));
+            return METHOD_HANDLE;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.impressiveinteractive.checkmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Encodes instances with an {@link ObjectOutputStream} and decodes them with an {@link ObjectInputStream}. A new
+ * object stream is opened per instance, since every Java-serialized payload starts with its own stream header.
+ */
+public final class JavaSerializationCodec implements SerializationCodec {
+    @Override
+    public void encode(Object instance, OutputStream out) throws IOException {
+        ObjectOutputStream objects = new ObjectOutputStream(out);
+        objects.writeObject(instance);
+        objects.flush();
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        try {
+            return new ObjectInputStream(in).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("The class of a decoded object could not be found.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Java serialization";
+    }
+}
@@ -0,0 +1,131 @@
+package com.impressiveinteractive.checkmark;
+
+import java.util.Arrays;
+
+/**
+ * The registered {@link CheckMarkListener}s and the methods to notify them. Every method first checks whether any
+ * listener is registered, which is a single volatile read. Only then the clock is read or an event is created, so
+ * the hooks cost next to nothing when nobody listens.
+ * <p/>
+ * Timing works in two steps: {@link #start()} returns the start time, or 0 when nobody listens, and the notifying
+ * method computes the duration from it.
+ */
+final class Listeners {
+    private static final CheckMarkListener[] NONE = new CheckMarkListener[0];
+
+    private static volatile CheckMarkListener[] listeners = NONE;
+
+    private Listeners() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    static synchronized void add(CheckMarkListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("The listener can not be null.");
+        }
+        CheckMarkListener[] current = listeners;
+        CheckMarkListener[] added = Arrays.copyOf(current, current.length + 1);
+        added[current.length] = listener;
+        listeners = added;
+    }
+
+    static synchronized boolean remove(CheckMarkListener listener) {
+        CheckMarkListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                CheckMarkListener[] removed = new CheckMarkListener[current.length - 1];
+                System.arraycopy(current, 0, removed, 0, i);
+                System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+                listeners = removed.length == 0 ? NONE : removed;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if at least one listener is registered.
+     */
+    static boolean enabled() {
+        return listeners.length != 0;
+    }
+
+    /**
+     * @return The current {@link System#nanoTime()}, or 0 if no listener is registered.
+     */
+    static long start() {
+        return listeners.length == 0 ? 0 : System.nanoTime();
+    }
+
+    static long classStarted(Class<?> cls, CheckKind check) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0) {
+            return 0;
+        }
+        for (CheckMarkListener listener : current) {
+            listener.classStarted(cls, check);
+        }
+        return System.nanoTime();
+    }
+
+    static void classFinished(Class<?> cls, CheckKind check, long start) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0 || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        for (CheckMarkListener listener : current) {
+            listener.classFinished(cls, check, nanos);
+        }
+    }
+
+    static void classIntrospected(Class<?> cls, long start) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0 || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        for (CheckMarkListener listener : current) {
+            listener.classIntrospected(cls, nanos);
+        }
+    }
+
+    static void instanceCreated(Class<?> cls, long start) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0 || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        for (CheckMarkListener listener : current) {
+            listener.instanceCreated(cls, nanos);
+        }
+    }
+
+    static void mockCreated(Class<?> type, long start) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0 || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        for (CheckMarkListener listener : current) {
+            listener.mockCreated(type, nanos);
+        }
+    }
+
+    static void propertyChecked(Class<?> cls, CheckKind check, String property, long start) {
+        CheckMarkListener[] current = listeners;
+        if (current.length == 0 || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        for (CheckMarkListener listener : current) {
+            listener.propertyChecked(cls, check, property, nanos);
+        }
+    }
+
+    static void failed(Class<?> cls, CheckKind check, String property, Throwable failure) {
+        for (CheckMarkListener listener : listeners) {
+            listener.failed(cls, check, property, failure);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * {@link PropertyInvoker} backed by {@link MethodHandle}s. All handles are adapted to a fixed, erased signature once,
+ * so every call is an {@link MethodHandle#invokeExact(Object...) invokeExact}. The comparison handles unbox the
+ * expected value and compare it with the primitive result directly, so checking a primitive property does not box.
+ * <p/>
+ * Like {@link java.lang.reflect.Method#invoke(Object, Object...)}, anything the invoked member throws is wrapped in an
+ * {@link InvocationTargetException}, checked exceptions included. Only a missing or inaccessible member is reported
+ * as the {@link ReflectiveOperationException} itself, before anything is invoked.
+ */
+final class MethodHandleInvoker implements PropertyInvoker {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType MATCH_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+
+    private final VerificationPlan.Property property;
+    private final MethodHandle reader;
+    private final MethodHandle readMatcher;
+    private final MethodHandle writer;
+    private final MethodHandle getter;
+    private final MethodHandle fieldMatcher;
+    private final MethodHandle setter;
+
+    MethodHandleInvoker(VerificationPlan.Property property) throws ReflectiveOperationException {
+        this.property = property;
+
+        Method readMethod = property.getReadMethod();
+        if (readMethod != null) {
+            readMethod.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflect(readMethod);
+            this.reader = handle.asType(READ_TYPE);
+            this.readMatcher = matcher(handle.asType(MethodType.methodType(readMethod.getReturnType(), Object.class)));
+        } else {
+            this.reader = null;
+            this.readMatcher = null;
+        }
+
+        Method writeMethod = property.getWriteMethod();
+        if (writeMethod != null) {
+            writeMethod.setAccessible(true);
+            this.writer = LOOKUP.unreflect(writeMethod).asType(WRITE_TYPE);
+        } else {
+            this.writer = null;
+        }
+
+        Field field = property.getField();
+        if (field != null && property.isAccessible()) {
+            boolean isStatic = Modifier.isStatic(field.getModifiers());
+            MethodHandle handle = LOOKUP.unreflectGetter(field);
+            if (isStatic) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            this.getter = handle.asType(READ_TYPE);
+            this.fieldMatcher = matcher(handle.asType(MethodType.methodType(field.getType(), Object.class)));
+
+            if (property.isFinalField()) {
+                this.setter = null;
+            } else {
+                handle = LOOKUP.unreflectSetter(field);
+                if (isStatic) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                this.setter = handle.asType(WRITE_TYPE);
+            }
+        } else {
+            this.getter = null;
+            this.fieldMatcher = null;
+            this.setter = null;
+        }
+    }
+
+    @Override
+    public Object read(Object instance) throws ReflectiveOperationException {
+        MethodHandle handle = require(reader);
+        try {
+            return (Object) handle.invokeExact(instance);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public void write(Object instance, Object value) throws ReflectiveOperationException {
+        MethodHandle handle = require(writer);
+        try {
+            handle.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public Object get(Object instance) throws ReflectiveOperationException {
+        MethodHandle handle = requireField(getter);
+        try {
+            return (Object) handle.invokeExact(instance);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public void set(Object instance, Object value) throws ReflectiveOperationException {
+        MethodHandle handle = requireField(setter);
+        try {
+            handle.invokeExact(instance, value);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public boolean readMatches(Object instance, Object expected) throws ReflectiveOperationException {
+        MethodHandle handle = require(readMatcher);
+        try {
+            return (boolean) handle.invokeExact(instance, expected);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public boolean fieldMatches(Object instance, Object expected) throws ReflectiveOperationException {
+        MethodHandle handle = requireField(fieldMatcher);
+        try {
+            return (boolean) handle.invokeExact(instance, expected);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private MethodHandle require(MethodHandle handle) throws NoSuchMethodException {
+        if (handle == null) {
+            throw new NoSuchMethodException(String.format("No such method for property %s.%s.",
+                    property.getOwner().getCanonicalName(), property.getName()));
+        }
+        return handle;
+    }
+
+    private MethodHandle requireField(MethodHandle handle) throws ReflectiveOperationException {
+        if (property.getField() == null) {
+            throw new NoSuchFieldException(String.format("Could not find field %s.%s.",
+                    property.getOwner().getCanonicalName(), property.getName()));
+        } else if (handle == null) {
+            throw new IllegalAccessException(String.format("Field %s.%s can not be accessed.",
+                    property.getOwner().getCanonicalName(), property.getName()));
+        }
+        return handle;
+    }
+
+    /**
+     * Build a {@code (Object, Object)boolean} handle that compares the result of the given {@code (Object)T} handle
+     * with the second argument: by value for primitive types, by identity otherwise.
+     */
+    private static MethodHandle matcher(MethodHandle source) throws ReflectiveOperationException {
+        Class<?> type = source.type().returnType();
+        if (!type.isPrimitive()) {
+            MethodHandle same = LOOKUP.findStatic(MethodHandleInvoker.class, "same",
+                    MethodType.methodType(boolean.class, Object.class, Object.class));
+            return MethodHandles.filterArguments(same, 0, source.asType(READ_TYPE));
+        }
+        MethodHandle same = LOOKUP.findStatic(MethodHandleInvoker.class, "same",
+                MethodType.methodType(boolean.class, type, type));
+        MethodHandle unbox = MethodHandles.identity(type).asType(MethodType.methodType(type, Object.class));
+        return MethodHandles.filterArguments(same, 0, source, unbox).asType(MATCH_TYPE);
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == b;
+    }
+
+    private static boolean same(boolean a, boolean b) {
+        return a == b;
+    }
+
+    private static boolean same(byte a, byte b) {
+        return a == b;
+    }
+
+    private static boolean same(char a, char b) {
+        return a == b;
+    }
+
+    private static boolean same(short a, short b) {
+        return a == b;
+    }
+
+    private static boolean same(int a, int b) {
+        return a == b;
+    }
+
+    private static boolean same(long a, long b) {
+        return a == b;
+    }
+
+    private static boolean same(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+}
@@ -0,0 +1,315 @@
+package com.impressiveinteractive.checkmark;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link CheckMarkListener} that records a latency histogram per {@link Phase} and a failure counter for every
+ * checked class. Events that happen while a class is being checked, like the creation of the instances of its field
+ * types, are counted for the checked class. Events outside of a check are counted for their own class.
+ * <p/>
+ * Checks can run inside other checks, for example when a check first runs a simpler check of the same class. Events are
+ * counted for the innermost running check, and a check that runs inside a check of the same class is part of the time
+ * of the outer one, so it is not recorded as a {@link Phase#CHECK} of its own.
+ * <p/>
+ * The recorded metrics can be exported with {@link #writeJson(Appendable)} or {@link #writeCsv(Appendable)} at the end
+ * of a run. This listener is thread-safe and can be used with the {@link CheckMarkRunner}.
+ */
+public final class MetricsListener implements CheckMarkListener {
+    private static final String CSV_HEADER =
+            "class,phase,count,totalNanos,minNanos,maxNanos,p50Nanos,p90Nanos,p99Nanos,failures\n";
+
+    private final ConcurrentMap<String, ClassMetrics> classes = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<Class<?>>> running = new ThreadLocal<Deque<Class<?>>>() {
+        @Override
+        protected Deque<Class<?>> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    @Override
+    public void classStarted(Class<?> cls, CheckKind check) {
+        running.get().push(cls);
+    }
+
+    @Override
+    public void classFinished(Class<?> cls, CheckKind check, long nanos) {
+        Deque<Class<?>> checks = running.get();
+        checks.removeFirstOccurrence(cls);
+        if (checks.isEmpty()) {
+            running.remove();
+        }
+        if (!checks.contains(cls)) {
+            metrics(cls).histogram(Phase.CHECK).record(nanos);
+        }
+    }
+
+    @Override
+    public void classIntrospected(Class<?> cls, long nanos) {
+        metrics(owner(cls)).histogram(Phase.INTROSPECTION).record(nanos);
+    }
+
+    @Override
+    public void instanceCreated(Class<?> cls, long nanos) {
+        metrics(owner(cls)).histogram(Phase.CREATE_INSTANCE).record(nanos);
+    }
+
+    @Override
+    public void mockCreated(Class<?> type, long nanos) {
+        metrics(owner(type)).histogram(Phase.DUMB_MOCK).record(nanos);
+    }
+
+    @Override
+    public void propertyChecked(Class<?> cls, CheckKind check, String property, long nanos) {
+        metrics(cls).histogram(Phase.PROPERTY).record(nanos);
+    }
+
+    @Override
+    public void failed(Class<?> cls, CheckKind check, String property, Throwable failure) {
+        metrics(cls).failures.incrementAndGet();
+    }
+
+    /**
+     * Get the histogram of a single phase of a class.
+     *
+     * @param cls   The class to get the histogram for.
+     * @param phase The phase to get the histogram for.
+     * @return The histogram, which is empty if nothing was recorded.
+     */
+    public Histogram getHistogram(Class<?> cls, Phase phase) {
+        ClassMetrics metrics = classes.get(cls.getName());
+        return metrics == null ? new Histogram() : metrics.histogram(phase);
+    }
+
+    /**
+     * @param cls The class to get the failure count for.
+     * @return The number of failures reported for the given class.
+     */
+    public long getFailures(Class<?> cls) {
+        ClassMetrics metrics = classes.get(cls.getName());
+        return metrics == null ? 0 : metrics.failures.get();
+    }
+
+    /**
+     * Forget everything recorded so far.
+     */
+    public void reset() {
+        classes.clear();
+    }
+
+    /**
+     * Write all recorded metrics as a single JSON object, with one entry per class sorted by name.
+     *
+     * @param out The target to write to.
+     * @throws IOException Thrown when writing failed.
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"classes\":[");
+        boolean firstClass = true;
+        for (Map.Entry<String, ClassMetrics> entry : sorted().entrySet()) {
+            if (!firstClass) {
+                out.append(',');
+            }
+            firstClass = false;
+            ClassMetrics metrics = entry.getValue();
+            out.append("{\"class\":\"").append(escape(entry.getKey())).append("\",\"failures\":")
+                    .append(Long.toString(metrics.failures.get())).append(",\"phases\":{");
+            boolean firstPhase = true;
+            for (Phase phase : Phase.values()) {
+                Histogram histogram = metrics.histogram(phase);
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                if (!firstPhase) {
+                    out.append(',');
+                }
+                firstPhase = false;
+                out.append('"').append(phase.name()).append("\":{")
+                        .append("\"count\":").append(Long.toString(histogram.getCount()))
+                        .append(",\"totalNanos\":").append(Long.toString(histogram.getTotalNanos()))
+                        .append(",\"minNanos\":").append(Long.toString(histogram.getMinNanos()))
+                        .append(",\"maxNanos\":").append(Long.toString(histogram.getMaxNanos()))
+                        .append(",\"p50Nanos\":").append(Long.toString(histogram.getPercentileNanos(50)))
+                        .append(",\"p90Nanos\":").append(Long.toString(histogram.getPercentileNanos(90)))
+                        .append(",\"p99Nanos\":").append(Long.toString(histogram.getPercentileNanos(99)))
+                        .append('}');
+            }
+            out.append("}}");
+        }
+        out.append("]}\n");
+    }
+
+    /**
+     * Write all recorded metrics as CSV, with one line per class and phase sorted by class name.
+     *
+     * @param out The target to write to.
+     * @throws IOException Thrown when writing failed.
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append(CSV_HEADER);
+        for (Map.Entry<String, ClassMetrics> entry : sorted().entrySet()) {
+            ClassMetrics metrics = entry.getValue();
+            for (Phase phase : Phase.values()) {
+                Histogram histogram = metrics.histogram(phase);
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                out.append(entry.getKey()).append(',')
+                        .append(phase.name()).append(',')
+                        .append(Long.toString(histogram.getCount())).append(',')
+                        .append(Long.toString(histogram.getTotalNanos())).append(',')
+                        .append(Long.toString(histogram.getMinNanos())).append(',')
+                        .append(Long.toString(histogram.getMaxNanos())).append(',')
+                        .append(Long.toString(histogram.getPercentileNanos(50))).append(',')
+                        .append(Long.toString(histogram.getPercentileNanos(90))).append(',')
+                        .append(Long.toString(histogram.getPercentileNanos(99))).append(',')
+                        .append(Long.toString(metrics.failures.get())).append('\n');
+            }
+        }
+    }
+
+    private Class<?> owner(Class<?> cls) {
+        Class<?> checked = running.get().peek();
+        return checked != null ? checked : cls;
+    }
+
+    private ClassMetrics metrics(Class<?> cls) {
+        String name = cls.getName();
+        ClassMetrics metrics = classes.get(name);
+        if (metrics == null) {
+            metrics = new ClassMetrics();
+            ClassMetrics previous = classes.putIfAbsent(name, metrics);
+            if (previous != null) {
+                metrics = previous;
+            }
+        }
+        return metrics;
+    }
+
+    private Map<String, ClassMetrics> sorted() {
+        return new TreeMap<>(classes);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * The phases of a check that are timed separately.
+     */
+    public enum Phase {
+        /**
+         * A complete check of a class, from {@link CheckMarkListener#classStarted(Class, CheckKind)} to
+         * {@link CheckMarkListener#classFinished(Class, CheckKind, long)}.
+         */
+        CHECK,
+
+        /**
+         * Discovery of the bean properties and fields of a class.
+         */
+        INTROSPECTION,
+
+        /**
+         * {@link Reflection#createInstance(Class)}.
+         */
+        CREATE_INSTANCE,
+
+        /**
+         * {@link Reflection#dumbMock(Class, long)}.
+         */
+        DUMB_MOCK,
+
+        /**
+         * The checks of single properties and fields, which mostly run the getters, setters and equals under test.
+         */
+        PROPERTY
+    }
+
+    /**
+     * A thread-safe latency histogram with power of two buckets. Percentiles are reported as the upper bound of the
+     * bucket they fall in, so they are accurate within a factor of two.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram() {
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(value)));
+            count.incrementAndGet();
+            total.addAndGet(value);
+            for (long current = min.get(); value < current && !min.compareAndSet(current, value); ) {
+                current = min.get();
+            }
+            for (long current = max.get(); value > current && !max.compareAndSet(current, value); ) {
+                current = max.get();
+            }
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotalNanos() {
+            return total.get();
+        }
+
+        public long getMinNanos() {
+            return count.get() == 0 ? 0 : min.get();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        /**
+         * @param percentile The percentile, between 0 and 100.
+         * @return The upper bound of the bucket the given percentile falls in, capped by the maximum.
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= threshold) {
+                    return Math.min(i >= BUCKETS - 2 ? Long.MAX_VALUE : (2L << i) - 1, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+    }
+
+    private static final class ClassMetrics {
+        private final Histogram[] histograms = new Histogram[Phase.values().length];
+        private final AtomicLong failures = new AtomicLong();
+
+        private ClassMetrics() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram();
+            }
+        }
+
+        private Histogram histogram(Phase phase) {
+            return histograms[phase.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * The common ways a HotSpot JVM lays out objects on the heap, as used by {@link CheckMark#analyzeFootprint(Class,
+ * ObjectLayout)} to estimate the size of instances. All layouts align objects to 8 bytes.
+ */
+public enum ObjectLayout {
+    /**
+     * A 64 bit JVM with compressed object pointers and compressed class pointers, the default for heaps smaller than
+     * 32 GB: a 12 byte object header and 4 byte references.
+     */
+    COMPRESSED_OOPS(12, 16, 4),
+
+    /**
+     * A 64 bit JVM without compressed object pointers, as used for heaps of 32 GB and larger: a 16 byte object header
+     * and 8 byte references.
+     */
+    UNCOMPRESSED_OOPS(16, 20, 8),
+
+    /**
+     * A 32 bit JVM: an 8 byte object header and 4 byte references.
+     */
+    THIRTY_TWO_BIT(8, 12, 4);
+
+    static final int ALIGNMENT = 8;
+
+    private final int headerBytes;
+    private final int arrayHeaderBytes;
+    private final int referenceBytes;
+
+    ObjectLayout(int headerBytes, int arrayHeaderBytes, int referenceBytes) {
+        this.headerBytes = headerBytes;
+        this.arrayHeaderBytes = arrayHeaderBytes;
+        this.referenceBytes = referenceBytes;
+    }
+
+    /**
+     * @return The number of bytes the header of an object takes, before its first field.
+     */
+    public int getHeaderBytes() {
+        return headerBytes;
+    }
+
+    /**
+     * @return The number of bytes the header of an array takes, including its length, before its first element.
+     */
+    public int getArrayHeaderBytes() {
+        return arrayHeaderBytes;
+    }
+
+    /**
+     * @return The number of bytes a reference field or array element takes.
+     */
+    public int getReferenceBytes() {
+        return referenceBytes;
+    }
+
+    /**
+     * @param type The type of a field or array element.
+     * @return The number of bytes a field or array element of the given type takes.
+     */
+    int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return referenceBytes;
+    }
+
+    /**
+     * @param type   The array type.
+     * @param length The number of elements.
+     * @return The number of bytes an array of the given type and length takes.
+     */
+    long arraySize(Class<?> type, int length) {
+        int element = sizeOf(type.getComponentType());
+        return align(align(arrayHeaderBytes, element) + (long) length * element, ALIGNMENT);
+    }
+
+    static long align(long offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+}
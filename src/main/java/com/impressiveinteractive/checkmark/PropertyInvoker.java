@@ -0,0 +1,68 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * Invokes the accessor, mutator and backing field of a single bean property. Implementations are created once per
+ * property by an {@link InvocationEngine} and are immutable, so they can be shared between threads.
+ * <p/>
+ * Exceptions thrown by the accessor or mutator itself are always wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}, regardless of the engine.
+ */
+interface PropertyInvoker {
+    /**
+     * Call the accessor on the given instance.
+     *
+     * @param instance The instance to call the accessor on.
+     * @return The (boxed) value returned by the accessor.
+     * @throws ReflectiveOperationException Thrown when the accessor could not be called or threw an exception.
+     */
+    Object read(Object instance) throws ReflectiveOperationException;
+
+    /**
+     * Call the mutator on the given instance.
+     *
+     * @param instance The instance to call the mutator on.
+     * @param value    The (boxed) value to pass to the mutator.
+     * @throws ReflectiveOperationException Thrown when the mutator could not be called or threw an exception.
+     */
+    void write(Object instance, Object value) throws ReflectiveOperationException;
+
+    /**
+     * Read the backing field of the given instance.
+     *
+     * @param instance The instance to read the field from.
+     * @return The (boxed) value of the field.
+     * @throws ReflectiveOperationException Thrown when the field could not be read.
+     */
+    Object get(Object instance) throws ReflectiveOperationException;
+
+    /**
+     * Write the backing field of the given instance.
+     *
+     * @param instance The instance to write the field on.
+     * @param value    The (boxed) value to write.
+     * @throws ReflectiveOperationException Thrown when the field could not be written.
+     */
+    void set(Object instance, Object value) throws ReflectiveOperationException;
+
+    /**
+     * Check whether the accessor returns the expected value. Primitive values are compared by value, references by
+     * identity.
+     *
+     * @param instance The instance to call the accessor on.
+     * @param expected The expected value.
+     * @return True if the accessor returns the expected value.
+     * @throws ReflectiveOperationException Thrown when the accessor could not be called or threw an exception.
+     */
+    boolean readMatches(Object instance, Object expected) throws ReflectiveOperationException;
+
+    /**
+     * Check whether the backing field holds the expected value. Primitive values are compared by value, references by
+     * identity.
+     *
+     * @param instance The instance to read the field from.
+     * @param expected The expected value.
+     * @return True if the field holds the expected value.
+     * @throws ReflectiveOperationException Thrown when the field could not be read.
+     */
+    boolean fieldMatches(Object instance, Object expected) throws ReflectiveOperationException;
+}
@@ -2,19 +2,14 @@ package com.impressiveinteractive.checkmark;
 
 import org.mockito.Mockito;
 
-import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Set;
 
-import static java.util.Arrays.asList;
-
 /**
  * Utility class to help with common reflection tasks.
  */
@@ -25,19 +20,53 @@ public final class Reflection {
      */
     public static final long DEFAULT_SEED = 1l;
 
+    /**
+     * The default of {@link #getMaxInstanceDepth()}.
+     */
+    public static final int DEFAULT_MAX_INSTANCE_DEPTH = 10;
+
     private static final String NO_VALID_CONSTRUCTOR_FAIL_MESSAGE =
             "No valid constructor for %s among the %d candidates.";
     private static final String CREATE_ABSTRACT_FAIL_MESSAGE =
             "Can not create an instance for an interface or abstract class %s.";
-    private static final String UNKNOWN_PRIMITIVE_MESSAGE = "Not a known primitive: %s";
+
+    private static final ClassValue<ConstructorCache> CONSTRUCTORS = new ClassValue<ConstructorCache>() {
+        @Override
+        protected ConstructorCache computeValue(Class<?> type) {
+            return new ConstructorCache();
+        }
+    };
+
+    private static volatile int maxInstanceDepth = DEFAULT_MAX_INSTANCE_DEPTH;
 
     private Reflection() {
         throw new AssertionError("Private constructor.");
     }
 
+    /**
+     * Set how deep {@link #createInstance(Class)} nests the instances of final types it creates for constructor
+     * arguments. Deeper instances are replaced by null.
+     *
+     * @param depth The maximum depth, where 0 means that no argument of a final type is built at all.
+     */
+    public static void setMaxInstanceDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("The maximum instance depth can not be negative.");
+        }
+        maxInstanceDepth = depth;
+    }
+
+    /**
+     * @return The maximum depth of the instances {@link #createInstance(Class)} builds for constructor arguments.
+     */
+    public static int getMaxInstanceDepth() {
+        return maxInstanceDepth;
+    }
+
     /**
      * Create a "dumb" mock. A dumb mock is <strong><em>any</em></strong> kind of non-null value. Different types will
-     * return different objects which can be a Mockito compatible mock, but this is not guaranteed.
+     * return different objects which are usually not Mockito compatible mocks. Use {@link Mockito#mock(Class)}
+     * directly when an actual mock is needed.
      *
      * @param cls The class to get a dumb mock for.
      * @param <T> The expected type.
@@ -51,14 +80,21 @@ public final class Reflection {
 
     /**
      * Create a "dumb" mock. A dumb mock is <strong><em>any</em></strong> kind of non-null value. Different types will
-     * return different objects which can be a Mockito compatible mock, but this is not guaranteed. More specifically:
+     * return different objects which are usually not Mockito compatible mocks. More specifically:
      * <ul>
-     * <li>Primitive types will return a boxed primitive value generated from the given seed;</li>
+     * <li>Primitive types and their wrappers will return a boxed primitive value generated from the given seed;</li>
+     * <li>Strings will return the seed as text;</li>
      * <li>Array types will return an empty array of the given type;</li>
-     * <li>Enumeration types will return one of its values influenced by the given seed;</li>
-     * <li>Final types will return an instance created by {@link #createInstance(Class)};</li>
-     * <li>All other types will be handled by {@link Mockito#mock(Class)}.</li>
+     * <li>Enumeration types will return one of its constants influenced by the given seed;</li>
+     * <li>Other final types will return an instance created by {@link #createInstance(Class)}. While an instance is
+     * being created, the final values for its constructor arguments are shared per type and seed, and are null where
+     * the arguments form a cycle or nest deeper than {@link #getMaxInstanceDepth()};</li>
+     * <li>All other types will return a sentinel: a cached, stateless instance that only has an identity. The same
+     * sentinel is returned for the same type and seed. Interfaces get a JDK proxy, other classes a
+     * {@link Mockito#mock(Class)}.</li>
      * </ul>
+     * Values of primitives, their wrappers and strings are pooled for low seeds. Use the primitive specific methods like
+     * {@link #dumbInt(long)} to get the same values without boxing.
      *
      * @param cls  The class to get a dumb mock for.
      * @param seed A seed used for the generation of {@link String} and primitive values.
@@ -66,22 +102,139 @@ public final class Reflection {
      * @return The dumb mock of the given type.
      * @throws ReflectiveOperationException Thrown when creating an instance was not possible.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T dumbMock(Class<T> cls, long seed) throws ReflectiveOperationException {
-        if (cls.isPrimitive()) {
-            return (T) createPrimitive(cls, seed);
-        } else if (cls.isArray()) {
-            return (T) Array.newInstance(cls.getComponentType(), 0);
-        } else if (cls.isEnum()) {
-            Field[] fields = cls.getFields();
-            Field selection = fields[((int) (seed % fields.length))];
-            return (T) selection.get(selection.getName());
-        } else if (cls == String.class) {
-            return (T) Long.toString(seed);
-        } else if (Modifier.isFinal(cls.getModifiers())) {
-            return createInstance(cls);
-        }
-        return Mockito.mock(cls);
+        long start = Listeners.start();
+        T mock = createDumbMock(cls, seed);
+        Listeners.mockCreated(cls, start);
+        return mock;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T createDumbMock(Class<T> cls, long seed) throws ReflectiveOperationException {
+        return (T) DumbValues.value(cls, seed);
+    }
+
+    /**
+     * Create the value the accessor or mutator check passes. The checks compare that value by identity, so it is never
+     * an instance {@link #dumbMock(Class, long)} returns, where the type allows that: a value the checked instance
+     * already holds, for example because its constructor was given it, would let a mutator that does nothing pass.
+     * Strings and boxed primitives are created anew, instances of final types are never shared, and sentinels are
+     * cached under {@link Sentinels#checkValue(Class, CheckKind, long) seeds of their own} for each check.
+     *
+     * @param cls   The class to get a value for.
+     * @param check The check passing the value, {@link CheckKind#ACCESSORS} or {@link CheckKind#MUTATORS}.
+     * @param seed  A seed used for the generation of {@link String} and primitive values.
+     * @param <T>   The expected type.
+     * @return The value of the given type.
+     * @throws ReflectiveOperationException Thrown when creating an instance was not possible.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T checkValue(Class<T> cls, CheckKind check, long seed) throws ReflectiveOperationException {
+        long start = Listeners.start();
+        T mock = (T) DumbValues.checkValue(cls, check, seed);
+        Listeners.mockCreated(cls, start);
+        return mock;
+    }
+
+    /**
+     * Copy a dumb mock: strings and boxed primitives are created again, so that the copy is equal but not the same
+     * instance. Equals usually returns true at once for the same instance, so a pair of instances that shares its
+     * field values never compares those values. Other dumb mocks are returned as they are.
+     *
+     * @param cls  The class the dumb mock was created for.
+     * @param seed The seed the dumb mock was created with.
+     * @param mock The dumb mock returned by {@link #dumbMock(Class, long)}.
+     * @param <T>  The expected type.
+     * @return The equal dumb mock.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T equalDumbMock(Class<T> cls, long seed, T mock) {
+        long start = Listeners.start();
+        T copy = (T) DumbValues.copy(cls, seed, mock);
+        Listeners.mockCreated(cls, start);
+        return copy;
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for boolean and {@link Boolean}, without boxing. The value is
+     * true for odd seeds and false for even seeds.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static boolean dumbBoolean(long seed) {
+        return DumbValues.booleanValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for byte and {@link Byte}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static byte dumbByte(long seed) {
+        return DumbValues.byteValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for char and {@link Character}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static char dumbChar(long seed) {
+        return DumbValues.charValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for short and {@link Short}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static short dumbShort(long seed) {
+        return DumbValues.shortValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for int and {@link Integer}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static int dumbInt(long seed) {
+        return DumbValues.intValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for long and {@link Long}, without boxing. This is the seed
+     * itself.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static long dumbLong(long seed) {
+        return seed;
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for float and {@link Float}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static float dumbFloat(long seed) {
+        return DumbValues.floatValue(seed);
+    }
+
+    /**
+     * The value {@link #dumbMock(Class, long)} returns for double and {@link Double}, without boxing.
+     *
+     * @param seed The seed to generate the value from.
+     * @return The generated value.
+     */
+    public static double dumbDouble(long seed) {
+        return DumbValues.doubleValue(seed);
     }
 
     /**
@@ -90,34 +243,107 @@ public final class Reflection {
      * </p>
      * Enumeration types are currently also not supported. Enumeration testing has not been thought through at this
      * point.
+     * </p>
+     * The constructor that succeeded first is remembered per class, so later calls invoke it directly. Classes for
+     * which no constructor succeeded are remembered as well and fail immediately. Neither outcome is remembered when
+     * null was passed for a cycle or beyond the maximum depth, since a constructor that failed because of it may work
+     * later.
+     * </p>
+     * Instances of final types that are needed as constructor arguments, directly or further down, are built once per
+     * type and seed and shared within the graph of the returned instance. Where the constructors form a cycle, or where
+     * the graph gets deeper than {@link #getMaxInstanceDepth()}, null is passed instead.
      *
      * @param cls The class to create an instance for.
      * @return An instance of the given class.
      * @throws ReflectiveOperationException
+     * @see #resolveConstructors(Iterable)
      */
-    @SuppressWarnings("unchecked")
     public static <T> T createInstance(Class<T> cls) throws ReflectiveOperationException {
+        long start = Listeners.start();
+        InstanceGraph graph = InstanceGraph.open(cls);
+        try {
+            T instance = instantiate(cls);
+            Listeners.instanceCreated(cls, start);
+            return instance;
+        } finally {
+            InstanceGraph.close(graph);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T instantiate(Class<T> cls) throws ReflectiveOperationException {
         if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers())) {
             throw new IllegalArgumentException(String.format(CREATE_ABSTRACT_FAIL_MESSAGE, cls));
         } else if (cls.isEnum()) {
             throw new UnsupportedOperationException("Enumeration types are currently not supported.");
         }
 
-        List<Constructor<?>> constructors = new LinkedList<>(asList(cls.getDeclaredConstructors()));
-        Collections.sort(constructors, new ConstructorLengthComparator());
+        ConstructorCache cache = CONSTRUCTORS.get(cls);
+        ConstructorRecipe recipe = cache.recipe;
+        if (recipe != null && recipe.constructor != null) {
+            try {
+                return (T) recipe.constructor.newInstance(arguments(recipe.parameters));
+            } catch (ReflectiveOperationException e) {
+                // The remembered constructor no longer works, resolve again
+            }
+        } else if (recipe != null) {
+            throw new IllegalArgumentException(String.format(NO_VALID_CONSTRUCTOR_FAIL_MESSAGE, cls,
+                    recipe.candidates));
+        }
+        return (T) resolveConstructor(cls, cache);
+    }
+
+    /**
+     * Resolve and remember the constructor {@link #createInstance(Class)} uses for each of the given classes, so that
+     * later calls to {@link #createInstance(Class)} for these classes are direct constructor calls. Interfaces,
+     * abstract classes, enumerations and classes without a valid constructor are skipped.
+     *
+     * @param classes The classes to resolve the constructors for.
+     * @return The number of classes for which a valid constructor is known.
+     */
+    public static int resolveConstructors(Iterable<? extends Class<?>> classes) {
+        int resolved = 0;
+        for (Class<?> cls : classes) {
+            try {
+                createInstance(cls);
+                resolved++;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Skip, the failure is remembered where possible
+            }
+        }
+        return resolved;
+    }
+
+    private static Object resolveConstructor(Class<?> cls, ConstructorCache cache) throws ReflectiveOperationException {
+        Constructor<?>[] constructors = cls.getDeclaredConstructors();
+        Arrays.sort(constructors, new ConstructorLengthComparator());
+        // Also counts the placeholders that made earlier constructors fail
+        int placeholders = InstanceGraph.placeholders();
         for (Constructor<?> constructor : constructors) {
             Class<?>[] parameters = constructor.getParameterTypes();
-            Object[] arguments = new Object[parameters.length];
-            for (int i = 0; i < parameters.length; i++) {
-                arguments[i] = dumbMock(parameters[i]);
-            }
+            Object[] arguments = arguments(parameters);
             try {
-                return (T) constructor.newInstance(arguments);
+                Object instance = constructor.newInstance(arguments);
+                if (InstanceGraph.placeholders() == placeholders) {
+                    cache.recipe = new ConstructorRecipe(constructor, parameters, constructors.length);
+                }
+                return instance;
             } catch (ReflectiveOperationException e) {
                 // Ignore, try another constructor
             }
         }
-        throw new IllegalArgumentException(String.format(NO_VALID_CONSTRUCTOR_FAIL_MESSAGE, cls, constructors.size()));
+        if (InstanceGraph.placeholders() == placeholders) {
+            cache.recipe = new ConstructorRecipe(null, null, constructors.length);
+        }
+        throw new IllegalArgumentException(String.format(NO_VALID_CONSTRUCTOR_FAIL_MESSAGE, cls, constructors.length));
+    }
+
+    private static Object[] arguments(Class<?>[] parameters) throws ReflectiveOperationException {
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = dumbMock(parameters[i]);
+        }
+        return arguments;
     }
 
     /**
@@ -132,17 +358,30 @@ public final class Reflection {
      * @throws NoSuchFieldException Thrown when no such field can be found in the class hierarchy.
      */
     public static Field getField(Class<?> cls, String name) throws NoSuchFieldException {
-        try {
-            return cls.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
-            Class<?> superclass = cls.getSuperclass();
-            if (superclass != null) {
-                return getField(superclass, name);
-            } else {
-                throw new NoSuchFieldException(String.format("Could not find field %s.%s.",
-                        cls.getCanonicalName(), name));
+        Field field = findField(cls, name);
+        if (field == null) {
+            throw new NoSuchFieldException(String.format("Could not find field %s.%s.", cls.getCanonicalName(), name));
+        }
+        return field;
+    }
+
+    /**
+     * Find the {@link Field} for the given name in the hierarchy of the given {@link Class}. Unlike
+     * {@link #getField(Class, String)} this does not use exceptions to walk the hierarchy.
+     *
+     * @param cls  The {@link Class} to find the {@link Field} in.
+     * @param name The name of the {@link Field} to find.
+     * @return The {@link Field}, or null if it is not part of the class hierarchy.
+     */
+    static Field findField(Class<?> cls, String name) {
+        for (Class<?> current = cls; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return field;
+                }
             }
         }
+        return null;
     }
 
     /**
@@ -169,25 +408,27 @@ public final class Reflection {
         return allFields;
     }
 
-    private static Object createPrimitive(Class<?> cls, long seed) {
-        if (cls.equals(boolean.class)) {
-            return Boolean.TRUE;
-        } else if (cls.equals(byte.class)) {
-            return (byte) seed;
-        } else if (cls.equals(char.class)) {
-            return (char) (seed % 0x10000);
-        } else if (cls.equals(short.class)) {
-            return (short) seed;
-        } else if (cls.equals(int.class)) {
-            return (int) seed;
-        } else if (cls.equals(long.class)) {
-            return seed;
-        } else if (cls.equals(float.class)) {
-            return (float) seed;
-        } else if (cls.equals(double.class)) {
-            return (double) seed;
+    /**
+     * Holds the outcome of the constructor resolution for a single class, which is unknown until the first resolution.
+     */
+    private static final class ConstructorCache {
+        private volatile ConstructorRecipe recipe;
+    }
+
+    /**
+     * Either the constructor that worked together with its parameter types, or the number of candidates that all
+     * failed.
+     */
+    private static final class ConstructorRecipe {
+        private final Constructor<?> constructor;
+        private final Class<?>[] parameters;
+        private final int candidates;
+
+        private ConstructorRecipe(Constructor<?> constructor, Class<?>[] parameters, int candidates) {
+            this.constructor = constructor;
+            this.parameters = parameters;
+            this.candidates = candidates;
         }
-        throw new IllegalArgumentException(String.format(UNKNOWN_PRIMITIVE_MESSAGE, cls));
     }
 
     private static class ConstructorLengthComparator implements Comparator<Constructor<?>> {
@@ -0,0 +1,65 @@
+package com.impressiveinteractive.checkmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * {@link PropertyInvoker} backed by plain reflection.
+ */
+final class ReflectionInvoker implements PropertyInvoker {
+    private final VerificationPlan.Property property;
+    private final Method readMethod;
+    private final Method writeMethod;
+    private final Field field;
+
+    ReflectionInvoker(VerificationPlan.Property property) {
+        this.property = property;
+        this.readMethod = property.getReadMethod();
+        this.writeMethod = property.getWriteMethod();
+        this.field = property.getField();
+    }
+
+    @Override
+    public Object read(Object instance) throws ReflectiveOperationException {
+        return readMethod.invoke(instance);
+    }
+
+    @Override
+    public void write(Object instance, Object value) throws ReflectiveOperationException {
+        writeMethod.invoke(instance, value);
+    }
+
+    @Override
+    public Object get(Object instance) throws ReflectiveOperationException {
+        return requireField().get(instance);
+    }
+
+    @Override
+    public void set(Object instance, Object value) throws ReflectiveOperationException {
+        requireField().set(instance, value);
+    }
+
+    @Override
+    public boolean readMatches(Object instance, Object expected) throws ReflectiveOperationException {
+        if (readMethod.getReturnType().isPrimitive()) {
+            return expected.equals(read(instance));
+        }
+        return expected == read(instance);
+    }
+
+    @Override
+    public boolean fieldMatches(Object instance, Object expected) throws ReflectiveOperationException {
+        if (requireField().getType().isPrimitive()) {
+            return expected.equals(get(instance));
+        }
+        return expected == get(instance);
+    }
+
+    private Field requireField() throws NoSuchFieldException {
+        if (field == null) {
+            throw new NoSuchFieldException(String.format("Could not find field %s.%s.",
+                    property.getOwner().getCanonicalName(), property.getName()));
+        }
+        return field;
+    }
+}
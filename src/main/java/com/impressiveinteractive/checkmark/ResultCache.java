@@ -0,0 +1,436 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers which checks passed on which classes, so that unchanged classes are not checked again by later runs. The
+ * cache is opt-in: enable it with {@link CheckMark#setResultCache(ResultCache)} or the {@value #SYSTEM_PROPERTY}
+ * system property.
+ * <p/>
+ * A class is keyed by a hash of its own bytecode and that of its superclasses (and of its generated
+ * {@link CheckMarkVerifier}, if any), together with a hash of CheckMark itself, the {@link CheckKind}, the
+ * {@link InvocationEngine}, the {@link CheckMark#isBytecodeShortcut() bytecode shortcut} setting and the options of
+ * the check, such as its {@link HashCodeThresholds}. Classes whose bytecode can not be read, like runtime generated
+ * classes, are never cached.
+ * <p/>
+ * Passed keys are appended to a single file of fixed size records, each with its own checksum. Appends take an
+ * exclusive {@link FileLock}, so any number of JVMs (like parallel Surefire forks) can share a store. The file is
+ * opened on the first append and kept open until the cache is {@link #close() closed}. A store with an unknown header
+ * is ignored and reset on the next append, and records with a wrong checksum are skipped; either way a corrupt store
+ * only costs cache misses.
+ */
+public final class ResultCache implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+    /**
+     * The system property holding the directory of the default cache. Caching is disabled when it is not set.
+     */
+    public static final String SYSTEM_PROPERTY = "checkmark.resultCache";
+
+    static final String FILE_NAME = "checkmark-results.bin";
+
+    private static final int MAGIC = 0x434d5243;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 20;
+
+    private static final String VERSION = version();
+    private static final byte[] NO_DIGEST = new byte[0];
+
+    /**
+     * In-process lock around all store access. File locks are held per JVM, so two caches on the same file in one
+     * JVM would otherwise fail with an {@link java.nio.channels.OverlappingFileLockException}.
+     */
+    private static final Object FILE_ACCESS = new Object();
+
+    private static final ClassValue<byte[]> DIGESTS = new ClassValue<byte[]>() {
+        @Override
+        protected byte[] computeValue(Class<?> type) {
+            MessageDigest digest = sha256();
+            try {
+                for (Class<?> current = type; current != null && current != Object.class;
+                     current = current.getSuperclass()) {
+                    if (!update(digest, current)) {
+                        return NO_DIGEST;
+                    }
+                }
+                CheckMarkVerifier verifier = Verifiers.forClass(type);
+                if (verifier != null && !update(digest, verifier.getClass())) {
+                    return NO_DIGEST;
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Could not read the bytecode of {}, it will not be cached.", type.getName(), e);
+                return NO_DIGEST;
+            }
+            return digest.digest();
+        }
+    };
+
+    private final Path file;
+    private final Set<Key> passed = Collections.newSetFromMap(new ConcurrentHashMap<Key, Boolean>());
+    private FileChannel channel;
+
+    private ResultCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the cache stored in the given directory, creating the directory when needed.
+     *
+     * @param directory The directory to keep the store in.
+     * @return The cache, holding all results recorded so far.
+     * @throws IOException Thrown when the directory could not be created or the store could not be read.
+     */
+    public static ResultCache open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ResultCache cache = new ResultCache(directory.resolve(FILE_NAME));
+        cache.load();
+        return cache;
+    }
+
+    /**
+     * @return The cache in the directory named by the {@value #SYSTEM_PROPERTY} system property, or null if it is not
+     * set or the cache could not be opened.
+     */
+    static ResultCache fromSystemProperty() {
+        String directory = System.getProperty(SYSTEM_PROPERTY);
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return open(Paths.get(directory.trim()));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not open the result cache in {}, caching is disabled.", directory, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The file holding the store.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return The number of passed results known to this cache.
+     */
+    public int size() {
+        return passed.size();
+    }
+
+    /**
+     * @param cls   The checked class.
+     * @param check The check.
+     * @return True if the check passed on exactly this version of the class before.
+     */
+    public boolean hasPassed(Class<?> cls, CheckKind check) {
+        return hasPassed(cls, check, "");
+    }
+
+    /**
+     * @param cls     The checked class.
+     * @param check   The check.
+     * @param options A description of the options the check ran with, like {@link HashCodeThresholds#toString()}.
+     * @return True if the check passed with the same options on exactly this version of the class before.
+     */
+    public boolean hasPassed(Class<?> cls, CheckKind check, String options) {
+        Key key = key(cls, check, options);
+        return key != null && passed.contains(key);
+    }
+
+    /**
+     * Record that the check passed on the class. This is written through to the store immediately. Failing to write
+     * is logged and otherwise ignored, since it only costs a cache miss later on.
+     *
+     * @param cls   The checked class.
+     * @param check The check that passed.
+     */
+    public void recordPassed(Class<?> cls, CheckKind check) {
+        recordPassed(cls, check, "");
+    }
+
+    /**
+     * Record that the check passed on the class with the given options.
+     *
+     * @param cls     The checked class.
+     * @param check   The check that passed.
+     * @param options A description of the options the check ran with, like {@link HashCodeThresholds#toString()}.
+     * @see #recordPassed(Class, CheckKind)
+     */
+    public void recordPassed(Class<?> cls, CheckKind check, String options) {
+        Key key = key(cls, check, options);
+        if (key == null || !passed.add(key)) {
+            return;
+        }
+        try {
+            append(key);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not write to the result cache {}.", file, e);
+        }
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        synchronized (FILE_ACCESS) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    LOGGER.warn("Ignoring result cache {}, it is too large.", file);
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Keep reading until the whole store is in memory.
+                }
+                buffer.flip();
+                read(buffer);
+            }
+        }
+    }
+
+    private void read(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            LOGGER.debug("Ignoring result cache {}, it has an unknown header.", file);
+            return;
+        }
+        while (buffer.remaining() >= RECORD_SIZE) {
+            long high = buffer.getLong();
+            long low = buffer.getLong();
+            int checksum = buffer.getInt();
+            if (checksum == checksum(high, low)) {
+                passed.add(new Key(high, low));
+            }
+        }
+    }
+
+    private void append(Key key) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(key.high).putLong(key.low).putInt(checksum(key.high, key.low)).flip();
+
+        synchronized (FILE_ACCESS) {
+            if (channel == null) {
+                channel = FileChannel.open(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            try (FileLock ignored = channel.lock()) {
+                long position = validEnd(channel);
+                while (record.hasRemaining()) {
+                    position += channel.write(record, position);
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Close the store if it was opened by an append. The results stay known to this cache, and a later append opens
+     * the store again.
+     *
+     * @throws IOException Thrown when the store could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (FILE_ACCESS) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } finally {
+                    channel = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Find where the next record should go, resetting a store with a bad header and cutting off a partially written
+     * record. Must be called while holding the exclusive lock.
+     */
+    private static long validEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (size >= HEADER_SIZE) {
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Read the complete header.
+            }
+            header.flip();
+            if (header.getInt() == MAGIC && header.getInt() == FORMAT) {
+                long end = size - (size - HEADER_SIZE) % RECORD_SIZE;
+                if (end != size) {
+                    channel.truncate(end);
+                }
+                return end;
+            }
+        }
+        channel.truncate(0);
+        header.clear();
+        header.putInt(MAGIC).putInt(FORMAT).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+        return position;
+    }
+
+    private static Key key(Class<?> cls, CheckKind check, String options) {
+        byte[] classDigest = DIGESTS.get(cls);
+        if (classDigest == NO_DIGEST) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(check.name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(CheckMark.getInvocationEngine().name().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update((byte) (CheckMark.isBytecodeShortcut() ? 1 : 0));
+        digest.update(options.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(classDigest);
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new Key(hash.getLong(), hash.getLong());
+    }
+
+    private static boolean update(MessageDigest digest, Class<?> cls) throws IOException {
+        try (InputStream in = cls.getResourceAsStream('/' + cls.getName().replace('.', '/') + ".class")) {
+            if (in == null) {
+                return false;
+            }
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(long high, long low) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(16).putLong(high).putLong(low).array());
+        return (int) crc.getValue();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM.", e);
+        }
+    }
+
+    /**
+     * Identify the CheckMark build by a hash of the jar or class directory it was loaded from, so that a change to any
+     * of its classes invalidates the cached results. When that can not be read, the version is unique to this JVM and
+     * results are only remembered until it exits.
+     */
+    private static String version() {
+        CodeSource source = CheckMark.class.getProtectionDomain().getCodeSource();
+        if (source != null && source.getLocation() != null) {
+            try {
+                return version(Paths.get(source.getLocation().toURI()));
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                LOGGER.debug("Could not read the classes of CheckMark, results are kept for this run only.", e);
+            }
+        }
+        return "unknown-" + UUID.randomUUID();
+    }
+
+    /**
+     * @param codeSource The jar or class directory CheckMark was loaded from.
+     * @return The hash of the jar, or of the names and contents of all files in the directory.
+     * @throws IOException Thrown when the code source could not be read.
+     */
+    static String version(Path codeSource) throws IOException {
+        final MessageDigest digest = sha256();
+        if (Files.isDirectory(codeSource)) {
+            final List<Path> files = new ArrayList<>();
+            Files.walkFileTree(codeSource, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            Collections.sort(files);
+            for (Path file : files) {
+                digest.update(codeSource.relativize(file).toString().replace('\\', '/')
+                        .getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(Files.readAllBytes(file));
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(codeSource)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+    /**
+     * The first 128 bits of the SHA-256 hash of a cache key.
+     */
+    private static final class Key {
+        private final long high;
+        private final long low;
+
+        private Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (high ^ (high >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return high == other.high && low == other.low;
+        }
+    }
+}
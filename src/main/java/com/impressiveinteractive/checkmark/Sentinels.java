@@ -0,0 +1,169 @@
+package com.impressiveinteractive.checkmark;
+
+import org.mockito.Mockito;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates sentinels: cheap, stateless stand-ins for interfaces and non-final classes that are only used for their
+ * identity. A sentinel answers {@link Object#equals(Object)} and {@link Object#hashCode()} by identity and returns
+ * null, zero or false from every other method.
+ * <p/>
+ * Interfaces get a JDK {@link Proxy} that records nothing. Other classes can not be subclassed with the JDK alone, so
+ * they get a {@link Mockito#mock(Class)}, which answers the same way. Sentinels are cached, one instance per type and
+ * seed, so every sentinel is created only once.
+ * <p/>
+ * The seeds are split in ranges. Dumb mocks, and with them the constructor arguments of
+ * {@link Reflection#createInstance(Class)}, only use seeds without the highest bit set. The values the accessor and
+ * mutator checks pass are taken from {@link #checkValue(Class, CheckKind, long) ranges of their own}, so they are
+ * never the same instance as a value the checked instance got from its constructor, and the accessor and mutator
+ * checks never pass each other's value.
+ */
+final class Sentinels {
+    private static final String TO_STRING_FORMAT = "Sentinel[%s@%x]";
+
+    private static final long CHECK_SEEDS = Long.MIN_VALUE;
+    private static final long MUTATOR_SEEDS = CHECK_SEEDS | 1L << 62;
+    private static final long CHECK_SEED_MASK = (1L << 62) - 1;
+
+    private static final ClassValue<Factory> FACTORIES = new ClassValue<Factory>() {
+        @Override
+        protected Factory computeValue(Class<?> type) {
+            return new Factory(type);
+        }
+    };
+
+    private Sentinels() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    /**
+     * Get the sentinel for the given type and seed. The same instance is returned for the same type and seed.
+     *
+     * @param type The interface or non-final class to get a sentinel for.
+     * @param seed The seed distinguishing sentinels of the same type.
+     * @param <T>  The expected type.
+     * @return The sentinel.
+     * @throws ReflectiveOperationException Thrown when the sentinel could not be instantiated.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T sentinel(Class<T> type, long seed) throws ReflectiveOperationException {
+        return (T) FACTORIES.get(type).get(seed & Long.MAX_VALUE);
+    }
+
+    /**
+     * Get the sentinel the accessor or mutator check passes for the given type and seed. It is cached like any other
+     * sentinel, but under a seed that {@link #sentinel(Class, long)} never uses.
+     *
+     * @param type  The interface or non-final class to get a sentinel for.
+     * @param check The check the value is for, {@link CheckKind#MUTATORS} or any other for the accessor check.
+     * @param seed  The seed of the check.
+     * @param <T>   The expected type.
+     * @return The sentinel.
+     * @throws ReflectiveOperationException Thrown when the sentinel could not be instantiated.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T checkValue(Class<T> type, CheckKind check, long seed) throws ReflectiveOperationException {
+        long range = check == CheckKind.MUTATORS ? MUTATOR_SEEDS : CHECK_SEEDS;
+        return (T) FACTORIES.get(type).get(range | seed & CHECK_SEED_MASK);
+    }
+
+    /**
+     * @param object The object to check.
+     * @return True if the object is a sentinel, or any other Mockito mock.
+     */
+    static boolean isSentinel(Object object) {
+        if (Proxy.isProxyClass(object.getClass())) {
+            return Proxy.getInvocationHandler(object) instanceof Handler;
+        }
+        return Mockito.mockingDetails(object).isMock();
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0F;
+        }
+        return 0D;
+    }
+
+    /**
+     * Creates and caches the sentinels for a single type.
+     */
+    private static final class Factory {
+        private final Class<?> type;
+        private final ConcurrentMap<Long, Object> instances = new ConcurrentHashMap<>();
+        private volatile boolean proxy;
+
+        private Factory(Class<?> type) {
+            this.type = type;
+            this.proxy = type.isInterface();
+        }
+
+        private Object get(long seed) throws ReflectiveOperationException {
+            Object instance = instances.get(seed);
+            if (instance == null) {
+                instance = create();
+                Object previous = instances.putIfAbsent(seed, instance);
+                if (previous != null) {
+                    instance = previous;
+                }
+            }
+            return instance;
+        }
+
+        private Object create() {
+            if (proxy) {
+                try {
+                    return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Handler(type));
+                } catch (IllegalArgumentException e) {
+                    // Not visible to a proxy class, mocked from now on
+                    proxy = false;
+                }
+            }
+            return Mockito.mock(type);
+        }
+    }
+
+    /**
+     * Answers calls on interface sentinels.
+     */
+    private static final class Handler implements InvocationHandler {
+        private final Class<?> type;
+
+        private Handler(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] arguments) {
+            String name = method.getName();
+            int count = method.getParameterTypes().length;
+            if (name.equals("equals") && count == 1) {
+                return proxy == arguments[0];
+            } else if (name.equals("hashCode") && count == 0) {
+                return System.identityHashCode(proxy);
+            } else if (name.equals("toString") && count == 0) {
+                return String.format(TO_STRING_FORMAT, type.getName(), System.identityHashCode(proxy));
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+}
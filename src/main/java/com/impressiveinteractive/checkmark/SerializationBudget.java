@@ -0,0 +1,128 @@
+package com.impressiveinteractive.checkmark;
+
+/**
+ * The codec and limits {@link CheckMark#testSerialization(Class, SerializationBudget)} uses. Instances are immutable;
+ * start from {@link #defaults()} and change single settings with the <em>with</em> methods.
+ * <p/>
+ * <pre>
+ * CheckMark.testSerialization(Order.class, SerializationBudget.defaults().withMaxBytes(512).withMaxNanos(20000));
+ * </pre>
+ */
+public final class SerializationBudget {
+    private static final SerializationBudget DEFAULTS = new SerializationBudget(new JavaSerializationCodec(),
+            Long.MAX_VALUE, Double.MAX_VALUE, CostBudget.DEFAULT_WARMUP_MILLIS, CostBudget.DEFAULT_BATCHES);
+
+    private final SerializationCodec codec;
+    private final long maxBytes;
+    private final double maxNanos;
+    private final long warmupMillis;
+    private final int batches;
+
+    private SerializationBudget(SerializationCodec codec, long maxBytes, double maxNanos, long warmupMillis,
+                                int batches) {
+        if (codec == null) {
+            throw new IllegalArgumentException("The codec can not be null.");
+        } else if (maxBytes <= 0 || maxNanos <= 0) {
+            throw new IllegalArgumentException("The budget has to be positive.");
+        } else if (warmupMillis < 0) {
+            throw new IllegalArgumentException("The warm-up time can not be negative.");
+        } else if (batches < 1) {
+            throw new IllegalArgumentException("At least one batch has to be measured.");
+        }
+        this.codec = codec;
+        this.maxBytes = maxBytes;
+        this.maxNanos = maxNanos;
+        this.warmupMillis = warmupMillis;
+        this.batches = batches;
+    }
+
+    /**
+     * The default settings: {@link JavaSerializationCodec Java serialization}, no limits, and the warm-up time and
+     * number of batches of a {@link CostBudget}. The size and time are measured and logged, but never fail.
+     *
+     * @return The default settings.
+     */
+    public static SerializationBudget defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @return The codec instances are encoded and decoded with.
+     */
+    public SerializationCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return The highest allowed number of bytes of an encoded instance.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return The highest allowed number of nanoseconds to encode and decode an instance.
+     */
+    public double getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The time spent on round trips before they are timed.
+     */
+    public long getWarmupMillis() {
+        return warmupMillis;
+    }
+
+    /**
+     * @return The number of timed batches of round trips, of which the median is used.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * @param codec The codec to encode and decode instances with.
+     * @return A copy of this budget with the given codec.
+     */
+    public SerializationBudget withCodec(SerializationCodec codec) {
+        return new SerializationBudget(codec, maxBytes, maxNanos, warmupMillis, batches);
+    }
+
+    /**
+     * @param maxBytes The highest allowed number of bytes of an encoded instance, at least 1.
+     * @return A copy of this budget with the given size limit.
+     */
+    public SerializationBudget withMaxBytes(long maxBytes) {
+        return new SerializationBudget(codec, maxBytes, maxNanos, warmupMillis, batches);
+    }
+
+    /**
+     * @param maxNanos The highest allowed number of nanoseconds for a round trip, more than 0.
+     * @return A copy of this budget with the given time limit.
+     */
+    public SerializationBudget withMaxNanos(double maxNanos) {
+        return new SerializationBudget(codec, maxBytes, maxNanos, warmupMillis, batches);
+    }
+
+    /**
+     * @param warmupMillis The time spent on round trips before they are timed, at least 0.
+     * @return A copy of this budget with the given warm-up time.
+     */
+    public SerializationBudget withWarmupMillis(long warmupMillis) {
+        return new SerializationBudget(codec, maxBytes, maxNanos, warmupMillis, batches);
+    }
+
+    /**
+     * @param batches The number of timed batches of round trips, at least 1. The median batch is used.
+     * @return A copy of this budget with the given number of batches.
+     */
+    public SerializationBudget withBatches(int batches) {
+        return new SerializationBudget(codec, maxBytes, maxNanos, warmupMillis, batches);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SerializationBudget[codec=%s, maxBytes=%d, maxNanos=%s]", codec, maxBytes, maxNanos);
+    }
+}
@@ -0,0 +1,30 @@
+package com.impressiveinteractive.checkmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Encodes instances to bytes and decodes them again, for
+ * {@link CheckMark#testSerialization(Class, SerializationBudget)} to check and measure. The default is
+ * {@link JavaSerializationCodec}; implement this to measure another wire format the same way.
+ * <p/>
+ * The streams are in-memory buffers that are reused for every round trip, so an implementation should not close or
+ * keep them. Implementations should override {@link Object#toString()} with the name of the format, which is used in
+ * the messages.
+ */
+public interface SerializationCodec {
+    /**
+     * @param instance The instance to encode.
+     * @param out      The stream to write the encoded instance to.
+     * @throws IOException Thrown when the instance could not be encoded.
+     */
+    void encode(Object instance, OutputStream out) throws IOException;
+
+    /**
+     * @param in The stream holding exactly one encoded instance.
+     * @return The decoded instance.
+     * @throws IOException Thrown when the instance could not be decoded.
+     */
+    Object decode(InputStream in) throws IOException;
+}
@@ -0,0 +1,349 @@
+package com.impressiveinteractive.checkmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The encoded size and round-trip time of an instance of a class, as returned by
+ * {@link CheckMark#testSerialization(Class, SerializationBudget)}.
+ * <p/>
+ * The instance has its fields of primitives, their wrappers, strings, arrays and enumerations set to
+ * {@link Reflection#dumbMock(Class, long) dumb mocks}. Fields of other classes of the application get a real instance,
+ * which is shared per type within the {@link InstanceGraph} of the measured instance and has its fields filled the
+ * same way, so that a nested object is encoded with all of its state. A field that would close a cycle is left null,
+ * as is a field whose type could not be instantiated.
+ * <p/>
+ * Sentinels are not serializable and only equal to themselves, so fields of JDK types, interfaces and abstract types
+ * get a serializable JDK value instead: a string, an {@link ArrayList}, {@link HashSet}, {@link TreeSet},
+ * {@link HashMap} or {@link TreeMap} holding one element of the declared element type, a {@link Date}, a
+ * {@link BigDecimal} or a {@link BigInteger}. The check fails for a field whose type can not hold any of these.
+ * <p/>
+ * The instance is encoded into an in-memory buffer and decoded from that same buffer, and the buffer is reused by every
+ * timed round trip, so that only the codec itself is measured. Round trips are warmed up and timed in batches like
+ * {@link CostBudget} does, using the median batch.
+ */
+public final class SerializationCost {
+    private static final String ROUND_TRIP_EXCEPTION_MESSAGE = "%s could not be encoded and decoded with %s.";
+    private static final String NOT_EQUAL_MESSAGE = "Decoding %s with %s does not give an equal instance.\n"
+            + "Original:\n%s\n"
+            + "Decoded:\n%s";
+    private static final String HASH_CODE_MESSAGE =
+            "Decoding %s with %s gives an instance with hashCode %d instead of %d.";
+    private static final String SIZE_MESSAGE = "Instances of %s take %d bytes when encoded with %s, at most %d is "
+            + "allowed.";
+    private static final String TIME_MESSAGE = "A round trip of %s through %s takes %.1f ns, the budget is %.1f ns.";
+    private static final String NO_VALUE_MESSAGE =
+            "Field %s of %s has type %s, for which no serializable value is known.";
+
+    private final Class<?> type;
+    private final SerializationCodec codec;
+    private final int bytes;
+    private final double nanos;
+
+    private SerializationCost(Class<?> type, SerializationCodec codec, int bytes, double nanos) {
+        this.type = type;
+        this.codec = codec;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Round-trip an instance of the given class through the codec of the budget, check that the decoded instance is
+     * equal to the original and time further round trips.
+     *
+     * @param cls    The class to measure.
+     * @param budget The codec, warm-up time and number of batches to use.
+     * @return The measurements.
+     * @throws ReflectiveOperationException Thrown when the instance could not be created or its fields set.
+     */
+    static SerializationCost measure(Class<?> cls, SerializationBudget budget) throws ReflectiveOperationException {
+        final Object instance;
+        InstanceGraph graph = InstanceGraph.open(cls);
+        try {
+            instance = Reflection.createInstance(cls);
+            fill(cls, cls, instance, new IdentityHashMap<Object, Boolean>());
+        } finally {
+            InstanceGraph.close(graph);
+        }
+
+        final SerializationCodec codec = budget.getCodec();
+        final Buffer buffer = new Buffer();
+        Object decoded;
+        try {
+            decoded = roundTrip(codec, instance, buffer);
+        } catch (IOException | RuntimeException e) {
+            throw failure(cls, e, ROUND_TRIP_EXCEPTION_MESSAGE, cls.getCanonicalName(), codec);
+        }
+        if (!instance.equals(decoded) || !decoded.equals(instance)) {
+            throw failure(cls, null, NOT_EQUAL_MESSAGE, cls.getCanonicalName(), codec, instance, decoded);
+        } else if (instance.hashCode() != decoded.hashCode()) {
+            throw failure(cls, null, HASH_CODE_MESSAGE, cls.getCanonicalName(), codec, decoded.hashCode(),
+                    instance.hashCode());
+        }
+        int bytes = buffer.size();
+
+        double nanos = EqualsCost.nanosPerCall(new EqualsCost.Workload() {
+            @Override
+            int run(int i) {
+                try {
+                    return roundTrip(codec, instance, buffer) == null ? 0 : 1;
+                } catch (IOException e) {
+                    throw new IllegalStateException("A round trip failed after the first one succeeded.", e);
+                }
+            }
+        }, budget.getWarmupMillis(), budget.getBatches());
+        return new SerializationCost(cls, codec, bytes, nanos);
+    }
+
+    /**
+     * Set all instance fields of the given instance, and of the instances nested in it.
+     *
+     * @param root     The measured class.
+     * @param cls      The class whose fields to set.
+     * @param instance The instance to fill.
+     * @param filled   The instances filled so far, mapped to false while their fields are still being set. Those are
+     *                 not used again, so that the instances do not form a cycle.
+     * @throws ReflectiveOperationException Thrown when a dumb mock could not be created or a field not be set.
+     */
+    private static void fill(Class<?> root, Class<?> cls, Object instance, Map<Object, Boolean> filled)
+            throws ReflectiveOperationException {
+        filled.put(instance, false);
+        for (Field field : VerificationPlan.forFields(cls).getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.set(instance, value(root, field, field.getType(), field.getGenericType(), filled));
+            }
+        }
+        filled.put(instance, true);
+    }
+
+    /**
+     * Get the value for a field, or for an element of a collection or map held by a field.
+     *
+     * @param root    The measured class.
+     * @param field   The field the value is for.
+     * @param type    The type of the value.
+     * @param generic The generic type of the value, which gives the element types of collections and maps.
+     * @param filled  The instances filled so far.
+     * @return The value, or null when it would close a cycle or could not be instantiated.
+     * @throws ReflectiveOperationException Thrown when a dumb mock could not be created or a field not be set.
+     */
+    private static Object value(Class<?> root, Field field, Class<?> type, Type generic, Map<Object, Boolean> filled)
+            throws ReflectiveOperationException {
+        if (DumbValues.isValueType(type)) {
+            return Reflection.dumbMock(type, CheckMark.SEED_ONE);
+        } else if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.getClassLoader() == null) {
+            return jdkValue(root, field, type, generic, filled);
+        }
+        Object nested;
+        try {
+            nested = InstanceGraph.nested(type, CheckMark.SEED_ONE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+        Boolean done = nested == null ? null : filled.get(nested);
+        if (nested == null || Boolean.FALSE.equals(done)) {
+            return null;
+        } else if (done == null) {
+            fill(root, type, nested, filled);
+        }
+        return nested;
+    }
+
+    private static Object jdkValue(Class<?> root, Field field, Class<?> type, Type generic,
+                                   Map<Object, Boolean> filled) throws ReflectiveOperationException {
+        if (type.isAssignableFrom(String.class)) {
+            return Reflection.dumbMock(String.class, CheckMark.SEED_ONE);
+        } else if (type.isAssignableFrom(ArrayList.class)) {
+            return addElement(root, field, new ArrayList<>(), generic, filled, false);
+        } else if (type.isAssignableFrom(HashSet.class)) {
+            return addElement(root, field, new HashSet<>(), generic, filled, false);
+        } else if (type.isAssignableFrom(TreeSet.class)) {
+            return addElement(root, field, new TreeSet<>(), generic, filled, true);
+        } else if (type.isAssignableFrom(HashMap.class)) {
+            return putEntry(root, field, new HashMap<>(), generic, filled, false);
+        } else if (type.isAssignableFrom(TreeMap.class)) {
+            return putEntry(root, field, new TreeMap<>(), generic, filled, true);
+        } else if (type.isAssignableFrom(Date.class)) {
+            return new Date(CheckMark.SEED_ONE);
+        } else if (type.isAssignableFrom(BigDecimal.class)) {
+            return BigDecimal.valueOf(CheckMark.SEED_ONE, 2);
+        } else if (type.isAssignableFrom(BigInteger.class)) {
+            return BigInteger.valueOf(CheckMark.SEED_ONE);
+        }
+        throw failure(root, null, NO_VALUE_MESSAGE, field.getName(), field.getDeclaringClass().getCanonicalName(),
+                type.getName());
+    }
+
+    private static Collection<Object> addElement(Class<?> root, Field field, Collection<Object> collection,
+                                                 Type generic, Map<Object, Boolean> filled, boolean sorted)
+            throws ReflectiveOperationException {
+        Type elementType = typeArgument(generic, 0);
+        Object element = value(root, field, raw(elementType), elementType, filled);
+        if (element != null && (!sorted || element instanceof Comparable)) {
+            collection.add(element);
+        }
+        return collection;
+    }
+
+    private static Map<Object, Object> putEntry(Class<?> root, Field field, Map<Object, Object> map, Type generic,
+                                                Map<Object, Boolean> filled, boolean sorted)
+            throws ReflectiveOperationException {
+        Type keyType = typeArgument(generic, 0);
+        Type valueType = typeArgument(generic, 1);
+        Object key = value(root, field, raw(keyType), keyType, filled);
+        if (key != null && (!sorted || key instanceof Comparable)) {
+            map.put(key, value(root, field, raw(valueType), valueType, filled));
+        }
+        return map;
+    }
+
+    /**
+     * @return The type argument at the given index, or Object when the type is not parameterized, as for a raw
+     * collection.
+     */
+    private static Type typeArgument(Type generic, int index) {
+        if (generic instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) generic).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * @return The class of a type, the class of the upper bound of a wildcard or type variable, or Object for generic
+     * arrays.
+     */
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof WildcardType) {
+            return raw(((WildcardType) type).getUpperBounds()[0]);
+        } else if (type instanceof TypeVariable) {
+            return raw(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Object roundTrip(SerializationCodec codec, Object instance, Buffer buffer) throws IOException {
+        buffer.reset();
+        codec.encode(instance, buffer);
+        return codec.decode(buffer.read());
+    }
+
+    /**
+     * Fail when the encoded size or the round-trip time exceeds the budget.
+     *
+     * @param budget The budget to hold the measurements to.
+     */
+    void check(SerializationBudget budget) {
+        if (bytes > budget.getMaxBytes()) {
+            throw failure(type, null, SIZE_MESSAGE, type.getCanonicalName(), bytes, codec, budget.getMaxBytes());
+        } else if (nanos > budget.getMaxNanos()) {
+            throw failure(type, null, TIME_MESSAGE, type.getCanonicalName(), codec, nanos, budget.getMaxNanos());
+        }
+    }
+
+    /**
+     * @return The measured class.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return The codec the instance was encoded and decoded with.
+     */
+    public SerializationCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @return The number of bytes of the encoded instance.
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The median number of nanoseconds to encode and decode the instance.
+     */
+    public double getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s takes %d bytes and %.1f ns per round trip through %s.",
+                type.getCanonicalName(), bytes, nanos, codec);
+    }
+
+    private static CheckFailure failure(Class<?> cls, Throwable cause, String format, Object... arguments) {
+        return CheckMark.failure(CheckResult.failed(cls, CheckKind.SERIALIZATION, null, Reflection.DEFAULT_SEED, cause,
+                format, arguments));
+    }
+
+    /**
+     * An in-memory buffer that is read back without copying its bytes. Resetting it keeps the grown array.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        private final Input input = new Input();
+
+        /**
+         * @return A stream over the bytes written since the last reset, starting at the first.
+         */
+        InputStream read() {
+            input.position = 0;
+            return input;
+        }
+
+        private final class Input extends InputStream {
+            private int position;
+
+            @Override
+            public int read() {
+                return position < count ? buf[position++] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                } else if (position >= count) {
+                    return -1;
+                }
+                int read = Math.min(length, count - position);
+                System.arraycopy(buf, position, bytes, offset, read);
+                position += read;
+                return read;
+            }
+
+            @Override
+            public int available() {
+                return count - position;
+            }
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * A {@link CheckMarkListener} that writes the outcome of every checked class and property to a machine readable
+ * report while the checks run. Register it with {@link CheckMark#addListener(CheckMarkListener)} before a bulk run,
+ * for instance with the {@link CheckMarkRunner}, and close it afterwards.
+ * <p/>
+ * Every record is identified by the class, the {@link CheckKind} and, for single properties, the property name.
+ * Failures add the type and message of the thrown failure. Records are encoded as they arrive into a fixed size
+ * buffer, so memory use does not grow with the number of checked classes. The buffer is written to a
+ * {@link FileChannel} when it is full, and when a class is finished at least {@value #FLUSH_INTERVAL_MILLIS}
+ * milliseconds after the last write. There is no background flush, so records of a check that is still running stay
+ * in the buffer until the check finishes, the buffer fills up or the reporter is {@link #flush() flushed}.
+ * <p/>
+ * Whatever has been written survives a crash of the JVM as a valid report: NDJSON has one complete record per line,
+ * and the JUnit XML report is followed by its closing tag after every write, which the next write overwrites.
+ * <p/>
+ * This listener is thread-safe and can be used with the {@link CheckMarkRunner}.
+ */
+public final class StreamingReporter extends CheckMarkListenerAdapter implements Closeable, Flushable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingReporter.class);
+
+    static final long FLUSH_INTERVAL_MILLIS = 100;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String XML_HEADER =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite name=\"CheckMark\">\n";
+    private static final String XML_FOOTER = "</testsuite>\n";
+
+    /**
+     * The formats a report can be written in.
+     */
+    public enum Format {
+        /**
+         * One JSON object per line.
+         */
+        NDJSON,
+
+        /**
+         * The JUnit XML format understood by most build servers, with a testcase per checked class and property.
+         */
+        JUNIT_XML
+    }
+
+    private final FileChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] footer;
+    private final ThreadLocal<Outcome> outcomes = new ThreadLocal<Outcome>() {
+        @Override
+        protected Outcome initialValue() {
+            return new Outcome();
+        }
+    };
+
+    private long position;
+    private long lastFlush = System.nanoTime();
+    private long records;
+    private long failures;
+    private IOException error;
+    private boolean closed;
+
+    private StreamingReporter(FileChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+        this.footer = (format == Format.JUNIT_XML ? XML_FOOTER : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create a report, replacing an existing file.
+     *
+     * @param file   The file to write the report to.
+     * @param format The format to write the report in.
+     * @return The reporter, which has yet to be registered with {@link CheckMark#addListener(CheckMarkListener)}.
+     * @throws IOException Thrown when the file could not be created.
+     */
+    public static StreamingReporter open(Path file, Format format) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        StreamingReporter reporter = new StreamingReporter(channel, format);
+        if (format == Format.JUNIT_XML) {
+            synchronized (reporter) {
+                reporter.append(XML_HEADER);
+                reporter.flush();
+            }
+        }
+        return reporter;
+    }
+
+    @Override
+    public void classStarted(Class<?> cls, CheckKind check) {
+        outcomes.get().clear();
+    }
+
+    @Override
+    public void failed(Class<?> cls, CheckKind check, String property, Throwable failure) {
+        Outcome outcome = outcomes.get();
+        if (property != null) {
+            outcome.property = property;
+            outcome.propertyFailure = failure;
+        }
+        if (outcome.failure == null) {
+            outcome.failure = failure;
+        }
+    }
+
+    @Override
+    public void propertyChecked(Class<?> cls, CheckKind check, String property, long nanos) {
+        Outcome outcome = outcomes.get();
+        Throwable failure = null;
+        if (property.equals(outcome.property)) {
+            failure = outcome.propertyFailure;
+            outcome.property = null;
+            outcome.propertyFailure = null;
+        }
+        write(cls, check, property, nanos, failure, false);
+    }
+
+    @Override
+    public void classFinished(Class<?> cls, CheckKind check, long nanos) {
+        Outcome outcome = outcomes.get();
+        Throwable failure = outcome.failure;
+        outcome.clear();
+        write(cls, check, null, nanos, failure, true);
+    }
+
+    /**
+     * @return The number of records written so far, for classes and properties together.
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return The number of records written so far that describe a failure.
+     */
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Write all buffered records to the file.
+     *
+     * @throws IOException Thrown when this or an earlier write failed.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            ByteBuffer end = ByteBuffer.wrap(footer);
+            long endPosition = position;
+            while (end.hasRemaining()) {
+                endPosition += channel.write(end, endPosition);
+            }
+        } catch (IOException e) {
+            error = e;
+            throw e;
+        } finally {
+            buffer.clear();
+            lastFlush = System.nanoTime();
+        }
+    }
+
+    /**
+     * Write all buffered records and close the file. Later events are ignored.
+     *
+     * @throws IOException Thrown when this or an earlier write failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel ignored = channel) {
+            flush();
+            channel.force(false);
+        }
+    }
+
+    private void write(Class<?> cls, CheckKind check, String property, long nanos, Throwable failure,
+                       boolean endOfClass) {
+        String record = format == Format.JUNIT_XML
+                ? xml(cls, check, property, nanos, failure)
+                : json(cls, check, property, nanos, failure);
+        synchronized (this) {
+            if (closed || error != null) {
+                return;
+            }
+            records++;
+            if (failure != null) {
+                failures++;
+            }
+            try {
+                append(record);
+                if (endOfClass && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_MILLIS * 1000000L) {
+                    flush();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not write to the report, later outcomes are not reported.", e);
+            }
+        }
+    }
+
+    /**
+     * Add a record to the buffer, flushing first when it does not fit. Records larger than the buffer are written
+     * straight to the file. Must be called while holding the lock.
+     */
+    private void append(String record) throws IOException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            flush();
+        }
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        ByteBuffer large = ByteBuffer.wrap(bytes);
+        while (large.hasRemaining()) {
+            position += channel.write(large, position);
+        }
+        flush();
+    }
+
+    private static String json(Class<?> cls, CheckKind check, String property, long nanos, Throwable failure) {
+        StringBuilder out = new StringBuilder(128);
+        out.append("{\"class\":\"").append(escapeJson(cls.getName()))
+                .append("\",\"check\":\"").append(check.name()).append("\",\"property\":");
+        if (property == null) {
+            out.append("null");
+        } else {
+            out.append('"').append(escapeJson(property)).append('"');
+        }
+        out.append(",\"outcome\":\"").append(failure == null ? "passed" : "failed")
+                .append("\",\"nanos\":").append(nanos);
+        if (failure != null) {
+            out.append(",\"failure\":\"").append(escapeJson(failure.getClass().getName())).append('"');
+            if (failure.getMessage() != null) {
+                out.append(",\"message\":\"").append(escapeJson(failure.getMessage())).append('"');
+            }
+        }
+        return out.append("}\n").toString();
+    }
+
+    private static String xml(Class<?> cls, CheckKind check, String property, long nanos, Throwable failure) {
+        StringBuilder out = new StringBuilder(128);
+        out.append("  <testcase classname=\"").append(escapeXml(cls.getName()))
+                .append("\" name=\"").append(check.name());
+        if (property != null) {
+            out.append('.').append(escapeXml(property));
+        }
+        out.append("\" time=\"").append(String.format(Locale.ROOT, "%.6f", nanos / 1e9)).append('"');
+        if (failure == null) {
+            return out.append("/>\n").toString();
+        }
+        out.append(">\n    <failure type=\"").append(escapeXml(failure.getClass().getName())).append('"');
+        if (failure.getMessage() != null) {
+            out.append(" message=\"").append(escapeXml(failure.getMessage())).append('"');
+        }
+        return out.append("/>\n  </testcase>\n").toString();
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Escape a value for use in an attribute. Characters that XML 1.0 does not allow at all are dropped.
+     */
+    private static String escapeXml(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                out.append("&amp;");
+            } else if (c == '<') {
+                out.append("&lt;");
+            } else if (c == '>') {
+                out.append("&gt;");
+            } else if (c == '"') {
+                out.append("&quot;");
+            } else if (c == '\n') {
+                out.append("&#10;");
+            } else if (c == '\t' || c == '\r') {
+                out.append("&#").append((int) c).append(';');
+            } else if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * What failed so far during the check of a class on one thread.
+     */
+    private static final class Outcome {
+        private Throwable failure;
+        private String property;
+        private Throwable propertyFailure;
+
+        private void clear() {
+            failure = null;
+            property = null;
+            propertyFailure = null;
+        }
+    }
+}
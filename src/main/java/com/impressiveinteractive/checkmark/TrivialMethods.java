@@ -0,0 +1,119 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Recognizes accessors and mutators that are correct by construction, from the bytecode of their class. An accessor
+ * whose body is {@code aload_0; getfield; xreturn} and a mutator whose body is
+ * {@code aload_0; xload_1; putfield; return} can only do the right thing when the field they load or store is the
+ * backing field of their property, so they need not be called to be verified.
+ * <p/>
+ * The field referenced by the instruction is resolved the way the JVM resolves it: starting at the class named by the
+ * reference and up through its superclasses, to the first class declaring a field of that name and type. Only when
+ * that is the field {@link Reflection#getField(Class, String)} finds for the property is the method trivial.
+ * <p/>
+ * Class files are read once per class and cached in a {@link ClassValue}. Classes whose class file can not be read,
+ * like those generated at runtime, have no trivial methods.
+ */
+final class TrivialMethods {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrivialMethods.class);
+
+    private static final ClassValue<ClassFile> CLASS_FILES = new ClassValue<ClassFile>() {
+        @Override
+        protected ClassFile computeValue(Class<?> type) {
+            try (InputStream in = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class")) {
+                return in == null ? null : ClassFile.read(in);
+            } catch (IOException e) {
+                LOGGER.debug("Could not read the class file of {}, all of its methods are called.", type.getName(), e);
+                return null;
+            }
+        }
+    };
+
+    private TrivialMethods() {
+        throw new AssertionError("Private constructor.");
+    }
+
+    /**
+     * @param method The accessor of a property.
+     * @param field  The backing field of the property.
+     * @return True if the accessor does nothing but return the field.
+     */
+    static boolean isTrivialAccessor(Method method, Field field) {
+        ClassFile.Member member = member(method);
+        return member != null && field != null
+                && resolvesTo(method.getDeclaringClass(), member.getTrivialGet(), field);
+    }
+
+    /**
+     * @param method The mutator of a property.
+     * @param field  The backing field of the property.
+     * @return True if the mutator does nothing but store its parameter in the field.
+     */
+    static boolean isTrivialMutator(Method method, Field field) {
+        ClassFile.Member member = member(method);
+        return member != null && field != null
+                && resolvesTo(method.getDeclaringClass(), member.getTrivialPut(), field);
+    }
+
+    private static ClassFile.Member member(Method method) {
+        ClassFile classFile = CLASS_FILES.get(method.getDeclaringClass());
+        if (classFile == null) {
+            return null;
+        }
+        String descriptor = descriptor(method);
+        for (ClassFile.Member member : classFile.getMethods()) {
+            if (member.getName().equals(method.getName()) && member.getDescriptor().equals(descriptor)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    private static boolean resolvesTo(Class<?> declaringClass, ClassFile.FieldRef reference, Field field) {
+        if (reference == null || !reference.getName().equals(field.getName())
+                || !reference.getDescriptor().equals(descriptor(field.getType()))) {
+            return false;
+        }
+        Class<?> current = declaringClass;
+        while (current != null && !current.getName().equals(reference.getOwner())) {
+            current = current.getSuperclass();
+        }
+        for (; current != null; current = current.getSuperclass()) {
+            try {
+                Field declared = current.getDeclaredField(reference.getName());
+                if (declared.getType() == field.getType()) {
+                    return declared.equals(field);
+                }
+            } catch (NoSuchFieldException e) {
+                // Declared further up
+            }
+        }
+        return false;
+    }
+
+    private static String descriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameter : method.getParameterTypes()) {
+            descriptor.append(descriptor(parameter));
+        }
+        return descriptor.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type == void.class) {
+            return "V";
+        } else if (type.isPrimitive()) {
+            // The name of an array class is the descriptor of the array type
+            return Array.newInstance(type, 0).getClass().getName().substring(1);
+        }
+        return type.isArray() ? type.getName().replace('.', '/') : 'L' + type.getName().replace('.', '/') + ';';
+    }
+}
@@ -0,0 +1,233 @@
+package com.impressiveinteractive.checkmark;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The discovery work needed to check a class, done once and shared by every {@link CheckMark} entry point. A plan
+ * pairs each {@link PropertyDescriptor} with its backing {@link Field} and lists all fields taking part in equals,
+ * apart from the field a class {@link HashCodeCache caches its hashCode} in.
+ * <p/>
+ * Plans are cached in a {@link ClassValue}, which is thread-safe and does not keep the class (or its class loader)
+ * from being unloaded.
+ */
+final class VerificationPlan {
+    private static final ClassValue<VerificationPlan> PLANS = new ClassValue<VerificationPlan>() {
+        @Override
+        protected VerificationPlan computeValue(Class<?> type) {
+            long start = Listeners.start();
+            VerificationPlan plan = new VerificationPlan(type);
+            Listeners.classIntrospected(type, start);
+            return plan;
+        }
+    };
+
+    private final Class<?> type;
+    private final List<Property> properties;
+    private final List<Field> fields;
+    private final IntrospectionException failure;
+
+    private VerificationPlan(Class<?> type) {
+        this.type = type;
+
+        List<Property> properties = new ArrayList<>();
+        IntrospectionException failure = null;
+        try {
+            PropertyDescriptor[] descriptors = Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+            for (PropertyDescriptor descriptor : descriptors) {
+                properties.add(new Property(type, descriptor, Reflection.findField(type, descriptor.getName())));
+            }
+        } catch (IntrospectionException e) {
+            failure = e;
+        }
+        this.properties = Collections.unmodifiableList(properties);
+        this.failure = failure;
+
+        List<Field> fields = new ArrayList<>();
+        Field hashCodeCache = HashCodeCache.forClass(type);
+        for (Field field : Reflection.getFields(type)) {
+            makeAccessible(field);
+            if (!field.equals(hashCodeCache)) {
+                fields.add(field);
+            }
+        }
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Get the plan for the given class, creating it on first use.
+     *
+     * @param cls The {@link Class} to get the plan for.
+     * @return The cached plan.
+     * @throws IntrospectionException Thrown when bean information could not be recovered from the given class.
+     */
+    static VerificationPlan forClass(Class<?> cls) throws IntrospectionException {
+        VerificationPlan plan = PLANS.get(cls);
+        if (plan.failure != null) {
+            throw plan.failure;
+        }
+        return plan;
+    }
+
+    /**
+     * Get the plan for the given class without requiring bean information. Use this when only {@link #getFields()}
+     * is needed.
+     *
+     * @param cls The {@link Class} to get the plan for.
+     * @return The cached plan.
+     */
+    static VerificationPlan forFields(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return All bean properties of the class, excluding those declared by {@link Object}.
+     */
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return All non-synthetic instance and static fields of the class hierarchy, already made accessible. The
+     * {@link HashCodeCache#forClass(Class) hashCode cache} is left out.
+     * @see Reflection#getFields(Class)
+     */
+    List<Field> getFields() {
+        return fields;
+    }
+
+    private static boolean makeAccessible(Field field) {
+        try {
+            field.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A single bean property together with everything needed to check it.
+     */
+    static final class Property {
+        private final Class<?> owner;
+        private final PropertyDescriptor descriptor;
+        private final Field field;
+        private final boolean accessible;
+        private final boolean finalField;
+        private final boolean primitive;
+
+        private final PropertyInvoker[] invokers = new PropertyInvoker[InvocationEngine.values().length];
+        private volatile Boolean trivialAccessor;
+        private volatile Boolean trivialMutator;
+
+        private Property(Class<?> owner, PropertyDescriptor descriptor, Field field) {
+            this.owner = owner;
+            this.descriptor = descriptor;
+            this.field = field;
+            this.accessible = field != null && makeAccessible(field);
+            this.finalField = field != null && Modifier.isFinal(field.getModifiers());
+            this.primitive = descriptor.getPropertyType() != null && descriptor.getPropertyType().isPrimitive();
+        }
+
+        /**
+         * @return The class this property was discovered on.
+         */
+        Class<?> getOwner() {
+            return owner;
+        }
+
+        PropertyDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        String getName() {
+            return descriptor.getName();
+        }
+
+        Class<?> getType() {
+            return descriptor.getPropertyType();
+        }
+
+        Method getReadMethod() {
+            return descriptor.getReadMethod();
+        }
+
+        Method getWriteMethod() {
+            return descriptor.getWriteMethod();
+        }
+
+        /**
+         * @return The backing field, or null if no field with the name of the property exists in the hierarchy.
+         */
+        Field getField() {
+            return field;
+        }
+
+        boolean isAccessible() {
+            return accessible;
+        }
+
+        boolean isFinalField() {
+            return finalField;
+        }
+
+        boolean isPrimitive() {
+            return primitive;
+        }
+
+        /**
+         * @return True if the read method does nothing but return the backing field, read from the bytecode on first
+         * use.
+         * @see TrivialMethods
+         */
+        boolean isTrivialAccessor() {
+            Boolean trivial = trivialAccessor;
+            if (trivial == null) {
+                trivial = getReadMethod() != null && TrivialMethods.isTrivialAccessor(getReadMethod(), field);
+                trivialAccessor = trivial;
+            }
+            return trivial;
+        }
+
+        /**
+         * @return True if the write method does nothing but store its parameter in the backing field, read from the
+         * bytecode on first use.
+         * @see TrivialMethods
+         */
+        boolean isTrivialMutator() {
+            Boolean trivial = trivialMutator;
+            if (trivial == null) {
+                trivial = getWriteMethod() != null && TrivialMethods.isTrivialMutator(getWriteMethod(), field);
+                trivialMutator = trivial;
+            }
+            return trivial;
+        }
+
+        /**
+         * Get the invoker for this property, binding it on first use. Invokers are immutable, so a racing bind on
+         * another thread is harmless.
+         *
+         * @param engine The engine to get the invoker for.
+         * @return The cached invoker.
+         */
+        PropertyInvoker getInvoker(InvocationEngine engine) {
+            PropertyInvoker invoker = invokers[engine.ordinal()];
+            if (invoker == null) {
+                invoker = engine.bind(this);
+                invokers[engine.ordinal()] = invoker;
+            }
+            return invoker;
+        }
+    }
+}
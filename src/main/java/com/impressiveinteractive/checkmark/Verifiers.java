@@ -0,0 +1,58 @@
+package com.impressiveinteractive.checkmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the {@link CheckMarkVerifier} generated for a {@link CheckMarked} class. The result, including the absence of
+ * a verifier, is cached in a {@link ClassValue}, so the lookup costs a single {@link Class#forName} per class. The
+ * absence is cached as a marker that is not a verifier, so it can never be called by mistake.
+ */
+final class Verifiers {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Verifiers.class);
+
+    static final String SUFFIX = "_CheckMarkVerifier";
+
+    private static final Object NONE = new Object();
+
+    private static final ClassValue<Object> VERIFIERS = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            if (!type.isAnnotationPresent(CheckMarked.class)) {
+                return NONE;
+            }
+            try {
+                Class<?> verifier = Class.forName(verifierName(type.getName()), true, type.getClassLoader());
+                return verifier.asSubclass(CheckMarkVerifier.class).getConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                LOGGER.warn("No usable generated verifier for {}, falling back to reflection.", type.getName(), e);
+                return NONE;
+            }
+        }
+    };
+
+    private Verifiers() {
+        throw new AssertionError("Private constructor called");
+    }
+
+    /**
+     * @param cls The class to get the verifier for.
+     * @return The generated verifier, or null if there is none.
+     */
+    static CheckMarkVerifier forClass(Class<?> cls) {
+        Object verifier = VERIFIERS.get(cls);
+        return verifier == NONE ? null : (CheckMarkVerifier) verifier;
+    }
+
+    /**
+     * The generated verifier lives in the package of the bean. Its name is the binary name of the bean with nesting
+     * flattened, followed by {@value #SUFFIX}.
+     *
+     * @param binaryName The binary name of the bean, as returned by {@link Class#getName()}.
+     * @return The binary name of the verifier.
+     */
+    static String verifierName(String binaryName) {
+        int packageEnd = binaryName.lastIndexOf('.') + 1;
+        return binaryName.substring(0, packageEnd) + binaryName.substring(packageEnd).replace('$', '_') + SUFFIX;
+    }
+}
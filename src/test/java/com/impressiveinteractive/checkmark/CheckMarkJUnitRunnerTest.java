@@ -0,0 +1,85 @@
+package com.impressiveinteractive.checkmark;
+
+import com.impressiveinteractive.checkmark.scan.GoodBean;
+import com.impressiveinteractive.checkmark.scan.broken.BrokenBean;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CheckMarkJUnitRunnerTest {
+    @Test
+    public void testTestsPerProperty() throws Exception {
+        final List<String> started = new ArrayList<>();
+        JUnitCore core = new JUnitCore();
+        core.addListener(new RunListener() {
+            @Override
+            public void testStarted(Description description) {
+                started.add(description.getDisplayName());
+            }
+        });
+        Result result = core.run(ScanSuite.class);
+
+        assertThat(started.toString(), started.size(), is(9));
+        assertThat(started.toString(), started.contains("ACCESSORS.name(" + GoodBean.class.getName() + ")"),
+                is(true));
+        assertThat(started.toString(), started.contains("MUTATORS.count(" + GoodBean.class.getName() + ")"),
+                is(true));
+        assertThat(result.getRunCount(), is(9));
+        assertThat(result.getFailureCount(), is(1));
+        Failure failure = result.getFailures().get(0);
+        assertThat(failure.getDescription().getDisplayName(),
+                is(equalTo("ACCESSORS.value(" + BrokenBean.class.getName() + ")")));
+    }
+
+    @Test
+    public void testTestsPerCheck() throws Exception {
+        Result result = new JUnitCore().run(EqualsSuite.class);
+        assertThat(result.getRunCount(), is(3));
+        assertThat(result.getFailureCount(), is(3));
+    }
+
+    @Test
+    public void testMissingAnnotation() throws Exception {
+        Result result = new JUnitCore().run(UnconfiguredSuite.class);
+        assertThat(result.getFailureCount(), is(1));
+    }
+
+    @Test
+    public void testInvalidExclusion() throws Exception {
+        Result result = new JUnitCore().run(InvalidExclusionSuite.class);
+        assertThat(result.getFailureCount(), is(1));
+        String message = result.getFailures().get(0).getMessage();
+        assertThat(message, message.contains("Exclusion [ is not a valid regular expression"), is(true));
+    }
+
+    @RunWith(CheckMarkJUnitRunner.class)
+    @CheckMarkSuite(packages = "com.impressiveinteractive.checkmark.scan",
+            checks = {CheckKind.ACCESSORS, CheckKind.MUTATORS})
+    public static class ScanSuite {
+    }
+
+    @RunWith(CheckMarkJUnitRunner.class)
+    @CheckMarkSuite(packages = "com.impressiveinteractive.checkmark.scan", checks = CheckKind.EQUALS_AND_HASH_CODE)
+    public static class EqualsSuite {
+    }
+
+    @RunWith(CheckMarkJUnitRunner.class)
+    public static class UnconfiguredSuite {
+    }
+
+    @RunWith(CheckMarkJUnitRunner.class)
+    @CheckMarkSuite(packages = "com.impressiveinteractive.checkmark.scan", exclude = "[")
+    public static class InvalidExclusionSuite {
+    }
+}
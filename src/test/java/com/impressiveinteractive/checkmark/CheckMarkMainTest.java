@@ -0,0 +1,86 @@
+package com.impressiveinteractive.checkmark;
+
+import com.impressiveinteractive.checkmark.scan.GoodBean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CheckMarkMainTest {
+    private static final String SCAN_PACKAGE = "com.impressiveinteractive.checkmark.scan";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    public void testSuccess() throws Exception {
+        Path report = folder.getRoot().toPath().resolve("report.ndjson");
+        int exit = run("-cp", testClasses(), "--package", SCAN_PACKAGE, "--exclude", ".*\\.broken\\..*",
+                "--checks", "ACCESSORS,MUTATORS", "--threads", "2", "--ndjson", report.toString());
+
+        assertThat(err(), exit, is(CheckMarkMain.EXIT_SUCCESS));
+        assertThat(out(), is(equalTo("Checked 2 classes with 4 checks: 0 failed.\n")));
+        assertThat(Files.readAllLines(report, StandardCharsets.UTF_8).isEmpty(), is(false));
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        int exit = run("--classpath", testClasses(), "--package", SCAN_PACKAGE, "--checks", "ACCESSORS");
+
+        assertThat(err(), exit, is(CheckMarkMain.EXIT_FAILURES));
+        assertThat(out(), is(equalTo("Checked 3 classes with 3 checks: 1 failed.\n")));
+        assertThat(err(), err().contains("BrokenBean"), is(true));
+    }
+
+    @Test
+    public void testUsage() throws Exception {
+        assertThat(run("--checks", "NONSENSE", "-cp", testClasses()), is(CheckMarkMain.EXIT_USAGE));
+        assertThat(err(), err().startsWith("Unknown check: NONSENSE\nUsage: "), is(true));
+
+        assertThat(run("--package", SCAN_PACKAGE), is(CheckMarkMain.EXIT_USAGE));
+        assertThat(run("-cp", folder.getRoot().toPath().resolve("missing").toString()),
+                is(CheckMarkMain.EXIT_USAGE));
+        assertThat(run("--exclude", "[", "-cp", testClasses()), is(CheckMarkMain.EXIT_USAGE));
+        assertThat(err(), err().startsWith("Not a valid regular expression: [\nUsage: "), is(true));
+        assertThat(run("--help"), is(CheckMarkMain.EXIT_SUCCESS));
+    }
+
+    private int run(String... args) {
+        out.reset();
+        err.reset();
+        return CheckMarkMain.run(args, print(out), print(err));
+    }
+
+    private static PrintStream print(ByteArrayOutputStream stream) {
+        try {
+            return new PrintStream(stream, true, "UTF-8");
+        } catch (java.io.UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private String out() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String err() {
+        return new String(err.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String testClasses() throws Exception {
+        return Paths.get(GoodBean.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+}
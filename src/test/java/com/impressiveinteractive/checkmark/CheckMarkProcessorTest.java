@@ -0,0 +1,181 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class CheckMarkProcessorTest {
+    @Test
+    public void testVerifierIsGenerated() throws Exception {
+        CheckMarkVerifier verifier = Verifiers.forClass(GeneratedBean.class);
+        assertThat(verifier, is(not(nullValue())));
+        assertThat(verifier.getClass().getName(),
+                is(equalTo(CheckMarkProcessorTest.class.getName() + "_GeneratedBean_CheckMarkVerifier")));
+        assertThat(Verifiers.forClass(CheckMarkTest.AccessorClass.class), is(nullValue()));
+    }
+
+    @Test
+    public void testVerifierName() {
+        assertThat(Verifiers.verifierName("a.b.Bean"), is(equalTo("a.b.Bean_CheckMarkVerifier")));
+        assertThat(Verifiers.verifierName("a.b.Outer$Inner"), is(equalTo("a.b.Outer_Inner_CheckMarkVerifier")));
+        assertThat(Verifiers.verifierName("Bean"), is(equalTo("Bean_CheckMarkVerifier")));
+    }
+
+    @Test
+    public void testGeneratedVerifierSkipsIntrospection() throws Exception {
+        final boolean[] introspected = new boolean[1];
+        CheckMarkListener listener = new CheckMarkListenerAdapter() {
+            @Override
+            public void classIntrospected(Class<?> cls, long nanos) {
+                if (cls == GeneratedBean.class) {
+                    introspected[0] = true;
+                }
+            }
+        };
+        CheckMark.addListener(listener);
+        try {
+            CheckMark.testAccessorsAndMutators(GeneratedBean.class);
+            CheckMark.testEqualsAndHashCode(GeneratedBean.class);
+        } finally {
+            CheckMark.removeListener(listener);
+        }
+        assertThat(introspected[0], is(false));
+    }
+
+    @Test
+    public void testGeneratedAccessorFail() throws Exception {
+        try {
+            CheckMark.testAccessors(BrokenGeneratedBean.class);
+            fail("Expected the accessor check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is(equalTo(
+                    "Accessor to field " + BrokenGeneratedBean.class.getCanonicalName() + ".name does not work.")));
+        }
+    }
+
+    @Test
+    public void testGeneratedMutatorFail() throws Exception {
+        try {
+            CheckMark.testMutators(BrokenGeneratedBean.class);
+            fail("Expected the mutator check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is(equalTo(
+                    "Mutator to field " + BrokenGeneratedBean.class.getCanonicalName() + ".count threw an exception.")));
+            assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        }
+    }
+
+    @Test
+    public void testGeneratedEqualsFail() throws Exception {
+        try {
+            CheckMark.testEqualsAndHashCode(BrokenGeneratedBean.class);
+            fail("Expected the equals check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is(equalTo("Field count is not used in equals.")));
+        }
+    }
+
+    public static class GeneratedBase {
+        private long id;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass() && id == ((GeneratedBase) obj).id;
+        }
+    }
+
+    @CheckMarked
+    public static class GeneratedBean extends GeneratedBase {
+        private final int version;
+        private String name;
+        String label;
+
+        public GeneratedBean() {
+            version = 3;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+
+        public String getDisplayName() {
+            return name + " " + label;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), version, name, label);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!super.equals(obj)) {
+                return false;
+            }
+            GeneratedBean other = (GeneratedBean) obj;
+            return version == other.version && Objects.equals(name, other.name) && Objects.equals(label, other.label);
+        }
+    }
+
+    @CheckMarked
+    public static class BrokenGeneratedBean {
+        private String name;
+        private int count;
+
+        public String getName() {
+            return "";
+        }
+
+        public void setCount(int count) {
+            throw new IllegalStateException("boo");
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass() && Objects.equals(name, ((BrokenGeneratedBean) obj).name);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CheckMarkRunnerTest {
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testRun() throws Exception {
+        CheckMarkReport report = new CheckMarkRunner().run(
+                CheckMarkTest.EqualsClass.class,
+                CheckMarkTest.FinalAccessorClass.class);
+
+        assertThat(report.getClassCount(), is(2));
+        assertThat(report.getCheckCount(), is(6));
+        assertThat(report.getFailures(), hasSize(1));
+        assertThat(report.getFailures().get(0).getCheck(), is(CheckKind.EQUALS_AND_HASH_CODE));
+
+        report = new CheckMarkRunner(1, CheckKind.ACCESSORS, CheckKind.MUTATORS).run(
+                CheckMarkTest.AccessorAndMutatorClass.class,
+                CheckMarkTest.FinalAccessorClass.class);
+        assertThat(report.isSuccessful(), is(true));
+        report.assertSuccessful();
+    }
+
+    @Test
+    public void testRunCollectsAllFailures() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CheckMarkReport report = new CheckMarkRunner(pool, CheckKind.ACCESSORS, CheckKind.MUTATORS).run(
+                    CheckMarkTest.AccessorBrokenClass.class,
+                    CheckMarkTest.MutatorBrokenClass.class,
+                    CheckMarkTest.AccessorAndMutatorClass.class);
+
+            assertThat(report.getCheckCount(), is(6));
+            assertThat(report.getFailures(), hasSize(2));
+            for (CheckMarkReport.Failure failure : report.getFailures()) {
+                if (failure.getType() == CheckMarkTest.AccessorBrokenClass.class) {
+                    assertThat(failure.getCheck(), is(CheckKind.ACCESSORS));
+                } else {
+                    assertThat(failure.getType() == CheckMarkTest.MutatorBrokenClass.class, is(true));
+                    assertThat(failure.getCheck(), is(CheckKind.MUTATORS));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testAssertSuccessful() throws Exception {
+        exception.expect(AssertionError.class);
+
+        new CheckMarkRunner(2, CheckKind.EQUALS_AND_HASH_CODE).run(
+                CheckMarkTest.FieldNotUsed.class,
+                CheckMarkTest.DifferentHashCode.class).assertSuccessful();
+    }
+}
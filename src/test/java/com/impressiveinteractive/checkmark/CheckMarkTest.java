@@ -1,17 +1,54 @@
 package com.impressiveinteractive.checkmark;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
 
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every check with the bytecode shortcut both enabled and disabled, so that trivial accessors and mutators are
+ * also called through the {@link InvocationEngine}.
+ */
+@RunWith(Parameterized.class)
 @SuppressWarnings({"UnusedDeclaration", "EqualsWhichDoesntCheckParameterClass"})
 public class CheckMarkTest {
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
+    private final boolean bytecodeShortcut;
+
+    public CheckMarkTest(boolean bytecodeShortcut) {
+        this.bytecodeShortcut = bytecodeShortcut;
+    }
+
+    @Parameterized.Parameters(name = "bytecodeShortcut={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[]{true}, new Object[]{false});
+    }
+
+    @Before
+    public void setBytecodeShortcut() {
+        CheckMark.setBytecodeShortcut(bytecodeShortcut);
+    }
+
+    @After
+    public void restoreBytecodeShortcut() {
+        CheckMark.setBytecodeShortcut(true);
+    }
+
     /*
      * Accessors
      */
@@ -165,6 +202,82 @@ public class CheckMarkTest {
         }
     }
 
+    @Test
+    public void testMutatorsIgnoringConstructorValue() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testMutators(ConstructorMutatorBrokenClass.class);
+    }
+
+    public static class ConstructorMutatorBrokenClass {
+        private Runnable task;
+
+        public ConstructorMutatorBrokenClass(Runnable task) {
+            this.task = task;
+        }
+
+        public void setTask(Runnable task) {
+            // Keeps the task given to the constructor
+        }
+    }
+
+    @Test
+    public void testMutatorsIgnoringConstructorString() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testMutators(ConstructorStringMutatorBrokenClass.class);
+    }
+
+    public static class ConstructorStringMutatorBrokenClass {
+        private String name;
+
+        public ConstructorStringMutatorBrokenClass(String name) {
+            this.name = name;
+        }
+
+        public void setName(String name) {
+            // Keeps the name given to the constructor
+        }
+    }
+
+    @Test
+    public void testMutatorsIgnoringConstructorStringWithGetter() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testAccessorsAndMutators(ConstructorStringGetterMutatorBrokenClass.class);
+    }
+
+    public static class ConstructorStringGetterMutatorBrokenClass {
+        private String name;
+
+        public ConstructorStringGetterMutatorBrokenClass(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name != null ? name : "";
+        }
+
+        public void setName(String name) {
+            // Keeps the name given to the constructor
+        }
+    }
+
+    @Test
+    public void testMutatorsIgnoringConstructorInteger() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testMutators(ConstructorIntegerMutatorBrokenClass.class);
+    }
+
+    public static class ConstructorIntegerMutatorBrokenClass {
+        private Integer count;
+
+        public ConstructorIntegerMutatorBrokenClass(Integer count) {
+            this.count = count;
+        }
+
+        public void setCount(Integer count) {
+            // Keeps the count given to the constructor
+        }
+    }
+
     @Test
     public void testPrimitiveMutators() throws Exception {
         CheckMark.testMutators(PrimitiveMutatorClass.class);
@@ -192,6 +305,36 @@ public class CheckMarkTest {
         }
     }
 
+    @Test
+    public void testFuzzAccessorsAndMutators() throws Exception {
+        CheckMark.fuzzAccessorsAndMutators(AccessorAndMutatorClass.class, 64);
+        CheckMark.fuzzAccessorsAndMutators(PrimitiveMutatorClass.class, 64);
+        CheckMark.testMutators(SmallValueMutatorClass.class);
+        CheckMark.fuzzAccessorsAndMutators(SmallValueMutatorClass.class, 4);
+    }
+
+    @Test
+    public void testFuzzReportsFailingSeed() throws Exception {
+        try {
+            CheckMark.fuzzAccessorsAndMutators(SmallValueMutatorClass.class, 8);
+            fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is(equalTo(String.format("Mutator to field %s.accessible does not work. "
+                    + "Failing seed: 5.", SmallValueMutatorClass.class.getCanonicalName()))));
+        }
+
+        exception.expect(AssertionError.class);
+        CheckMark.fuzzAccessorsAndMutators(SmallValueMutatorClass.class, 5, 1);
+    }
+
+    public static class SmallValueMutatorClass {
+        private int accessible;
+
+        public void setAccessible(int accessible) {
+            this.accessible = Math.min(accessible, 4);
+        }
+    }
+
     @Test
     public void testSubMutator() throws Exception {
         CheckMark.testMutators(SubMutatorClass.class);
@@ -221,6 +364,43 @@ public class CheckMarkTest {
         }
     }
 
+    @Test
+    public void testAccessorsAndMutatorsIgnoringSetter() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testAccessorsAndMutators(IgnoringSetterClass.class);
+    }
+
+    public static class IgnoringSetterClass {
+        private Runnable task;
+
+        public Runnable getTask() {
+            return task;
+        }
+
+        public void setTask(Runnable task) {
+            // Keeps whatever the accessor check left behind
+        }
+    }
+
+    @Test
+    public void testAccessorsCrossed() throws Exception {
+        exception.expect(AssertionError.class);
+        CheckMark.testAccessors(CrossedAccessorClass.class);
+    }
+
+    public static class CrossedAccessorClass {
+        private Runnable first;
+        private Runnable second;
+
+        public Runnable getFirst() {
+            return first;
+        }
+
+        public Runnable getSecond() {
+            return first;
+        }
+    }
+
     @Test
     public void testEqualsAndHashCode() throws Exception {
         CheckMark.testEqualsAndHashCode(EqualsClass.class);
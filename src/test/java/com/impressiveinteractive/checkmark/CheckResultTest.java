@@ -0,0 +1,90 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CheckResultTest {
+    @Test
+    public void testLazyMessage() throws Exception {
+        CountingArgument argument = new CountingArgument();
+        CheckResult result = CheckResult.failed(CheckResultTest.class, CheckKind.ACCESSORS, "name",
+                Reflection.DEFAULT_SEED, null, "Failed for %s.", argument);
+
+        assertThat(result.isPassed(), is(false));
+        assertThat(argument.rendered, is(0));
+        assertThat(result.getMessage(), is("Failed for argument."));
+        assertThat(result.toFailure().getMessage(), is("Failed for argument."));
+        assertThat(argument.rendered, is(1));
+    }
+
+    @Test
+    public void testSeedMessage() throws Exception {
+        CheckResult result = CheckResult.failed(CheckResultTest.class, CheckKind.ACCESSORS, "name", 42L, null,
+                "Failed.");
+
+        assertThat(result.getMessage(), is("Failed. Failing seed: 42."));
+    }
+
+    @Test
+    public void testPassed() throws Exception {
+        CheckResult result = CheckResult.passed(CheckResultTest.class, CheckKind.ACCESSORS, "name",
+                Reflection.DEFAULT_SEED);
+
+        assertThat(result.isPassed(), is(true));
+        assertThat(result.getMessage() == null, is(true));
+        assertThat(result.toFailure() == null, is(true));
+        CheckMark.require(result);
+    }
+
+    @Test
+    public void testDirectFailureHasStackTrace() throws Exception {
+        try {
+            CheckMark.testAccessors(CheckMarkTest.AccessorBrokenClass.class);
+            fail("Expected the broken accessor to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getStackTrace().length > 0, is(true));
+            assertThat(e.getResult().getProperty(), is("accessible"));
+            assertThat(e.getResult().toFailure() == e, is(true));
+        }
+    }
+
+    @Test
+    public void testStacklessFailure() throws Exception {
+        CheckMarkRunner runner = new CheckMarkRunner(1, CheckKind.ACCESSORS);
+        Throwable failure = runner.run(CheckMarkTest.AccessorBrokenClass.class).getFailures().get(0).getCause();
+        assertThat(failure instanceof CheckFailure, is(true));
+        assertThat(failure.getStackTrace().length, is(0));
+
+        CheckMark.setDebug(true);
+        try {
+            failure = runner.run(CheckMarkTest.AccessorBrokenClass.class).getFailures().get(0).getCause();
+            assertThat(failure.getStackTrace().length > 0, is(true));
+        } finally {
+            CheckMark.setDebug(false);
+        }
+    }
+
+    @Test
+    public void testCause() throws Exception {
+        try {
+            CheckMark.testAccessors(CheckMarkTest.AccessorExceptionClass.class);
+            fail("Expected the throwing accessor to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getCause() == e.getResult().getCause(), is(true));
+            assertThat(e.getCause().getStackTrace().length > 0, is(true));
+        }
+    }
+
+    private static class CountingArgument {
+        private int rendered;
+
+        @Override
+        public String toString() {
+            rendered++;
+            return "argument";
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.impressiveinteractive.checkmark;
+
+import com.impressiveinteractive.checkmark.scan.AbstractBean;
+import com.impressiveinteractive.checkmark.scan.BeanInterface;
+import com.impressiveinteractive.checkmark.scan.GoodBean;
+import com.impressiveinteractive.checkmark.scan.NoBean;
+import com.impressiveinteractive.checkmark.scan.SubBean;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ClassScannerTest {
+    private static final String SCAN_PACKAGE = "com.impressiveinteractive.checkmark.scan";
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadClassFile() throws Exception {
+        ClassFile good = read(GoodBean.class);
+        assertThat(good.getName(), is(GoodBean.class.getName()));
+        assertThat(good.getSuperName(), is(Object.class.getName()));
+        assertThat(good.isConcrete(), is(true));
+        assertThat(good.declaresBeanMethods(), is(true));
+
+        assertThat(read(SubBean.class).declaresBeanMethods(), is(false));
+        assertThat(read(NoBean.class).declaresBeanMethods(), is(false));
+        assertThat(read(AbstractBean.class).isConcrete(), is(false));
+        assertThat(read(BeanInterface.class).isInterface(), is(true));
+        assertThat(read(new Object() {
+        }.getClass()).isAnonymous(), is(true));
+    }
+
+    @Test
+    public void testConcreteBeansFilter() throws Exception {
+        ClassFilter filter = ClassFilters.concreteBeans();
+        assertThat(filter.accept(read(GoodBean.class)), is(true));
+        assertThat(filter.accept(read(SubBean.class)), is(true));
+        assertThat(filter.accept(read(NoBean.class)), is(false));
+        assertThat(filter.accept(read(AbstractBean.class)), is(false));
+        assertThat(filter.accept(read(BeanInterface.class)), is(false));
+    }
+
+    @Test
+    public void testPackage() throws Exception {
+        assertThat(CheckMark.testPackage(SCAN_PACKAGE, withoutBroken()), is(2));
+    }
+
+    @Test
+    public void testPackageFailure() throws Exception {
+        exception.expect(AssertionError.class);
+
+        CheckMark.testPackage(SCAN_PACKAGE);
+    }
+
+    @Test
+    public void testJar() throws Exception {
+        Path jar = folder.getRoot().toPath().resolve("scan.jar");
+        try (FileSystem fileSystem = FileSystems.newFileSystem(URI.create("jar:" + jar.toUri()),
+                Collections.singletonMap("create", "true"))) {
+            for (Class<?> cls : new Class<?>[]{GoodBean.class, SubBean.class, NoBean.class, AbstractBean.class}) {
+                String name = "/" + cls.getName().replace('.', '/') + ".class";
+                Path target = fileSystem.getPath(name);
+                Files.createDirectories(target.getParent());
+                try (InputStream in = cls.getResourceAsStream(name); OutputStream out = Files.newOutputStream(target)) {
+                    byte[] buffer = new byte[4096];
+                    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+            }
+        }
+
+        // Without the classes of the test class path as parents, the beans can only come from the jar
+        final List<Class<?>> tested = new ArrayList<>();
+        CheckMarkListener listener = new CheckMarkListenerAdapter() {
+            @Override
+            public void classStarted(Class<?> cls, CheckKind check) {
+                tested.add(cls);
+            }
+        };
+        Thread thread = Thread.currentThread();
+        ClassLoader context = thread.getContextClassLoader();
+        CheckMark.addListener(listener);
+        try (URLClassLoader empty = new URLClassLoader(new URL[0], null)) {
+            thread.setContextClassLoader(empty);
+            assertThat(CheckMark.testJar(jar), is(2));
+        } finally {
+            thread.setContextClassLoader(context);
+            CheckMark.removeListener(listener);
+        }
+        assertThat(tested.isEmpty(), is(false));
+        for (Class<?> cls : tested) {
+            assertThat(cls.getName(), cls.getName().startsWith(SCAN_PACKAGE), is(true));
+            assertThat(cls.getName(), cls.getClassLoader() == ClassScannerTest.class.getClassLoader(), is(false));
+        }
+    }
+
+    private static ClassFilter withoutBroken() {
+        return ClassFilters.and(ClassFilters.concreteBeans(), ClassFilters.exclude(".*\\.broken\\..*"));
+    }
+
+    private static ClassFile read(Class<?> cls) throws Exception {
+        try (InputStream in = cls.getResourceAsStream("/" + cls.getName().replace('.', '/') + ".class")) {
+            return ClassFile.read(in);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class CompareToTest {
+    private static final CostBudget FAST = CostBudget.maxNanos(1000000).withWarmupMillis(5).withBatches(3);
+
+    @Test
+    public void testGoodCompareTo() throws Exception {
+        CheckMark.testCompareTo(GoodKey.class);
+        CheckMark.testCompareTo(GoodKey.class, FAST);
+    }
+
+    @Test
+    public void testNotComparable() throws Exception {
+        try {
+            CheckMark.testCompareTo(Object.class);
+            fail("Expected a class that is not Comparable to be rejected.");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testFieldNotUsed() throws Exception {
+        assertFailure(IgnoredFieldKey.class, "Field ignored is not used in compareTo.");
+    }
+
+    @Test
+    public void testInconsistentWithEquals() throws Exception {
+        assertFailure(InconsistentKey.class, "is inconsistent with equals when field id differs");
+    }
+
+    @Test
+    public void testNotAntisymmetric() throws Exception {
+        assertFailure(GreedyKey.class, "is not antisymmetric when field id differs");
+    }
+
+    @Test
+    public void testCostBudget() throws Exception {
+        try {
+            CheckMark.testCompareTo(SlowKey.class, CostBudget.maxNanos(1000).withWarmupMillis(5).withBatches(3));
+            fail("Expected the compareTo cost check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().startsWith("compareTo of "), is(true));
+            assertThat(e.getResult().getCheck(), is(CheckKind.COMPARE_TO));
+        }
+    }
+
+    private static void assertFailure(Class<?> cls, String message) throws Exception {
+        try {
+            CheckMark.testCompareTo(cls);
+            fail("Expected the compareTo check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), e.getMessage().contains(message), is(true));
+        }
+    }
+
+    public static class GoodKey implements Comparable<GoodKey> {
+        private int id;
+        private String name;
+
+        @Override
+        public int compareTo(GoodKey other) {
+            int result = Integer.compare(id, other.id);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GoodKey other = (GoodKey) o;
+            return id == other.id && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+    public static class IgnoredFieldKey implements Comparable<IgnoredFieldKey> {
+        private int id;
+        private int ignored;
+
+        @Override
+        public int compareTo(IgnoredFieldKey other) {
+            return Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && id == ((IgnoredFieldKey) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    public static class InconsistentKey implements Comparable<InconsistentKey> {
+        private int id;
+        private String name;
+
+        @Override
+        public int compareTo(InconsistentKey other) {
+            return name.compareTo(other.name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            InconsistentKey other = (InconsistentKey) o;
+            return id == other.id && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+    public static class GreedyKey implements Comparable<GreedyKey> {
+        private int id;
+
+        @Override
+        public int compareTo(GreedyKey other) {
+            return id == other.id ? 0 : 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && id == ((GreedyKey) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    public static class SlowKey implements Comparable<SlowKey> {
+        private String name;
+
+        @Override
+        public int compareTo(SlowKey other) {
+            long end = System.nanoTime() + 20000;
+            while (System.nanoTime() < end) {
+                // Simulate a deep compare.
+            }
+            return name.compareTo(other.name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && name.equals(((SlowKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
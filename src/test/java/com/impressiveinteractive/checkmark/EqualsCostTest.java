@@ -0,0 +1,168 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class EqualsCostTest {
+    private static final CostBudget FAST = CostBudget.maxNanos(1000000).withWarmupMillis(5).withBatches(3);
+
+    /**
+     * Set by {@link ProbeKey} when equals is given a field value it holds itself. Kept here, since the measurement sets
+     * all fields of the measured class, including static ones.
+     */
+    private static volatile boolean sharedValues;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMeasure() throws Exception {
+        EqualsCost cost = EqualsCost.measure(CheapKey.class, FAST);
+        for (EqualsCost.Operation operation : EqualsCost.EQUALS_AND_HASH_CODE) {
+            assertThat(cost.getNanos(operation), is(greaterThan(0.0)));
+            assertThat(cost.getRelativeCost(operation), is(greaterThan(0.0)));
+        }
+        assertThat(Double.isNaN(cost.getNanos(EqualsCost.Operation.COMPARE_TO)), is(true));
+    }
+
+    @Test
+    public void testEqualValuesAreDistinct() throws Exception {
+        sharedValues = false;
+        EqualsCost.measure(ProbeKey.class, FAST);
+        assertThat(sharedValues, is(false));
+    }
+
+    @Test
+    public void testAbsoluteBudget() throws Exception {
+        CheckMark.testEqualsAndHashCodeCost(CheapKey.class, FAST);
+        assertFailure(SlowKey.class, CostBudget.maxNanos(1000).withWarmupMillis(5).withBatches(3),
+                "the budget is 1000.0 ns");
+    }
+
+    @Test
+    public void testListenerEvents() throws Exception {
+        MetricsListener listener = new MetricsListener();
+        CheckMark.addListener(listener);
+        try {
+            CheckMark.testEqualsAndHashCodeCost(CheapKey.class, FAST);
+            assertFailure(SlowKey.class, CostBudget.maxNanos(1000).withWarmupMillis(5).withBatches(3),
+                    "the budget is 1000.0 ns");
+        } finally {
+            CheckMark.removeListener(listener);
+        }
+        assertThat(listener.getHistogram(CheapKey.class, MetricsListener.Phase.CHECK).getCount(), is(1L));
+        assertThat(listener.getFailures(CheapKey.class), is(0L));
+        assertThat(listener.getHistogram(SlowKey.class, MetricsListener.Phase.CHECK).getCount(), is(1L));
+        assertThat(listener.getFailures(SlowKey.class), is(1L));
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("baselines").resolve("cost.properties");
+        CostBudget budget = CostBudget.baseline(file).withWarmupMillis(5).withBatches(3);
+        CheckMark.testEqualsAndHashCodeCost(CheapKey.class, budget);
+
+        Properties baselines = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            baselines.load(reader);
+        }
+        String key = CheapKey.class.getName() + ".hashCode";
+        assertThat(baselines.getProperty(key), is(notNullValue()));
+
+        baselines.setProperty(key, "0.0001");
+        // Leave plenty of room for the other operations, so that only hashCode can fail on a noisy machine
+        baselines.setProperty(CheapKey.class.getName() + ".equal", "1000000");
+        baselines.setProperty(CheapKey.class.getName() + ".unequal", "1000000");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            baselines.store(writer, null);
+        }
+        assertFailure(CheapKey.class, budget, "hashCode of " + CheapKey.class.getCanonicalName());
+    }
+
+    private static void assertFailure(Class<?> cls, CostBudget budget, String message) throws Exception {
+        try {
+            CheckMark.testEqualsAndHashCodeCost(cls, budget);
+            fail("Expected the cost check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().contains(message), is(true));
+            assertThat(e.getResult().getProperty() == null, is(true));
+        }
+    }
+
+    public static class CheapKey {
+        private int id;
+        private String name;
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final CheapKey other = (CheapKey) obj;
+            return id == other.id && Objects.equals(name, other.name);
+        }
+    }
+
+    public static class ProbeKey {
+        private String name;
+        private Integer count;
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, count);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final ProbeKey other = (ProbeKey) obj;
+            if (this != other && (name == other.name || count == other.count)) {
+                sharedValues = true;
+            }
+            return Objects.equals(name, other.name) && Objects.equals(count, other.count);
+        }
+    }
+
+    public static class SlowKey {
+        private int id;
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            long end = System.nanoTime() + 20000;
+            while (System.nanoTime() < end) {
+                // Simulate a deep compare.
+            }
+            return obj != null && getClass() == obj.getClass() && id == ((SlowKey) obj).id;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EqualsOrderAdviceTest {
+    /**
+     * The time the costly comparison of the fixtures takes, far above the noise of timing a few nanoseconds.
+     */
+    private static final long COSTLY_NANOS = 20000;
+
+    /**
+     * Set by the fixtures when equals is given a field value it holds itself.
+     */
+    private static volatile boolean sharedValues;
+
+    @Test
+    public void testCostlyFieldFirst() throws Exception {
+        sharedValues = false;
+        EqualsOrderAdvice advice = EqualsOrderAdvice.measure(CostlyFirstKey.class, 5, 5);
+
+        assertThat(advice.toString(), advice.isReorderingAdvised(), is(true));
+        assertThat(advice.getSuggestedOrder(), is(equalTo(Arrays.asList("id", "name"))));
+        assertThat(advice.toString(), advice.toString().endsWith("Compare the fields in this order: id, name."),
+                is(true));
+        assertThat(sharedValues, is(false));
+    }
+
+    @Test
+    public void testCheapFieldFirst() throws Exception {
+        EqualsOrderAdvice advice = CheckMark.adviseEqualsFieldOrder(CheapFirstKey.class);
+
+        assertThat(advice.toString(), advice.isReorderingAdvised(), is(false));
+        assertThat(advice.getSuggestedOrder(), is(equalTo(Arrays.asList("id", "name"))));
+        assertThat(advice.getObservedOrder(), is(equalTo(Arrays.asList("id", "name"))));
+    }
+
+    /**
+     * A deep compare of the name, which takes {@link #COSTLY_NANOS} whatever the names are.
+     */
+    private static boolean costlyEquals(String name, String other) {
+        if (name == other) {
+            sharedValues = true;
+        }
+        long end = System.nanoTime() + COSTLY_NANOS;
+        while (System.nanoTime() < end) {
+            // Simulate a deep compare.
+        }
+        return Objects.equals(name, other);
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    public static class CostlyFirstKey {
+        private String name;
+        private int id;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CostlyFirstKey other = (CostlyFirstKey) o;
+            return costlyEquals(name, other.name) && id == other.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, id);
+        }
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    public static class CheapFirstKey {
+        private String name;
+        private int id;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CheapFirstKey other = (CheapFirstKey) o;
+            return id == other.id && costlyEquals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, id);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class FootprintTest {
+    @Test
+    public void testCompressedOops() throws Exception {
+        Footprint footprint = CheckMark.analyzeFootprint(Padded.class);
+
+        assertThat(footprint.getShallowBytes(), is(32L));
+        assertThat(footprint.getFieldBytes(), is(13L));
+        assertThat(footprint.getPaddingBytes(), is(7L));
+        assertThat(new ArrayList<>(footprint.getOffsets().keySet()),
+                is(equalTo(Arrays.asList("count", "id", "flag"))));
+        assertThat(footprint.getOffsets().get("count"), is(12L));
+        assertThat(footprint.getOffsets().get("id"), is(16L));
+        assertThat(footprint.getOffsets().get("flag"), is(24L));
+        assertThat(footprint.getBoxedSavings().get("count"), is(16L));
+        assertThat(footprint.getBoxedSavings().size(), is(1));
+    }
+
+    @Test
+    public void testUncompressedOops() throws Exception {
+        Footprint footprint = CheckMark.analyzeFootprint(Padded.class, ObjectLayout.UNCOMPRESSED_OOPS);
+
+        assertThat(footprint.getShallowBytes(), is(40L));
+        assertThat(footprint.getPaddingBytes(), is(7L));
+        assertThat(footprint.getBoxedSavings().get("count"), is(28L));
+    }
+
+    @Test
+    public void testSuperclassFieldsFirst() throws Exception {
+        Footprint footprint = CheckMark.analyzeFootprint(PaddedChild.class);
+
+        assertThat(new ArrayList<>(footprint.getOffsets().keySet()),
+                is(equalTo(Arrays.asList("count", "id", "flag", "small"))));
+        assertThat(footprint.getOffsets().get("small"), is(26L));
+        assertThat(footprint.getShallowBytes(), is(32L));
+    }
+
+    @Test
+    public void testRetained() throws Exception {
+        Footprint footprint = CheckMark.analyzeFootprint(Holder.class);
+
+        assertThat(footprint.getShallowBytes(), is(24L));
+        assertThat(footprint.getRetainedObjects(), is(2));
+        assertThat(footprint.getRetainedBytes(), is(24L + 32L));
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        String report = CheckMark.analyzeFootprint(Padded.class).toString();
+
+        assertThat(report, report.startsWith("Instances of " + Padded.class.getCanonicalName()
+                + " take 32 bytes under COMPRESSED_OOPS: 12 header, 13 fields and 7 padding."), is(true));
+        assertThat(report, report.contains("Integer count"), is(true));
+        assertThat(report, report.contains("Field count of type Integer could be the primitive int"), is(true));
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        CheckMark.testFootprint(Padded.class, 32);
+        try {
+            CheckMark.testFootprint(Padded.class, ObjectLayout.UNCOMPRESSED_OOPS, 32);
+            fail("Expected the footprint check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().startsWith("Instances of " + Padded.class.getCanonicalName()
+                    + " take 40 bytes under UNCOMPRESSED_OOPS, at most 32 is allowed."), is(true));
+            assertThat(e.getMessage(), e.getMessage().contains("could be the primitive int"), is(true));
+            assertThat(e.getResult().getCheck(), is(CheckKind.FOOTPRINT));
+        }
+    }
+
+    public static class Padded {
+        private boolean flag;
+        private long id;
+        private Integer count;
+    }
+
+    public static class PaddedChild extends Padded {
+        private short small;
+    }
+
+    public static class Holder {
+        private int[] values = new int[4];
+        private Holder self = this;
+    }
+}
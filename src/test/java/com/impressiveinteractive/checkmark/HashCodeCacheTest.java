@@ -0,0 +1,212 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class HashCodeCacheTest {
+    @Test
+    public void testFindCache() throws Exception {
+        assertThat(HashCodeCache.forClass(CachedKey.class).getName(), is("hash"));
+        assertThat(HashCodeCache.forClass(AnnotatedKey.class).getName(), is("memo"));
+        assertThat(HashCodeCache.forClass(UnannotatedKey.class) == null, is(true));
+        for (Field field : VerificationPlan.forFields(CachedKey.class).getFields()) {
+            assertThat(field.getName(), field.getName().equals("hash"), is(false));
+        }
+    }
+
+    @Test
+    public void testHashFieldUsedInEquals() throws Exception {
+        CheckMark.testEqualsAndHashCode(ContentKey.class);
+    }
+
+    @Test
+    public void testConventionalNames() {
+        assertThat(HashCodeCache.isConventional("hash", true, false, false), is(true));
+        assertThat(HashCodeCache.isConventional("hashCode", true, false, false), is(true));
+        assertThat(HashCodeCache.isConventional("cachedHash", true, false, false), is(true));
+        assertThat(HashCodeCache.isConventional("cachedHashCode", true, false, false), is(true));
+        assertThat(HashCodeCache.isConventional("hash", false, false, false), is(false));
+        assertThat(HashCodeCache.isConventional("hash", true, true, false), is(false));
+        assertThat(HashCodeCache.isConventional("hash", true, false, true), is(false));
+        assertThat(HashCodeCache.isConventional("hashes", true, false, false), is(false));
+    }
+
+    @Test
+    public void testCachedHashCode() throws Exception {
+        CheckMark.testEqualsAndHashCode(CachedKey.class);
+        CheckMark.testEqualsAndHashCode(AnnotatedKey.class);
+        CheckMark.testEqualsAndHashCode(GeneratedCachedKey.class);
+        CheckMark.testHashCodeDistribution(CachedKey.class);
+    }
+
+    @Test
+    public void testStaleCache() throws Exception {
+        try {
+            CheckMark.testEqualsAndHashCode(StaleKey.class);
+            fail("Expected the hashCode cache check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().contains("after field hash is cleared"), is(true));
+            assertThat(e.getResult().getProperty(), is("hash"));
+        }
+    }
+
+    @Test
+    public void testConcurrentHashCode() throws Exception {
+        CheckMark.testHashCodeConcurrency(CachedKey.class);
+        CheckMark.testHashCodeConcurrency(AnnotatedKey.class, 8, 20);
+    }
+
+    @Test
+    public void testRacyHashCode() throws Exception {
+        try {
+            CheckMark.testHashCodeConcurrency(RacyKey.class, 4, 20);
+            fail("Expected the concurrent hashCode check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().contains("is not thread-safe"), is(true));
+            assertThat(e.getResult().getCheck(), is(CheckKind.HASH_CODE_CONCURRENCY));
+        }
+    }
+
+    public static class CachedKey {
+        private String name;
+        private int id;
+        @CachedHashCode
+        private int hash;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CachedKey other = (CachedKey) o;
+            return id == other.id && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                h = Objects.hash(name, id);
+                hash = h;
+            }
+            return h;
+        }
+    }
+
+    public static class AnnotatedKey {
+        private String name;
+        @CachedHashCode
+        private int memo;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && Objects.equals(name, ((AnnotatedKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = memo;
+            if (h == 0) {
+                h = Objects.hashCode(name);
+                memo = h;
+            }
+            return h;
+        }
+    }
+
+    @CheckMarked
+    public static class GeneratedCachedKey {
+        private String name;
+        @CachedHashCode
+        private int hash;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && Objects.equals(name, ((GeneratedCachedKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                h = Objects.hashCode(name);
+                hash = h;
+            }
+            return h;
+        }
+    }
+
+    public static class UnannotatedKey {
+        private int hash;
+    }
+
+    public static class ContentKey {
+        private int contentHash;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && contentHash == ((ContentKey) o).contentHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return contentHash;
+        }
+    }
+
+    public static class StaleKey {
+        private String name;
+        @CachedHashCode
+        private int hash;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && Objects.equals(name, ((StaleKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0) {
+                h = Objects.hashCode(name);
+                hash = h + 1;
+            }
+            return h;
+        }
+    }
+
+    public static class RacyKey {
+        private String name;
+        @CachedHashCode
+        private int hash;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && Objects.equals(name, ((RacyKey) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            if (hash == 0) {
+                // Publishes a partial result, which other threads return as it is
+                hash = 17;
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                hash = 31 * hash + Objects.hashCode(name);
+            }
+            return hash;
+        }
+    }
+}
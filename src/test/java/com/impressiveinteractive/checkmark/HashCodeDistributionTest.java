@@ -0,0 +1,167 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.util.Objects;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class HashCodeDistributionTest {
+    @Test
+    public void testGoodHashCode() throws Exception {
+        CheckMark.testHashCodeDistribution(GoodHash.class);
+
+        HashCodeDistribution distribution = HashCodeDistribution.measure(GoodHash.class, 256);
+        assertThat(distribution.getDistinct(), is(greaterThan(200)));
+        assertThat(distribution.getContributions().get("id"), is(closeTo(1.0, 0.001)));
+        assertThat(distribution.getContributions().get("name"), is(closeTo(1.0, 0.001)));
+        assertThat(distribution.getContributions().get("flag"), is(closeTo(1.0, 0.001)));
+    }
+
+    @Test
+    public void testConstantHashCode() throws Exception {
+        assertFailure(ConstantHash.class, "Field id contributes too little");
+        assertFailure(ConstantHash.class, HashCodeThresholds.defaults().withMinFieldContribution(0),
+                "collides too often");
+    }
+
+    @Test
+    public void testIgnoredField() throws Exception {
+        assertThat(HashCodeDistribution.measure(IgnoredFieldHash.class, 256).getContributions().get("ignored"),
+                is(closeTo(0.0, 0.001)));
+        assertFailure(IgnoredFieldHash.class, "Field ignored contributes too little");
+    }
+
+    @Test
+    public void testBadBucketSpread() throws Exception {
+        assertFailure(HighBitsHash.class, "spreads badly over HashMap buckets");
+    }
+
+    @Test
+    public void testThresholds() throws Exception {
+        CheckMark.testHashCodeDistribution(HighBitsHash.class, HashCodeThresholds.defaults()
+                .withMinBucketUsage(0).withMaxBucketSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testInvalidThresholds() {
+        HashCodeThresholds defaults = HashCodeThresholds.defaults();
+        assertInvalid(defaults, -0.1, "maximum collision rate");
+        assertInvalid(defaults.withMaxCollisionRate(0.5), 1.5, "maximum collision rate");
+        try {
+            defaults.withMinBucketUsage(Double.NaN);
+            fail("Expected NaN to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), e.getMessage().contains("minimum bucket usage"), is(true));
+        }
+        try {
+            defaults.withMinFieldContribution(2);
+            fail("Expected a contribution above 1 to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), e.getMessage().contains("minimum field contribution"), is(true));
+        }
+        try {
+            defaults.withMaxBucketSize(0);
+            fail("Expected an empty bucket size to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), e.getMessage().contains("bucket size"), is(true));
+        }
+    }
+
+    private static void assertInvalid(HashCodeThresholds thresholds, double maxCollisionRate, String message) {
+        try {
+            thresholds.withMaxCollisionRate(maxCollisionRate);
+            fail("Expected " + maxCollisionRate + " to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), e.getMessage().contains(message), is(true));
+        }
+    }
+
+    private static void assertFailure(Class<?> cls, String message) throws ReflectiveOperationException {
+        assertFailure(cls, HashCodeThresholds.defaults(), message);
+    }
+
+    private static void assertFailure(Class<?> cls, HashCodeThresholds thresholds, String message)
+            throws ReflectiveOperationException {
+        try {
+            CheckMark.testHashCodeDistribution(cls, thresholds);
+            fail("Expected the hashCode distribution check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), e.getMessage().contains(message), is(true));
+        }
+    }
+
+    public static class GoodHash {
+        private int id;
+        private String name;
+        private boolean flag;
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, flag);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final GoodHash other = (GoodHash) obj;
+            return id == other.id && Objects.equals(name, other.name) && flag == other.flag;
+        }
+    }
+
+    public static class ConstantHash {
+        private int id;
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass() && id == ((ConstantHash) obj).id;
+        }
+    }
+
+    public static class IgnoredFieldHash {
+        private long id;
+        private String ignored;
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final IgnoredFieldHash other = (IgnoredFieldHash) obj;
+            return id == other.id && Objects.equals(ignored, other.ignored);
+        }
+    }
+
+    public static class HighBitsHash {
+        private int id;
+
+        @Override
+        public int hashCode() {
+            return id << 11;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass() && id == ((HighBitsHash) obj).id;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class InvocationEngineTest {
+    private final InvocationEngine original = CheckMark.getInvocationEngine();
+
+    @After
+    public void restoreEngine() {
+        CheckMark.setInvocationEngine(original);
+        CheckMark.setBytecodeShortcut(true);
+    }
+
+    @Test
+    public void testBind() throws Exception {
+        VerificationPlan.Property property = VerificationPlan.forClass(PrimitiveClass.class).getProperties().get(0);
+        assertThat(InvocationEngine.REFLECTION.bind(property), is(instanceOf(ReflectionInvoker.class)));
+        assertThat(InvocationEngine.METHOD_HANDLE.bind(property), is(instanceOf(MethodHandleInvoker.class)));
+    }
+
+    @Test
+    public void testSystemProperty() throws Exception {
+        String property = System.getProperty(InvocationEngine.SYSTEM_PROPERTY);
+        try {
+            System.setProperty(InvocationEngine.SYSTEM_PROPERTY, " reflection ");
+            assertThat(InvocationEngine.fromSystemProperty(), is(InvocationEngine.REFLECTION));
+            System.setProperty(InvocationEngine.SYSTEM_PROPERTY, "reflektion");
+            assertThat(InvocationEngine.fromSystemProperty(), is(InvocationEngine.METHOD_HANDLE));
+        } finally {
+            if (property == null) {
+                System.clearProperty(InvocationEngine.SYSTEM_PROPERTY);
+            } else {
+                System.setProperty(InvocationEngine.SYSTEM_PROPERTY, property);
+            }
+        }
+    }
+
+    @Test
+    public void testEngines() throws Exception {
+        // Without the shortcut, trivial accessors and mutators are called through the engine as well
+        for (boolean shortcut : new boolean[]{false, true}) {
+            CheckMark.setBytecodeShortcut(shortcut);
+            for (InvocationEngine engine : InvocationEngine.values()) {
+                CheckMark.setInvocationEngine(engine);
+                CheckMark.testAccessorsAndMutators(PrimitiveClass.class);
+                CheckMark.testAccessorsAndMutators(ReferenceClass.class);
+                CheckMark.testAccessorsAndMutators(DoubleClass.class);
+                expectFailure(BrokenPrimitiveClass.class);
+                expectFailure(ThrowingClass.class);
+            }
+        }
+    }
+
+    @Test
+    public void testCheckedExceptionsAreWrapped() throws Exception {
+        VerificationPlan.Property property = VerificationPlan.forClass(CheckedClass.class).getProperties().get(0);
+        for (InvocationEngine engine : InvocationEngine.values()) {
+            PropertyInvoker invoker = engine.bind(property);
+            try {
+                invoker.read(new CheckedClass());
+                fail("Expected the getter to throw using " + engine);
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(ClassNotFoundException.class)));
+            }
+            try {
+                invoker.write(new CheckedClass(), "value");
+                fail("Expected the setter to throw using " + engine);
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause(), is(instanceOf(NoSuchFieldException.class)));
+            }
+        }
+    }
+
+    private static void expectFailure(Class<?> cls) throws Exception {
+        try {
+            CheckMark.testAccessorsAndMutators(cls);
+        } catch (AssertionError e) {
+            return;
+        }
+        fail("Expected an AssertionError for " + cls.getSimpleName() + " using " + CheckMark.getInvocationEngine());
+    }
+
+    public static class PrimitiveClass {
+        private long value;
+
+        public long getValue() {
+            return value;
+        }
+
+        public void setValue(long value) {
+            this.value = value;
+        }
+    }
+
+    public static class DoubleClass {
+        private double value;
+
+        public double getValue() {
+            return value;
+        }
+
+        public void setValue(double value) {
+            this.value = value;
+        }
+    }
+
+    public static class ReferenceClass {
+        private Runnable value;
+
+        public Runnable getValue() {
+            return value;
+        }
+
+        public void setValue(Runnable value) {
+            this.value = value;
+        }
+    }
+
+    public static class BrokenPrimitiveClass {
+        private long value;
+
+        public long getValue() {
+            return value;
+        }
+
+        public void setValue(long value) {
+            this.value = value + 1;
+        }
+    }
+
+    public static class CheckedClass {
+        private String value;
+
+        public String getValue() throws ClassNotFoundException {
+            throw new ClassNotFoundException("boo");
+        }
+
+        public void setValue(String value) throws NoSuchFieldException {
+            throw new NoSuchFieldException("boo");
+        }
+    }
+
+    public static class ThrowingClass {
+        private String value;
+
+        public String getValue() {
+            throw new IllegalStateException("boo");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MetricsListenerTest {
+    private final MetricsListener listener = new MetricsListener();
+
+    @Before
+    public void register() {
+        CheckMark.addListener(listener);
+    }
+
+    @After
+    public void unregister() {
+        assertThat(CheckMark.removeListener(listener), is(true));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        // Its accessor and mutator are trivial, call them anyway to get an instance created
+        CheckMark.setBytecodeShortcut(false);
+        try {
+            CheckMark.testAccessorsAndMutators(CheckMarkTest.AccessorAndMutatorClass.class);
+        } finally {
+            CheckMark.setBytecodeShortcut(true);
+        }
+        CheckMark.testEqualsAndHashCode(CheckMarkTest.EqualsClass.class);
+
+        Class<?> beanClass = CheckMarkTest.AccessorAndMutatorClass.class;
+        assertThat(listener.getHistogram(beanClass, MetricsListener.Phase.CHECK).getCount(), is(2L));
+        assertThat(listener.getHistogram(beanClass, MetricsListener.Phase.PROPERTY).getCount(), is(2L));
+        assertThat(listener.getHistogram(beanClass, MetricsListener.Phase.CREATE_INSTANCE).getCount(), is(1L));
+
+        Class<?> equalsClass = CheckMarkTest.EqualsClass.class;
+        assertThat(listener.getHistogram(equalsClass, MetricsListener.Phase.CHECK).getCount(), is(1L));
+        assertThat(listener.getHistogram(equalsClass, MetricsListener.Phase.PROPERTY).getCount(), is(3L));
+        assertThat(listener.getHistogram(equalsClass, MetricsListener.Phase.DUMB_MOCK).getCount(), is(greaterThan(0L)));
+        assertThat(listener.getFailures(equalsClass), is(0L));
+    }
+
+    @Test
+    public void testNestedChecks() throws Exception {
+        MetricsListener nested = new MetricsListener();
+        Class<?> outer = CheckMarkTest.EqualsClass.class;
+        Class<?> inner = CheckMarkTest.AccessorClass.class;
+
+        nested.classStarted(outer, CheckKind.COMPARE_TO);
+        nested.classStarted(outer, CheckKind.COMPARE_TO);
+        nested.classStarted(inner, CheckKind.ACCESSORS);
+        nested.mockCreated(String.class, 10);
+        nested.classFinished(inner, CheckKind.ACCESSORS, 20);
+        nested.mockCreated(String.class, 30);
+        nested.classFinished(outer, CheckKind.COMPARE_TO, 40);
+        nested.mockCreated(String.class, 50);
+        nested.classFinished(outer, CheckKind.COMPARE_TO, 60);
+        nested.mockCreated(String.class, 70);
+
+        assertThat(nested.getHistogram(outer, MetricsListener.Phase.CHECK).getCount(), is(1L));
+        assertThat(nested.getHistogram(outer, MetricsListener.Phase.CHECK).getMaxNanos(), is(60L));
+        assertThat(nested.getHistogram(outer, MetricsListener.Phase.DUMB_MOCK).getCount(), is(2L));
+        assertThat(nested.getHistogram(inner, MetricsListener.Phase.CHECK).getCount(), is(1L));
+        assertThat(nested.getHistogram(inner, MetricsListener.Phase.DUMB_MOCK).getCount(), is(1L));
+        assertThat(nested.getHistogram(String.class, MetricsListener.Phase.DUMB_MOCK).getCount(), is(1L));
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        try {
+            CheckMark.testMutators(CheckMarkTest.MutatorBrokenClass.class);
+            fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            assertThat(listener.getFailures(CheckMarkTest.MutatorBrokenClass.class), is(1L));
+        }
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        CheckMark.testAccessors(CheckMarkTest.AccessorClass.class);
+
+        StringBuilder json = new StringBuilder();
+        listener.writeJson(json);
+        assertThat(json.toString(), startsWith("{\"classes\":[{\"class\":\""));
+        assertThat(json.toString(), containsString("\"CHECK\":{\"count\":1,"));
+
+        StringBuilder csv = new StringBuilder();
+        listener.writeCsv(csv);
+        assertThat(csv.toString(), startsWith("class,phase,count,"));
+        assertThat(csv.toString(), containsString(CheckMarkTest.AccessorClass.class.getName() + ",CHECK,1,"));
+    }
+
+    @Test
+    public void testHistogram() throws Exception {
+        MetricsListener.Histogram histogram = new MetricsListener.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10);
+        }
+        assertThat(histogram.getCount(), is(100L));
+        assertThat(histogram.getMinNanos(), is(10L));
+        assertThat(histogram.getMaxNanos(), is(1000L));
+        assertThat(histogram.getPercentileNanos(50), is(511L));
+        assertThat(histogram.getPercentileNanos(100), is(1000L));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,7 +13,12 @@ import static org.hamcrest.Matchers.emptyArray;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 @SuppressWarnings("UnusedDeclaration")
 public class ReflectionTest {
@@ -50,6 +56,48 @@ public class ReflectionTest {
         assertThat(Reflection.dumbMock(TestEnum.class), is(instanceOf(TestEnum.class)));
     }
 
+    @Test
+    public void testDumbMockSeedsDiffer() throws Exception {
+        Class<?>[] types = {boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
+                short.class, Short.class, int.class, Integer.class, long.class, Long.class, float.class, Float.class,
+                double.class, Double.class, String.class, TestEnum.class};
+        for (Class<?> type : types) {
+            assertThat(type.getName(), Reflection.dumbMock(type, CheckMark.SEED_ONE),
+                    is(not(equalTo(Reflection.dumbMock(type, CheckMark.SEED_TWO)))));
+            assertThat(type.getName(), Reflection.dumbMock(type, CheckMark.SEED_ONE),
+                    is(equalTo(Reflection.dumbMock(type, CheckMark.SEED_ONE))));
+        }
+    }
+
+    @Test
+    public void testDumbMockPools() throws Exception {
+        assertThat(Reflection.dumbMock(Integer.class, 1000), is(sameInstance(Reflection.dumbMock(int.class, 1000))));
+        assertThat(Reflection.dumbMock(String.class, 1337), is(sameInstance(Reflection.dumbMock(String.class, 1337))));
+        assertThat(Reflection.dumbMock(String.class, DumbValues.POOL_SIZE), is(equalTo("" + DumbValues.POOL_SIZE)));
+        assertThat(Reflection.dumbMock(long.class, -5), is(-5L));
+    }
+
+    @Test
+    public void testDumbPrimitives() throws Exception {
+        for (long seed : new long[]{0, 1, CheckMark.SEED_ONE, CheckMark.SEED_TWO, 70000, -3}) {
+            assertThat(Reflection.dumbMock(boolean.class, seed), is(Reflection.dumbBoolean(seed)));
+            assertThat(Reflection.dumbMock(byte.class, seed), is(Reflection.dumbByte(seed)));
+            assertThat(Reflection.dumbMock(char.class, seed), is(Reflection.dumbChar(seed)));
+            assertThat(Reflection.dumbMock(short.class, seed), is(Reflection.dumbShort(seed)));
+            assertThat(Reflection.dumbMock(int.class, seed), is(Reflection.dumbInt(seed)));
+            assertThat(Reflection.dumbMock(long.class, seed), is(Reflection.dumbLong(seed)));
+            assertThat(Reflection.dumbMock(float.class, seed), is(Reflection.dumbFloat(seed)));
+            assertThat(Reflection.dumbMock(double.class, seed), is(Reflection.dumbDouble(seed)));
+        }
+    }
+
+    @Test
+    public void testDumbMockEnumConstants() throws Exception {
+        for (long seed = -4; seed < 4; seed++) {
+            assertThat(Reflection.dumbMock(ConstantEnum.class, seed), is(instanceOf(ConstantEnum.class)));
+        }
+    }
+
     @Test
     public void testCreateInstance() throws Exception {
         assertThat(Reflection.createInstance(Object.class), is(instanceOf(Object.class)));
@@ -88,6 +136,87 @@ public class ReflectionTest {
         Reflection.createInstance(TestEnum.class);
     }
 
+    @Test
+    public void testCreateInstanceRemembersConstructor() throws Exception {
+        RecipeClass first = Reflection.createInstance(RecipeClass.class);
+        int failedAttempts = RecipeClass.failedAttempts;
+        RecipeClass second = Reflection.createInstance(RecipeClass.class);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.value, is("1"));
+        assertThat(RecipeClass.failedAttempts, is(failedAttempts));
+    }
+
+    @Test
+    public void testCreateInstanceRemembersFailure() throws Exception {
+        try {
+            Reflection.createInstance(FailingClass.class);
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        int attempts = FailingClass.attempts;
+        exception.expect(IllegalArgumentException.class);
+        try {
+            Reflection.createInstance(FailingClass.class);
+        } finally {
+            assertThat(FailingClass.attempts, is(attempts));
+        }
+    }
+
+    @Test
+    public void testResolveConstructors() throws Exception {
+        assertThat(Reflection.resolveConstructors(Arrays.<Class<?>>asList(
+                RecipeClass.class, FailingClass.class, TestInterface.class, Object.class)), is(2));
+    }
+
+    @Test
+    public void testCreateInstanceSharesNestedInstances() throws Exception {
+        int before = Leaf.created;
+        Quad quad = Reflection.createInstance(Quad.class);
+
+        assertThat(Leaf.created - before, is(1));
+        assertThat(quad.left, is(sameInstance(quad.right)));
+        assertThat(quad.left.left.left, is(sameInstance(quad.right.right.right)));
+
+        Quad other = Reflection.createInstance(Quad.class);
+        assertThat(other.left, is(not(sameInstance(quad.left))));
+    }
+
+    @Test
+    public void testCreateInstanceCycle() throws Exception {
+        Chicken chicken = Reflection.createInstance(Chicken.class);
+        assertThat(chicken.egg, is(notNullValue()));
+        assertThat(chicken.egg.chicken, is(nullValue()));
+    }
+
+    @Test
+    public void testCreateInstanceMaxDepth() throws Exception {
+        Reflection.setMaxInstanceDepth(1);
+        try {
+            Quad quad = Reflection.createInstance(Quad.class);
+            assertThat(quad.left, is(notNullValue()));
+            assertThat(quad.left.left, is(nullValue()));
+        } finally {
+            Reflection.setMaxInstanceDepth(Reflection.DEFAULT_MAX_INSTANCE_DEPTH);
+        }
+    }
+
+    @Test
+    public void testCreateInstanceForgetsPlaceholderConstructors() throws Exception {
+        Reflection.setMaxInstanceDepth(1);
+        try {
+            Reflection.createInstance(Outer.class);
+            fail("Expected Outer to fail without an Inner.");
+        } catch (IllegalArgumentException e) {
+            // Mid fell back to the constructor without an Inner
+        } finally {
+            Reflection.setMaxInstanceDepth(Reflection.DEFAULT_MAX_INSTANCE_DEPTH);
+        }
+
+        assertThat(Reflection.createInstance(Mid.class).inner, is(notNullValue()));
+        assertThat(Reflection.createInstance(Outer.class).mid.inner, is(notNullValue()));
+    }
+
     @Test
     public void testGetField() throws Exception {
         Field expected = TestAbstractClass.class.getDeclaredField("stringValue");
@@ -143,7 +272,122 @@ public class ReflectionTest {
         TRUE, FALSE, MAYBE
     }
 
+    public static enum ConstantEnum {
+        ONE, TWO;
+
+        public static final String NOT_A_CONSTANT = "three";
+    }
+
+    public static class RecipeClass {
+        private static int failedAttempts;
+        private final String value;
+
+        public RecipeClass() {
+            failedAttempts++;
+            throw new IllegalStateException("Not this one.");
+        }
+
+        public RecipeClass(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class FailingClass {
+        private static int attempts;
+
+        public FailingClass() {
+            attempts++;
+            throw new IllegalStateException("Never.");
+        }
+    }
+
     public class Other {
         private int intValue;
     }
+
+    public static final class Leaf {
+        private static int created;
+
+        public Leaf() {
+            created++;
+        }
+    }
+
+    public static final class Pair {
+        private final Leaf left;
+        private final Leaf right;
+
+        public Pair(Leaf left, Leaf right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    public static final class Triple {
+        private final Pair left;
+        private final Pair right;
+
+        public Triple(Pair left, Pair right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    public static final class Quad {
+        private final Triple left;
+        private final Triple right;
+
+        public Quad(Triple left, Triple right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    public static final class Chicken {
+        private final Egg egg;
+
+        public Chicken(Egg egg) {
+            this.egg = egg;
+        }
+    }
+
+    public static final class Egg {
+        private final Chicken chicken;
+
+        public Egg(Chicken chicken) {
+            this.chicken = chicken;
+        }
+    }
+
+    public static final class Outer {
+        private final Mid mid;
+
+        public Outer(Mid mid) {
+            if (mid.inner == null) {
+                throw new IllegalStateException("Needs a complete Mid.");
+            }
+            this.mid = mid;
+        }
+    }
+
+    public static final class Mid {
+        private final Inner inner;
+
+        public Mid(Inner inner) {
+            if (inner == null) {
+                throw new IllegalArgumentException("Needs an Inner.");
+            }
+            this.inner = inner;
+        }
+
+        public Mid(String first, String second) {
+            this.inner = null;
+        }
+    }
+
+    public static final class Inner {
+        public Inner() {
+            // Nothing to build
+        }
+    }
 }
@@ -0,0 +1,220 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class ResultCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void disableCache() {
+        CheckMark.setResultCache(null);
+    }
+
+    @Test
+    public void testResultsArePersisted() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        ResultCache cache = ResultCache.open(directory);
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(false));
+
+        cache.recordPassed(CachedBean.class, CheckKind.ACCESSORS);
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(true));
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.MUTATORS), is(false));
+
+        ResultCache reopened = ResultCache.open(directory);
+        assertThat(reopened.size(), is(1));
+        assertThat(reopened.hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(true));
+        assertThat(reopened.hasPassed(CachedSubBean.class, CheckKind.ACCESSORS), is(false));
+    }
+
+    @Test
+    public void testCorruptStoreIsAMiss() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        Files.write(directory.resolve(ResultCache.FILE_NAME), "not a result cache".getBytes("UTF-8"));
+
+        ResultCache cache = ResultCache.open(directory);
+        assertThat(cache.size(), is(0));
+        cache.recordPassed(CachedBean.class, CheckKind.ACCESSORS);
+
+        assertThat(ResultCache.open(directory).hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(true));
+    }
+
+    @Test
+    public void testDamagedRecordsAreSkipped() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        ResultCache cache = ResultCache.open(directory);
+        cache.recordPassed(CachedBean.class, CheckKind.ACCESSORS);
+        cache.recordPassed(CachedBean.class, CheckKind.MUTATORS);
+
+        Path file = cache.getFile();
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[8] ^= 0xff;
+        Files.write(file, bytes);
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        ResultCache reopened = ResultCache.open(directory);
+        assertThat(reopened.size(), is(1));
+        assertThat(reopened.hasPassed(CachedBean.class, CheckKind.MUTATORS), is(true));
+
+        reopened.recordPassed(CachedBean.class, CheckKind.EQUALS_AND_HASH_CODE);
+        assertThat(ResultCache.open(directory).size(), is(2));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+        final Class<?>[] classes = {CachedBean.class, CachedSubBean.class, FailingBean.class};
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final CheckKind check = CheckKind.values()[i % CheckKind.values().length];
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        ResultCache cache = ResultCache.open(directory);
+                        for (Class<?> cls : classes) {
+                            cache.recordPassed(cls, check);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        int checks = Math.min(4, CheckKind.values().length);
+        assertThat(ResultCache.open(directory).size(), is(equalTo(classes.length * checks)));
+    }
+
+    @Test
+    public void testCheckMarkSkipsPassedClasses() throws Exception {
+        CheckMark.setResultCache(ResultCache.open(folder.getRoot().toPath()));
+        final AtomicInteger started = new AtomicInteger();
+        CheckMarkListener listener = new CheckMarkListenerAdapter() {
+            @Override
+            public void classStarted(Class<?> cls, CheckKind check) {
+                started.incrementAndGet();
+            }
+        };
+        CheckMark.addListener(listener);
+        try {
+            CheckMark.testAccessorsAndMutators(CachedBean.class);
+            assertThat(started.get(), is(2));
+            CheckMark.testAccessorsAndMutators(CachedBean.class);
+            assertThat(started.get(), is(2));
+
+            for (int i = 0; i < 2; i++) {
+                try {
+                    CheckMark.testAccessors(FailingBean.class);
+                    fail("Expected the accessor check to fail.");
+                } catch (AssertionError e) {
+                    // Failures are never cached.
+                }
+            }
+            assertThat(started.get(), is(4));
+        } finally {
+            CheckMark.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testOptionsArePartOfTheKey() throws Exception {
+        ResultCache cache = ResultCache.open(folder.getRoot().toPath());
+        String defaults = HashCodeThresholds.defaults().toString();
+        String strict = HashCodeThresholds.defaults().withMaxCollisionRate(0).toString();
+        cache.recordPassed(CachedBean.class, CheckKind.HASH_CODE_DISTRIBUTION, defaults);
+
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.HASH_CODE_DISTRIBUTION, defaults), is(true));
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.HASH_CODE_DISTRIBUTION, strict), is(false));
+
+        cache.recordPassed(CachedBean.class, CheckKind.ACCESSORS);
+        CheckMark.setBytecodeShortcut(false);
+        try {
+            assertThat(cache.hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(false));
+        } finally {
+            CheckMark.setBytecodeShortcut(true);
+        }
+        assertThat(cache.hasPassed(CachedBean.class, CheckKind.ACCESSORS), is(true));
+        cache.close();
+    }
+
+    @Test
+    public void testInstanceChecksAreNotCached() throws Exception {
+        ResultCache cache = ResultCache.open(folder.getRoot().toPath());
+        CheckMark.setResultCache(cache);
+        CheckMark.testAccessorsAndMutators(new CachedBean());
+        assertThat(cache.size(), is(0));
+
+        CheckMark.testAccessorsAndMutators(CachedBean.class);
+        assertThat(cache.size(), is(2));
+        cache.close();
+    }
+
+    @Test
+    public void testHelperChangeInvalidatesVersion() throws Exception {
+        Path classes = folder.newFolder("classes").toPath();
+        Path pkg = Files.createDirectories(classes.resolve("com/impressiveinteractive/checkmark"));
+        Files.write(pkg.resolve("CheckMark.class"), new byte[]{1, 2, 3});
+        Files.write(pkg.resolve("DumbValues.class"), new byte[]{4, 5, 6});
+
+        String version = ResultCache.version(classes);
+        assertThat(ResultCache.version(classes), equalTo(version));
+
+        Files.write(pkg.resolve("DumbValues.class"), new byte[]{4, 5, 7});
+        assertThat("A changed helper must change the version", ResultCache.version(classes).equals(version), is(false));
+
+        Path jar = folder.newFile("checkmark.jar").toPath();
+        Files.write(jar, new byte[]{1, 2, 3});
+        String jarVersion = ResultCache.version(jar);
+        Files.write(jar, new byte[]{1, 2, 4});
+        assertThat("A changed jar must change the version", ResultCache.version(jar).equals(jarVersion), is(false));
+    }
+
+    public static class CachedBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class CachedSubBean extends CachedBean {
+        // No contents of its own.
+    }
+
+    public static class FailingBean {
+        private String name;
+
+        public String getName() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("UnusedDeclaration")
+public class SentinelsTest {
+    @Test
+    public void testInterfaceSentinel() throws Exception {
+        Runnable sentinel = Sentinels.sentinel(Runnable.class, 1);
+        assertThat(Proxy.isProxyClass(sentinel.getClass()), is(true));
+        sentinel.run();
+
+        SentinelInterface custom = Sentinels.sentinel(SentinelInterface.class, 1);
+        assertThat(custom.getCount(), is(0));
+        assertThat(custom.isEnabled(), is(false));
+        assertThat(custom.getName(), is(nullValue()));
+    }
+
+    @Test
+    public void testClassSentinel() throws Exception {
+        SentinelClass sentinel = Sentinels.sentinel(SentinelClass.class, 1);
+        assertThat(sentinel, is(instanceOf(SentinelClass.class)));
+        assertThat(sentinel.getClass(), is(not(equalTo((Object) SentinelClass.class))));
+        assertThat(Sentinels.isSentinel(sentinel), is(true));
+        assertThat(sentinel.getCount(), is(0));
+
+        Date date = Sentinels.sentinel(Date.class, 1);
+        assertThat(date, is(instanceOf(Date.class)));
+        assertThat(date.getTime(), is(0L));
+    }
+
+    @Test
+    public void testIdentity() throws Exception {
+        for (Class<?> type : new Class<?>[]{SentinelInterface.class, SentinelClass.class}) {
+            Object one = Sentinels.sentinel(type, 1);
+            Object two = Sentinels.sentinel(type, 2);
+            assertThat(Sentinels.sentinel(type, 1), is(sameInstance(one)));
+            assertThat(two, is(not(sameInstance(one))));
+            assertThat(one.equals(one), is(true));
+            assertThat(one.equals(two), is(false));
+            assertThat(one.hashCode(), is(System.identityHashCode(one)));
+        }
+    }
+
+    @Test
+    public void testCheckValues() throws Exception {
+        for (Class<?> type : new Class<?>[]{SentinelInterface.class, SentinelClass.class}) {
+            Object accessor = Sentinels.checkValue(type, CheckKind.ACCESSORS, 1);
+            Object mutator = Sentinels.checkValue(type, CheckKind.MUTATORS, 1);
+            assertThat(accessor, is(instanceOf(type)));
+            assertThat(Sentinels.isSentinel(accessor), is(true));
+            assertThat(Sentinels.checkValue(type, CheckKind.ACCESSORS, 1), is(sameInstance(accessor)));
+            assertThat(Sentinels.checkValue(type, CheckKind.MUTATORS, 1), is(sameInstance(mutator)));
+            assertThat(mutator, is(not(sameInstance(accessor))));
+            for (long seed : new long[]{1, -1, Long.MIN_VALUE, Long.MIN_VALUE | 1, Long.MIN_VALUE | 1L << 62 | 1}) {
+                Object sentinel = Sentinels.sentinel(type, seed);
+                assertThat(sentinel, is(not(sameInstance(accessor))));
+                assertThat(sentinel, is(not(sameInstance(mutator))));
+            }
+        }
+        assertThat(Sentinels.isSentinel(new Object()), is(false));
+    }
+
+    public interface SentinelInterface {
+        int getCount();
+
+        boolean isEnabled();
+
+        String getName();
+    }
+
+    public abstract static class SentinelClass {
+        private final int count;
+
+        public SentinelClass(int count) {
+            this.count = count + 1;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
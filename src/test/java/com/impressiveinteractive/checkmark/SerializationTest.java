@@ -0,0 +1,304 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class SerializationTest {
+    private static final SerializationBudget FAST = SerializationBudget.defaults().withWarmupMillis(5).withBatches(3);
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        SerializationCost cost = CheckMark.testSerialization(Payload.class, FAST);
+
+        assertThat(cost.getType() == Payload.class, is(true));
+        assertThat(cost.getCodec() instanceof JavaSerializationCodec, is(true));
+        assertThat(cost.getBytes() > 0, is(true));
+        assertThat(cost.getNanos() > 0, is(true));
+        assertThat(cost.toString(), cost.toString().contains(cost.getBytes() + " bytes"), is(true));
+    }
+
+    @Test
+    public void testCustomCodec() throws Exception {
+        SerializationCost java = CheckMark.testSerialization(Payload.class, FAST);
+        SerializationCost compact = CheckMark.testSerialization(Payload.class, FAST.withCodec(new PayloadCodec()));
+
+        assertThat(compact.getCodec() instanceof PayloadCodec, is(true));
+        assertThat(compact.getBytes() < java.getBytes(), is(true));
+    }
+
+    @Test
+    public void testSizeBudget() throws Exception {
+        int bytes = CheckMark.testSerialization(Payload.class, FAST).getBytes();
+        CheckMark.testSerialization(Payload.class, FAST.withMaxBytes(bytes));
+        assertFailure(Payload.class, FAST.withMaxBytes(bytes - 1), "bytes when encoded with Java serialization");
+    }
+
+    @Test
+    public void testTimeBudget() throws Exception {
+        CheckMark.testSerialization(Payload.class, FAST.withMaxNanos(TimeUnit.SECONDS.toNanos(1)));
+        assertFailure(Payload.class, FAST.withMaxNanos(1), "the budget is 1.0 ns");
+    }
+
+    @Test
+    public void testTimeMessageLocale() throws Exception {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertFailure(Payload.class, FAST.withMaxNanos(1), "the budget is 1.0 ns");
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    public void testNestedObjects() throws Exception {
+        SerializationCost order = CheckMark.testSerialization(Order.class, FAST);
+        SerializationCost payload = CheckMark.testSerialization(Payload.class, FAST);
+
+        assertThat(order.toString(), order.getBytes() > payload.getBytes(), is(true));
+    }
+
+    @Test
+    public void testJdkFields() throws Exception {
+        CheckMark.testSerialization(JdkPayload.class, FAST);
+    }
+
+    @Test
+    public void testNoSerializableValue() throws Exception {
+        try {
+            CheckMark.testSerialization(TaskPayload.class, FAST);
+            fail("Expected the serialization check to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().contains("Field task of"), is(true));
+            assertThat(e.getMessage(), e.getMessage().contains("no serializable value is known"), is(true));
+        }
+    }
+
+    @Test
+    public void testInvalidBudget() {
+        try {
+            FAST.withWarmupMillis(-1);
+            fail("Expected a negative warm-up time to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("The warm-up time can not be negative."));
+        }
+    }
+
+    @Test
+    public void testNotSerializable() throws Exception {
+        try {
+            CheckMark.testSerialization(NotSerializablePayload.class, FAST);
+            fail("Expected the round trip to fail.");
+        } catch (CheckFailure e) {
+            assertThat(e.getMessage(), e.getMessage().contains("could not be encoded and decoded"), is(true));
+            assertThat(e.getCause() instanceof NotSerializableException, is(true));
+            assertThat(e.getResult().getCheck(), is(CheckKind.SERIALIZATION));
+        }
+    }
+
+    @Test
+    public void testTransientFieldInEquals() throws Exception {
+        assertFailure(TransientPayload.class, FAST, "does not give an equal instance");
+    }
+
+    private static void assertFailure(Class<?> cls, SerializationBudget budget, String message) throws Exception {
+        try {
+            CheckMark.testSerialization(cls, budget);
+            fail("Expected the serialization check to fail.");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), e.getMessage().contains(message), is(true));
+        }
+    }
+
+    public static class Payload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+        private String name;
+        private TimeUnit unit;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Payload other = (Payload) o;
+            return id == other.id && Objects.equals(name, other.name) && unit == other.unit;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, unit);
+        }
+    }
+
+    public static class Order implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+        private Customer customer;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Order other = (Order) o;
+            return id == other.id && Objects.equals(customer, other.customer);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, customer);
+        }
+    }
+
+    public static class Customer implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+        private Payload preferences;
+        private Order lastOrder;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Customer other = (Customer) o;
+            return Objects.equals(name, other.name) && Objects.equals(preferences, other.preferences)
+                    && Objects.equals(lastOrder, other.lastOrder);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, preferences, lastOrder);
+        }
+    }
+
+    public static class JdkPayload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private List<String> names;
+        private Set<Long> ids;
+        private Map<String, Payload> payloads;
+        private SortedMap<Integer, Date> history;
+        private Collection<? extends Number> amounts;
+        private Date created;
+        private BigDecimal total;
+        private Serializable tag;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JdkPayload other = (JdkPayload) o;
+            return Objects.equals(names, other.names) && Objects.equals(ids, other.ids)
+                    && Objects.equals(payloads, other.payloads) && Objects.equals(history, other.history)
+                    && Objects.equals(amounts, other.amounts) && Objects.equals(created, other.created)
+                    && Objects.equals(total, other.total) && Objects.equals(tag, other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(names, ids, payloads, history, amounts, created, total, tag);
+        }
+    }
+
+    public static class TaskPayload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Runnable task;
+    }
+
+    public static class NotSerializablePayload {
+        private long id;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && id == ((NotSerializablePayload) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) id;
+        }
+    }
+
+    public static class TransientPayload implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private transient String name;
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass() && Objects.equals(name, ((TransientPayload) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(name);
+        }
+    }
+
+    /**
+     * Writes the fields of a {@link Payload} without any class description.
+     */
+    public static class PayloadCodec implements SerializationCodec {
+        @Override
+        public void encode(Object instance, OutputStream out) throws IOException {
+            Payload payload = (Payload) instance;
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeLong(payload.id);
+            data.writeUTF(payload.name);
+            data.writeByte(payload.unit.ordinal());
+            data.flush();
+        }
+
+        @Override
+        public Object decode(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            Payload payload = new Payload();
+            payload.id = data.readLong();
+            payload.name = data.readUTF();
+            payload.unit = TimeUnit.values()[data.readByte()];
+            return payload;
+        }
+
+        @Override
+        public String toString() {
+            return "payload fields";
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class StreamingReporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNdjson() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("report.ndjson");
+        try (StreamingReporter reporter = StreamingReporter.open(file, StreamingReporter.Format.NDJSON)) {
+            run(reporter);
+            assertThat(reporter.getRecords(), is(6L));
+            assertThat(reporter.getFailures(), is(2L));
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines.size(), is(6));
+        String accessible = lines.get(0);
+        assertThat(accessible, accessible.startsWith("{\"class\":\"" + CheckMarkTest.AccessorAndMutatorClass.class
+                .getName() + "\",\"check\":\"ACCESSORS\",\"property\":\"accessible\",\"outcome\":\"passed\""),
+                is(true));
+        String failedProperty = lines.get(4);
+        assertThat(failedProperty, failedProperty.contains("\"check\":\"MUTATORS\",\"property\":\"accessible\","
+                + "\"outcome\":\"failed\""), is(true));
+        assertThat(failedProperty, failedProperty.contains("\"failure\":\"" + CheckFailure.class.getName() + "\""),
+                is(true));
+        String failedClass = lines.get(5);
+        assertThat(failedClass, failedClass.contains("\"check\":\"MUTATORS\",\"property\":null,\"outcome\":\"failed\""),
+                is(true));
+    }
+
+    @Test
+    public void testJUnitXml() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("report.xml");
+        try (StreamingReporter reporter = StreamingReporter.open(file, StreamingReporter.Format.JUNIT_XML)) {
+            run(reporter);
+        }
+
+        NodeList testCases = parse(file).getElementsByTagName("testcase");
+        assertThat(testCases.getLength(), is(6));
+        Element first = (Element) testCases.item(0);
+        assertThat(first.getAttribute("classname"), is(equalTo(CheckMarkTest.AccessorAndMutatorClass.class.getName())));
+        assertThat(first.getAttribute("name"), is(equalTo("ACCESSORS.accessible")));
+        Element failedClass = (Element) testCases.item(5);
+        assertThat(failedClass.getAttribute("name"), is(equalTo("MUTATORS")));
+        Element failure = (Element) failedClass.getElementsByTagName("failure").item(0);
+        assertThat(failure.getAttribute("type"), is(equalTo(CheckFailure.class.getName())));
+    }
+
+    @Test
+    public void testPartialReportIsValid() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("partial.xml");
+        try (StreamingReporter reporter = StreamingReporter.open(file, StreamingReporter.Format.JUNIT_XML)) {
+            CheckMark.addListener(reporter);
+            try {
+                CheckMark.testAccessors(CheckMarkTest.AccessorAndMutatorClass.class);
+                reporter.flush();
+                assertThat(parse(file).getElementsByTagName("testcase").getLength(), is(2));
+
+                CheckMark.testMutators(CheckMarkTest.AccessorAndMutatorClass.class);
+                reporter.flush();
+                assertThat(parse(file).getElementsByTagName("testcase").getLength(), is(4));
+            } finally {
+                CheckMark.removeListener(reporter);
+            }
+        }
+        assertThat(parse(file).getElementsByTagName("testcase").getLength(), is(4));
+    }
+
+    @Test
+    public void testEscaping() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("escaped.xml");
+        try (StreamingReporter reporter = StreamingReporter.open(file, StreamingReporter.Format.JUNIT_XML)) {
+            reporter.classStarted(String.class, CheckKind.ACCESSORS);
+            reporter.failed(String.class, CheckKind.ACCESSORS, null, new AssertionError("<\"a\" & \u0001b>\n"));
+            reporter.classFinished(String.class, CheckKind.ACCESSORS, 1);
+        }
+        Element failure = (Element) parse(file).getElementsByTagName("failure").item(0);
+        assertThat(failure.getAttribute("message"), is(equalTo("<\"a\" & b>\n")));
+    }
+
+    private static void run(StreamingReporter reporter) throws Exception {
+        CheckMark.addListener(reporter);
+        try {
+            CheckMark.testAccessorsAndMutators(CheckMarkTest.AccessorAndMutatorClass.class);
+            try {
+                CheckMark.testMutators(CheckMarkTest.MutatorBrokenClass.class);
+                fail("Expected an AssertionError");
+            } catch (AssertionError e) {
+                // Reported as failure.
+            }
+        } finally {
+            CheckMark.removeListener(reporter);
+        }
+    }
+
+    private static Document parse(Path file) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file.toFile());
+    }
+}
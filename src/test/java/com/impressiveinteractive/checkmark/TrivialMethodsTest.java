@@ -0,0 +1,138 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@SuppressWarnings("UnusedDeclaration")
+public class TrivialMethodsTest {
+    @Test
+    public void testTrivialMethods() throws Exception {
+        assertThat(accessor(CheckMarkTest.AccessorClass.class, "accessible"), is(true));
+        assertThat(accessor(CheckMarkTest.PrimitiveAccessorClass.class, "accessible"), is(true));
+        assertThat(accessor(CheckMarkTest.SubAccessorClass.class, "accessible"), is(true));
+        assertThat(mutator(CheckMarkTest.MutatorClass.class, "accessible"), is(true));
+        assertThat(mutator(CheckMarkTest.PrimitiveMutatorClass.class, "accessible"), is(true));
+        assertThat(accessor(WideClass.class, "wide"), is(true));
+        assertThat(mutator(WideClass.class, "wide"), is(true));
+    }
+
+    @Test
+    public void testNonTrivialMethods() throws Exception {
+        assertThat(accessor(CheckMarkTest.AccessorBrokenClass.class, "accessible"), is(false));
+        assertThat(accessor(CheckMarkTest.AccessorExceptionClass.class, "accessible"), is(false));
+        assertThat(mutator(CheckMarkTest.MutatorBrokenClass.class, "accessible"), is(false));
+        assertThat(mutator(CheckMarkTest.SmallValueMutatorClass.class, "accessible"), is(false));
+    }
+
+    @Test
+    public void testOtherField() throws Exception {
+        assertThat(accessor(SwappedClass.class, "first"), is(false));
+        assertThat(mutator(SwappedClass.class, "first"), is(false));
+        try {
+            CheckMark.testAccessors(SwappedClass.class);
+            fail("Expected the accessor of the wrong field to be called and fail.");
+        } catch (AssertionError e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testShadowedField() throws Exception {
+        assertThat(accessor(ShadowingClass.class, "value"), is(false));
+        assertThat(mutator(ShadowingClass.class, "value"), is(false));
+    }
+
+    @Test
+    public void testNoInstance() throws Exception {
+        CheckMark.testAccessorsAndMutators(UnconstructableClass.class);
+        assertThat(CheckMark.needsInstance(UnconstructableClass.class, CheckKind.ACCESSORS), is(false));
+
+        CheckMark.setBytecodeShortcut(false);
+        try {
+            assertThat(CheckMark.needsInstance(UnconstructableClass.class, CheckKind.ACCESSORS), is(true));
+            CheckMark.testAccessors(UnconstructableClass.class);
+            fail("Expected the instance creation to fail without the bytecode shortcut.");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        } finally {
+            CheckMark.setBytecodeShortcut(true);
+        }
+    }
+
+    private static boolean accessor(Class<?> cls, String name) throws Exception {
+        return property(cls, name).isTrivialAccessor();
+    }
+
+    private static boolean mutator(Class<?> cls, String name) throws Exception {
+        return property(cls, name).isTrivialMutator();
+    }
+
+    private static VerificationPlan.Property property(Class<?> cls, String name) throws Exception {
+        for (VerificationPlan.Property property : VerificationPlan.forClass(cls).getProperties()) {
+            if (property.getName().equals(name)) {
+                return property;
+            }
+        }
+        throw new AssertionError("No property " + name);
+    }
+
+    public static class WideClass {
+        private double wide;
+
+        public double getWide() {
+            return wide;
+        }
+
+        public void setWide(double wide) {
+            this.wide = wide;
+        }
+    }
+
+    public static class SwappedClass {
+        private String first;
+        private String second;
+
+        public String getFirst() {
+            return second;
+        }
+
+        public void setFirst(String first) {
+            this.second = first;
+        }
+    }
+
+    public static class ShadowedClass {
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class ShadowingClass extends ShadowedClass {
+        private String value;
+    }
+
+    public static class UnconstructableClass {
+        private String name;
+
+        public UnconstructableClass() {
+            throw new IllegalStateException("Never constructed.");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.impressiveinteractive.checkmark;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@SuppressWarnings("UnusedDeclaration")
+public class VerificationPlanTest {
+    @Test
+    public void testPlanIsCached() throws Exception {
+        assertThat(VerificationPlan.forClass(PlanClass.class), is(sameInstance(VerificationPlan.forClass(PlanClass.class))));
+        assertThat(VerificationPlan.forFields(PlanClass.class), is(sameInstance(VerificationPlan.forClass(PlanClass.class))));
+    }
+
+    @Test
+    public void testProperties() throws Exception {
+        VerificationPlan plan = VerificationPlan.forClass(PlanClass.class);
+        assertThat(plan.getProperties(), hasSize(3));
+
+        for (VerificationPlan.Property property : plan.getProperties()) {
+            switch (property.getName()) {
+                case "fixed":
+                    assertThat(property.getField(), is(PlanClass.class.getDeclaredField("fixed")));
+                    assertThat(property.isFinalField(), is(true));
+                    assertThat(property.isPrimitive(), is(true));
+                    assertThat(property.isAccessible(), is(true));
+                    break;
+                case "text":
+                    assertThat(property.getField(), is(PlanClass.class.getDeclaredField("text")));
+                    assertThat(property.isFinalField(), is(false));
+                    assertThat(property.isPrimitive(), is(false));
+                    break;
+                case "computed":
+                    assertThat(property.getField(), is(nullValue()));
+                    assertThat(property.isAccessible(), is(false));
+                    break;
+                default:
+                    throw new AssertionError("Unexpected property " + property.getName());
+            }
+        }
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        VerificationPlan plan = VerificationPlan.forFields(PlanClass.class);
+        assertThat(new HashSet<>(plan.getFields()), is(equalTo(Reflection.getFields(PlanClass.class))));
+        for (Field field : plan.getFields()) {
+            assertThat(field.isAccessible(), is(true));
+        }
+    }
+
+    public static class PlanClass {
+        private final int fixed = 1;
+        private String text;
+
+        public int getFixed() {
+            return fixed;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+
+        public String getComputed() {
+            return text + fixed;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.impressiveinteractive.checkmark.scan;
+
+public abstract class AbstractBean {
+    private String value;
+
+    public String getValue() {
+        return value;
+    }
+}
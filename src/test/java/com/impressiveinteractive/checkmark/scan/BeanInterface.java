@@ -0,0 +1,5 @@
+package com.impressiveinteractive.checkmark.scan;
+
+public interface BeanInterface {
+    String getValue();
+}
@@ -0,0 +1,22 @@
+package com.impressiveinteractive.checkmark.scan;
+
+public class GoodBean {
+    private String name;
+    private int count;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
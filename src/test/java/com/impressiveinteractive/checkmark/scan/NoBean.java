@@ -0,0 +1,7 @@
+package com.impressiveinteractive.checkmark.scan;
+
+public class NoBean {
+    public String describe() {
+        return "no bean";
+    }
+}
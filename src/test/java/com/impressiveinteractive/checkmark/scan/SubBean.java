@@ -0,0 +1,5 @@
+package com.impressiveinteractive.checkmark.scan;
+
+public class SubBean extends GoodBean {
+    // No contents of its own.
+}
@@ -0,0 +1,9 @@
+package com.impressiveinteractive.checkmark.scan.broken;
+
+public class BrokenBean {
+    private String value;
+
+    public String getValue() {
+        return "";
+    }
+}